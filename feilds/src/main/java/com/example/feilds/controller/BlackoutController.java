@@ -0,0 +1,152 @@
+package com.example.feilds.controller;
+
+import com.example.feilds.service.BlackoutService;
+import com.example.feilds.service.BookingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/blackouts")
+@CrossOrigin(origins = "*")
+public class BlackoutController {
+
+    private final BlackoutService blackoutService;
+
+    public BlackoutController(BlackoutService blackoutService) {
+        this.blackoutService = blackoutService;
+    }
+
+    /**
+     * Upcoming blackouts, optionally only the ones that apply to a field
+     * GET /api/blackouts?fieldId=1
+     */
+    @GetMapping
+    public ResponseEntity<?> getBlackouts(@RequestParam(required = false) Integer fieldId) {
+        try {
+            List<BlackoutService.Blackout> blackouts = blackoutService.getUpcoming(fieldId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Blackouts retrieved successfully");
+            response.put("data", blackouts);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve blackouts: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Close a field, or every field without a fieldId, for a date range (admin only)
+     * POST /api/blackouts
+     */
+    @PostMapping
+    public ResponseEntity<?> createBlackout(@RequestBody Map<String, Object> request,
+                                            @RequestHeader("X-Admin-ID") Integer adminId) {
+        try {
+            BlackoutService.Blackout entry = blackout(request);
+            BlackoutService.Blackout blackout = blackoutService.createBlackout(adminId, entry.fieldId(),
+                    entry.fromDate(), entry.toDate(), entry.reason());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Blackout created successfully");
+            response.put("data", blackout);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (ClassCastException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid blackout: fieldId is a number, dates are \"yyyy-MM-dd\" strings"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to create blackout: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Import a season calendar of blackouts in one go (admin only)
+     * POST /api/blackouts/import
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importCalendar(@RequestBody Map<String, Object> request,
+                                            @RequestHeader("X-Admin-ID") Integer adminId) {
+        try {
+            if (!(request.get("blackouts") instanceof List<?> items)) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "blackouts is required"));
+            }
+            List<BlackoutService.Blackout> entries = new ArrayList<>();
+            for (Object item : items) {
+                if (!(item instanceof Map<?, ?> entry)) {
+                    throw new IllegalArgumentException("Each blackout must be an object");
+                }
+                entries.add(blackout(entry));
+            }
+            boolean replace = Boolean.TRUE.equals(request.get("replace"));
+
+            BlackoutService.ImportResult result = blackoutService.importCalendar(adminId, entries, replace);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", result.created().size() + " blackouts imported, " + result.removed() + " replaced");
+            response.put("data", result);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (ClassCastException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid blackout: fieldId is a number, dates are \"yyyy-MM-dd\" strings"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to import blackouts: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Delete a blackout (admin only)
+     * DELETE /api/blackouts/{blackoutId}
+     */
+    @DeleteMapping("/{blackoutId}")
+    public ResponseEntity<?> deleteBlackout(@PathVariable Integer blackoutId,
+                                            @RequestHeader("X-Admin-ID") Integer adminId) {
+        try {
+            blackoutService.deleteBlackout(adminId, blackoutId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Blackout deleted successfully");
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to delete blackout: " + e.getMessage()));
+        }
+    }
+
+    private static BlackoutService.Blackout blackout(Map<?, ?> entry) {
+        return new BlackoutService.Blackout(null, (Integer) entry.get("fieldId"),
+                BookingService.parseDate((String) entry.get("fromDate")),
+                BookingService.parseDate((String) entry.get("toDate")), (String) entry.get("reason"));
+    }
+}
@@ -2,12 +2,23 @@ package com.example.feilds.controller;
 
 import com.example.feilds.model.*;
 import com.example.feilds.repository.*;
+import com.example.feilds.service.ApprovalQueueService;
+import com.example.feilds.service.BookingHoldService;
+import com.example.feilds.service.BookingIntakeService;
+import com.example.feilds.service.BookingLockManager;
+import com.example.feilds.service.BookingService;
+import com.example.feilds.service.IdempotencyService;
+import com.example.feilds.service.RecurringBookingService;
+import com.example.feilds.service.WaitlistService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,38 +28,80 @@ public class BookingController {
     private final BookingsRepository bookingsRepo;
     private final BookingStatusChangesRepository statusRepo;
     private final ReviewsRepository reviewsRepo;
-    private final TeamRepository teamRepo;
     private final UserRepository userRepo;
+    private final BookingService bookingService;
+    private final ApprovalQueueService approvalQueueService;
+    private final RecurringBookingService recurringBookingService;
+    private final IdempotencyService idempotencyService;
+    private final BookingHoldService holdService;
+    private final WaitlistService waitlistService;
+    private final BookingIntakeService intakeService;
 
     public BookingController(BookingsRepository bookingsRepo,
                              BookingStatusChangesRepository statusRepo,
                              ReviewsRepository reviewsRepo,
-                             TeamRepository teamRepo,
-                             UserRepository userRepo) {
+                             UserRepository userRepo,
+                             BookingService bookingService,
+                             ApprovalQueueService approvalQueueService,
+                             RecurringBookingService recurringBookingService,
+                             IdempotencyService idempotencyService,
+                             BookingHoldService holdService,
+                             WaitlistService waitlistService,
+                             BookingIntakeService intakeService) {
         this.bookingsRepo = bookingsRepo;
         this.statusRepo = statusRepo;
         this.reviewsRepo = reviewsRepo;
-        this.teamRepo = teamRepo;
         this.userRepo = userRepo;
+        this.bookingService = bookingService;
+        this.approvalQueueService = approvalQueueService;
+        this.recurringBookingService = recurringBookingService;
+        this.idempotencyService = idempotencyService;
+        this.holdService = holdService;
+        this.waitlistService = waitlistService;
+        this.intakeService = intakeService;
     }
 
     // 1) Track booking status timeline
     @GetMapping("/{bookingId}/status")
     public ResponseEntity<List<BookingStatusChanges>> getStatusTimeline(@PathVariable Integer bookingId) {
-        return ResponseEntity.ok(statusRepo.findByBooking_IdOrderByCreatedAtAsc(bookingId));
+        return ResponseEntity.ok(statusRepo.findTimeline(bookingId));
     }
 
-    // 2) View booking history for a team
+    // 2) View booking history for a team (flat views, keyset-paginated)
     @GetMapping("/team/{teamId}")
-    public ResponseEntity<List<Bookings>> getTeamHistory(@PathVariable Integer teamId) {
-        Teams team = teamRepo.findById(teamId).orElse(null);
-        if (team == null) return ResponseEntity.notFound().build();
-        return ResponseEntity.ok(bookingsRepo.findByTeamOrderByDateDesc(team));
+    public ResponseEntity<?> getTeamHistory(@PathVariable Integer teamId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "50") int size) {
+        try {
+            BookingService.HistoryPage page = bookingService.getTeamHistory(teamId, cursor, size);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Team bookings retrieved successfully");
+            response.put("data", page.items());
+            response.put("nextCursor", page.nextCursor());
+
+            return ResponseEntity.ok(response);
+        } catch (BookingService.NotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve team bookings: " + e.getMessage()));
+        }
     }
 
-    // 3) Rate a booking
+    // 3) Rate a booking (retries with the same Idempotency-Key replay the first response)
     @PostMapping("/{bookingId}/rate")
-    public ResponseEntity<Reviews> rateBooking(@PathVariable Integer bookingId, @RequestBody Map<String, Object> body) {
+    public ResponseEntity<?> rateBooking(@PathVariable Integer bookingId, @RequestBody Map<String, Object> body,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("POST /api/bookings/" + bookingId + "/rate", idempotencyKey, body,
+                () -> saveRating(bookingId, body));
+    }
+
+    private ResponseEntity<?> saveRating(Integer bookingId, Map<String, Object> body) {
         Integer rating = (Integer) body.get("rating");
         Integer customerId = (Integer) body.get("customerId");
         if (rating == null || rating < 1 || rating > 5) return ResponseEntity.badRequest().build();
@@ -63,12 +116,18 @@ public class BookingController {
                 .isHidden(false)
                 .createdAt(LocalDateTime.now())
                 .build();
-        return ResponseEntity.ok(reviewsRepo.save(review));
+        return ResponseEntity.ok(reviewView(reviewsRepo.save(review)));
     }
 
-    // 4) Review a booking (with optional rating)
+    // 4) Review a booking (with optional rating, Idempotency-Key aware)
     @PostMapping("/{bookingId}/review")
-    public ResponseEntity<Reviews> reviewBooking(@PathVariable Integer bookingId, @RequestBody Map<String, Object> body) {
+    public ResponseEntity<?> reviewBooking(@PathVariable Integer bookingId, @RequestBody Map<String, Object> body,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("POST /api/bookings/" + bookingId + "/review", idempotencyKey, body,
+                () -> saveReview(bookingId, body));
+    }
+
+    private ResponseEntity<?> saveReview(Integer bookingId, Map<String, Object> body) {
         Integer rating = body.get("rating") instanceof Integer ? (Integer) body.get("rating") : null;
         String comment = (String) body.get("comment");
         Integer customerId = (Integer) body.get("customerId");
@@ -83,12 +142,34 @@ public class BookingController {
                 .isHidden(false)
                 .createdAt(LocalDateTime.now())
                 .build();
-        return ResponseEntity.ok(reviewsRepo.save(review));
+        return ResponseEntity.ok(reviewView(reviewsRepo.save(review)));
     }
 
-    // 5) Create a new booking request (team admin only)
+    // Ids instead of the booking and customer entities, so the response (and its stored replay) carries no user details
+    private static Map<String, Object> reviewView(Reviews review) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", review.getId());
+        view.put("bookingId", review.getBooking().getId());
+        view.put("customerId", review.getCustomer().getId());
+        view.put("rating", review.getRating());
+        view.put("comment", review.getComment());
+        view.put("isHidden", review.getIsHidden());
+        view.put("createdAt", review.getCreatedAt());
+        return view;
+    }
+
+    // 5) Create a new booking request (team admin only, Idempotency-Key aware)
     @PostMapping
-    public ResponseEntity<?> createBooking(@RequestBody Map<String, Object> body) {
+    public ResponseEntity<?> createBooking(@RequestBody Map<String, Object> body,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+        boolean async = prefer != null ? prefer.contains("respond-async") : intakeService.isAsyncByDefault();
+        return idempotencyService.execute("POST /api/bookings", idempotencyKey, body,
+                () -> async ? enqueueBooking(body) : submitBooking(body));
+    }
+
+    // Write-behind variant of 5): validated and queued, written later by the intake writer
+    private ResponseEntity<?> enqueueBooking(Map<String, Object> body) {
         try {
             Integer teamId = (Integer) body.get("teamId");
             Integer fieldSlotId = (Integer) body.get("fieldSlotId");
@@ -100,47 +181,306 @@ public class BookingController {
                         .body(Map.of("error", "Team ID, Field Slot ID, Player ID, and date are required"));
             }
 
-            // Validate inputs and create booking
-            Teams team = teamRepo.findById(teamId).orElse(null);
-            Users player = userRepo.findById(playerId).orElse(null);
-            
-            if (team == null || player == null) {
+            BookingIntakeService.IntakeStatus status = intakeService.submit(teamId, fieldSlotId, playerId,
+                    BookingService.parseDate(dateStr));
+            String statusUrl = "/api/bookings/intake/" + status.requestId();
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("requestId", status.requestId());
+            data.put("state", status.state());
+            data.put("statusUrl", statusUrl);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "accepted");
+            response.put("message", "Booking request queued");
+            response.put("data", data);
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).header("Location", statusUrl).body(response);
+        } catch (BookingIntakeService.IntakeFullException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1")
+                    .body(Map.of("error", e.getMessage()));
+        } catch (BookingService.SlotUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 5i) Status of a queued booking request (see enqueueBooking)
+    @GetMapping("/intake/{requestId}")
+    public ResponseEntity<?> getIntakeStatus(@PathVariable String requestId) {
+        return intakeService.describe(requestId)
+                .<ResponseEntity<?>>map(data -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("status", "success");
+                    response.put("message", "Booking request status retrieved successfully");
+                    response.put("data", data);
+                    return ResponseEntity.ok(response);
+                })
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Unknown or expired request id")));
+    }
+
+    private ResponseEntity<?> submitBooking(Map<String, Object> body) {
+        try {
+            Integer teamId = (Integer) body.get("teamId");
+            Integer fieldSlotId = (Integer) body.get("fieldSlotId");
+            Integer playerId = (Integer) body.get("playerId");
+            String dateStr = (String) body.get("date");
+
+            if (teamId == null || fieldSlotId == null || playerId == null || dateStr == null) {
                 return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Invalid team or player"));
+                        .body(Map.of("error", "Team ID, Field Slot ID, Player ID, and date are required"));
             }
 
-            // TODO: Add field slot validation and create booking
+            LocalDate date = BookingService.parseDate(dateStr);
+            Bookings booking = bookingService.createBooking(teamId, fieldSlotId, playerId, date);
+
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
             response.put("message", "Booking request created successfully");
-            
-            return ResponseEntity.ok(response);
+            response.put("data", BookingView.of(booking));
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
+        } catch (BookingService.SlotUnavailableException | BookingLockManager.LockTimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to create booking: " + e.getMessage()));
         }
     }
 
-    // 6) Get booking history with filters (admin)
+    // 5b) Book the same slot every week for a season (team admin only)
+    @PostMapping("/recurring")
+    public ResponseEntity<?> createRecurringBooking(@RequestBody Map<String, Object> body) {
+        try {
+            Integer teamId = (Integer) body.get("teamId");
+            Integer fieldSlotId = (Integer) body.get("fieldSlotId");
+            Integer playerId = (Integer) body.get("playerId");
+            String startDateStr = (String) body.get("startDate");
+            String endDateStr = (String) body.get("endDate");
+            Integer occurrences = (Integer) body.get("occurrences");
+            String dayOfWeekStr = (String) body.get("dayOfWeek");
+
+            if (teamId == null || fieldSlotId == null || playerId == null || startDateStr == null) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Team ID, Field Slot ID, Player ID, and startDate are required"));
+            }
+
+            LocalDate startDate = BookingService.parseDate(startDateStr);
+            LocalDate endDate = endDateStr != null ? BookingService.parseDate(endDateStr) : null;
+            DayOfWeek dayOfWeek = null;
+            if (dayOfWeekStr != null) {
+                try {
+                    dayOfWeek = DayOfWeek.valueOf(dayOfWeekStr.trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid dayOfWeek. Use MONDAY..SUNDAY");
+                }
+            }
+
+            RecurringBookingService.SeriesResult result = recurringBookingService.createSeries(
+                    teamId, playerId, fieldSlotId, startDate, endDate, occurrences, dayOfWeek);
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("created", result.created());
+            data.put("conflicts", result.conflicts());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", data);
+            if (result.created().isEmpty()) {
+                response.put("error", "All requested dates are already booked");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            }
+
+            response.put("status", "success");
+            response.put("message", result.conflicts().isEmpty()
+                    ? "Recurring booking created successfully"
+                    : "Recurring booking created; " + result.conflicts().size() + " dates were already booked");
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to create recurring booking: " + e.getMessage()));
+        }
+    }
+
+    // 5c) Hold a slot for a short while before booking it (team admin only)
+    @PostMapping("/holds")
+    public ResponseEntity<?> placeHold(@RequestBody Map<String, Object> body) {
+        try {
+            Integer teamId = (Integer) body.get("teamId");
+            Integer fieldSlotId = (Integer) body.get("fieldSlotId");
+            Integer playerId = (Integer) body.get("playerId");
+            String dateStr = (String) body.get("date");
+
+            if (teamId == null || fieldSlotId == null || playerId == null || dateStr == null) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Team ID, Field Slot ID, Player ID, and date are required"));
+            }
+
+            BookingHoldService.Hold hold = holdService.placeHold(teamId, playerId, fieldSlotId,
+                    BookingService.parseDate(dateStr));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Field slot held until " + hold.expiresAt());
+            response.put("data", hold);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (BookingService.SlotUnavailableException | BookingLockManager.LockTimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 5d) Confirm a hold, turning it into a pending booking
+    @PostMapping("/holds/{token}/confirm")
+    public ResponseEntity<?> confirmHold(@PathVariable String token, @RequestBody Map<String, Integer> body) {
+        try {
+            Bookings booking = bookingService.confirmHold(token, body.get("playerId"));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Booking request created successfully");
+            response.put("data", BookingView.of(booking));
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (BookingService.NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (BookingService.SlotUnavailableException | BookingLockManager.LockTimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 5e) Release a hold early
+    @DeleteMapping("/holds/{token}")
+    public ResponseEntity<?> releaseHold(@PathVariable String token, @RequestParam Integer playerId) {
+        try {
+            holdService.releaseHold(token, playerId);
+            return ResponseEntity.ok(Map.of("status", "success", "message", "Hold released"));
+        } catch (BookingService.NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 5f) Join the waitlist of a taken slot; the first waiting team is booked when it frees up
+    @PostMapping("/waitlist")
+    public ResponseEntity<?> joinWaitlist(@RequestBody Map<String, Object> body) {
+        try {
+            Integer teamId = (Integer) body.get("teamId");
+            Integer fieldSlotId = (Integer) body.get("fieldSlotId");
+            Integer playerId = (Integer) body.get("playerId");
+            String dateStr = (String) body.get("date");
+
+            if (teamId == null || fieldSlotId == null || playerId == null || dateStr == null) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Team ID, Field Slot ID, Player ID, and date are required"));
+            }
+
+            LocalDate date = BookingService.parseDate(dateStr);
+            WaitlistEntries entry = waitlistService.join(teamId, playerId, fieldSlotId, date);
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("entryId", entry.getId());
+            data.put("fieldSlotId", fieldSlotId);
+            data.put("date", date);
+            data.put("teamId", teamId);
+            data.put("status", entry.getStatus());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Joined the waitlist");
+            response.put("data", data);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 5g) Waiting teams of a slot and date, in promotion order
+    @GetMapping("/waitlist")
+    public ResponseEntity<?> getWaitlist(@RequestParam Integer fieldSlotId, @RequestParam String date) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Waitlist retrieved successfully");
+            response.put("data", waitlistService.getQueue(fieldSlotId, BookingService.parseDate(date)));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 5h) Leave the waitlist
+    @DeleteMapping("/waitlist/{entryId}")
+    public ResponseEntity<?> leaveWaitlist(@PathVariable Integer entryId, @RequestParam Integer playerId) {
+        try {
+            waitlistService.leave(entryId, playerId);
+            return ResponseEntity.ok(Map.of("status", "success", "message", "Left the waitlist"));
+        } catch (BookingService.NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 6) Get booking history with filters (admin), keyset-paginated
     @GetMapping("/admin/history")
     public ResponseEntity<?> getBookingHistory(
             @RequestParam(required = false) String fromDate,
             @RequestParam(required = false) String toDate,
             @RequestParam(required = false) Integer fieldId,
             @RequestParam(required = false) Integer teamId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
             @RequestHeader("X-Admin-ID") Integer adminId) {
         
         try {
-            // TODO: Implement proper filtering logic
-            List<Bookings> bookings = bookingsRepo.findAll();
+            LocalDate from = fromDate != null ? BookingService.parseDate(fromDate) : null;
+            LocalDate to = toDate != null ? BookingService.parseDate(toDate) : null;
+
+            BookingService.HistoryPage page = bookingService.getBookingHistory(adminId, from, to, fieldId, teamId, cursor, size);
             
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
             response.put("message", "Booking history retrieved successfully");
-            response.put("data", bookings);
+            response.put("data", page.items());
+            response.put("nextCursor", page.nextCursor());
             
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to retrieve booking history: " + e.getMessage()));
@@ -156,6 +496,7 @@ public class BookingController {
         
         try {
             String status = body.get("status");
+            String expectedStatus = body.get("expectedStatus");
             String reason = body.get("reason");
 
             if (status == null || status.trim().isEmpty()) {
@@ -163,44 +504,85 @@ public class BookingController {
                         .body(Map.of("error", "Status is required"));
             }
 
-            Bookings booking = bookingsRepo.findById(bookingId).orElse(null);
-            if (booking == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(Map.of("error", "Booking not found"));
-            }
-
-            // Update booking status
-            booking.setStatus(status);
-            bookingsRepo.save(booking);
+            Bookings.Status newStatus = bookingService.updateBookingStatus(adminId, bookingId, status, expectedStatus, reason);
 
-            // Create status change record
-            BookingStatusChanges statusChange = BookingStatusChanges.builder()
-                    .booking(booking)
-                    .status(status)
-                    .cancelledReason(reason)
-                    .createdAt(LocalDateTime.now())
-                    .build();
-            statusRepo.save(statusChange);
+            Map<String, Object> data = new HashMap<>();
+            data.put("bookingId", bookingId);
+            data.put("status", newStatus);
 
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
             response.put("message", "Booking status updated successfully");
-            response.put("data", booking);
+            response.put("data", data);
             
             return ResponseEntity.ok(response);
 
+        } catch (BookingService.StatusConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage(), "currentStatus", e.getCurrentStatus()));
+        } catch (BookingService.ClaimedException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage(), "claimedBy", e.getClaimedBy()));
+        } catch (BookingService.NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (BookingLockManager.LockTimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to update booking status: " + e.getMessage()));
         }
     }
 
-    // 8) Get all pending bookings (admin only)
+    // 7b) Approve/Reject many bookings at once (admin only)
+    @PutMapping("/admin/status/bulk")
+    public ResponseEntity<?> bulkUpdateBookingStatus(
+            @RequestBody Map<String, Object> body,
+            @RequestHeader("X-Admin-ID") Integer adminId) {
+
+        try {
+            String status = (String) body.get("status");
+            String reason = (String) body.get("reason");
+            List<Integer> bookingIds = body.get("bookingIds") instanceof List<?> raw
+                    ? raw.stream().map(id -> id instanceof Number n ? n.intValue() : null).toList()
+                    : null;
+
+            if (status == null || status.trim().isEmpty() || bookingIds == null || bookingIds.isEmpty()) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "bookingIds and status are required"));
+            }
+
+            List<BookingService.BulkOutcome> outcomes = bookingService.bulkUpdateStatus(adminId, bookingIds, status, reason);
+            long updated = outcomes.stream().filter(o -> "updated".equals(o.outcome())).count();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", updated + " of " + outcomes.size() + " bookings updated");
+            response.put("data", outcomes);
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to update booking statuses: " + e.getMessage()));
+        }
+    }
+
+    // 8) Get pending bookings, oldest first (admin only)
     @GetMapping("/admin/pending")
-    public ResponseEntity<?> getPendingBookings(@RequestHeader("X-Admin-ID") Integer adminId) {
+    public ResponseEntity<?> getPendingBookings(
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestHeader("X-Admin-ID") Integer adminId) {
         try {
-            // TODO: Implement proper query for pending bookings
-            List<Bookings> pendingBookings = bookingsRepo.findAll(); // Filter by status = 'pending'
+            List<BookingView> pendingBookings = approvalQueueService.getPending(adminId, afterId, size);
             
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
@@ -208,9 +590,55 @@ public class BookingController {
             response.put("data", pendingBookings);
             
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to retrieve pending bookings: " + e.getMessage()));
         }
     }
+
+    // 9) Claim a batch of pending bookings to review (admin only)
+    @PostMapping("/admin/pending/claim")
+    public ResponseEntity<?> claimPendingBookings(
+            @RequestBody(required = false) Map<String, Integer> body,
+            @RequestHeader("X-Admin-ID") Integer adminId) {
+        try {
+            Integer batchSize = body != null ? body.get("batchSize") : null;
+            List<BookingView> claimed = approvalQueueService.claimBatch(adminId, batchSize != null ? batchSize : 20);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Claimed " + claimed.size() + " pending bookings");
+            response.put("data", claimed);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to claim pending bookings: " + e.getMessage()));
+        }
+    }
+
+    // 10) Approval queue depth and oldest pending age (admin only)
+    @GetMapping("/admin/pending/metrics")
+    public ResponseEntity<?> getPendingQueueMetrics(@RequestHeader("X-Admin-ID") Integer adminId) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Approval queue metrics retrieved successfully");
+            response.put("data", approvalQueueService.getQueueMetrics(adminId));
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve approval queue metrics: " + e.getMessage()));
+        }
+    }
 }
@@ -1,13 +1,17 @@
 package com.example.feilds.controller;
 
 import com.example.feilds.model.Fields;
+import com.example.feilds.service.AvailabilityFeed;
 import com.example.feilds.service.FieldService;
+import com.example.feilds.service.SlotOccupancyIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.HashMap;
@@ -46,6 +50,9 @@ public class FieldController {
             response.put("data", fields);
             
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to retrieve fields: " + e.getMessage()));
@@ -76,6 +83,94 @@ public class FieldController {
         }
     }
 
+    /**
+     * Get the free time windows of a field for one day
+     * GET /api/fields/{fieldId}/free-windows?date=2024-01-20
+     */
+    @GetMapping("/{fieldId}/free-windows")
+    public ResponseEntity<?> getFreeWindows(@PathVariable Integer fieldId,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            List<SlotOccupancyIndex.TimeWindow> windows = fieldService.getFreeWindows(fieldId, date);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Free windows retrieved successfully");
+            response.put("data", windows);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve free windows: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get the free slots of a field for every date in a range
+     * GET /api/fields/{fieldId}/availability?from=2024-01-20&to=2024-02-20
+     */
+    @GetMapping("/{fieldId}/availability")
+    public ResponseEntity<?> getAvailability(@PathVariable Integer fieldId,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            List<FieldService.DayAvailability> availability = fieldService.getAvailability(fieldId, from, to);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Availability retrieved successfully");
+            response.put("data", availability);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to retrieve availability: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Stream availability changes of a field as server-sent events
+     * GET /api/fields/{fieldId}/availability/stream
+     */
+    @GetMapping("/{fieldId}/availability/stream")
+    public SseEmitter streamAvailability(@PathVariable Integer fieldId) {
+        // Errors are answered as JSON by the handlers at the bottom
+        return fieldService.streamAvailability(fieldId);
+    }
+
+    /**
+     * Quote a slot for a date, or weekly from that date
+     * GET /api/fields/{fieldId}/quote?slotId=5&date=2024-01-22&weeks=4
+     */
+    @GetMapping("/{fieldId}/quote")
+    public ResponseEntity<?> quote(@PathVariable Integer fieldId,
+                                   @RequestParam Integer slotId,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                   @RequestParam(required = false) Integer weeks) {
+        try {
+            FieldService.Quote quote = fieldService.quote(fieldId, slotId, date, weeks);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Quote calculated successfully");
+            response.put("data", quote);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to calculate quote: " + e.getMessage()));
+        }
+    }
+
     /**
      * Get all fields (admin only)
      * GET /api/fields/admin/all
@@ -236,4 +331,20 @@ public class FieldController {
                     .body(Map.of("error", "Failed to update field status: " + e.getMessage()));
         }
     }
-} 
\ No newline at end of file
+
+    /* ------------------------ Error Handling ------------------------ */
+
+    // Only the stream endpoint lets exceptions through; the body is JSON whatever the client accepts
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(AvailabilityFeed.FeedFullException.class)
+    public ResponseEntity<Map<String, String>> handleFeedFull(AvailabilityFeed.FeedFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", ex.getMessage()));
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -116,6 +117,61 @@ public class FieldSlotController {
         }
     }
 
+    /**
+     * Generate a field's weekly slot grid from opening hours (admin only)
+     * POST /api/field-slots/grid
+     */
+    @PostMapping("/grid")
+    public ResponseEntity<?> generateSlotGrid(@RequestBody Map<String, Object> request,
+                                             @RequestHeader("X-Admin-ID") Integer adminId) {
+        try {
+            Integer fieldId = (Integer) request.get("fieldId");
+            Integer slotMinutes = (Integer) request.get("slotMinutes");
+            if (fieldId == null || slotMinutes == null || !(request.get("days") instanceof List<?> days)) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "All fields are required: fieldId, slotMinutes, days"));
+            }
+
+            List<FieldSlotService.DaySchedule> schedules = new ArrayList<>();
+            for (Object item : days) {
+                if (!(item instanceof Map<?, ?> day)) {
+                    throw new IllegalArgumentException("Each day must be an object");
+                }
+                List<FieldSlotService.PriceBand> bands = new ArrayList<>();
+                if (day.get("priceBands") instanceof List<?> priceBands) {
+                    for (Object entry : priceBands) {
+                        if (!(entry instanceof Map<?, ?> band)) {
+                            throw new IllegalArgumentException("Each price band must be an object");
+                        }
+                        bands.add(new FieldSlotService.PriceBand((String) band.get("from"), (String) band.get("to"),
+                                number(band.get("price"))));
+                    }
+                }
+                schedules.add(new FieldSlotService.DaySchedule((Integer) day.get("weekDayId"),
+                        (String) day.get("opensAt"), (String) day.get("closesAt"), number(day.get("price")), bands));
+            }
+
+            List<FieldSlotService.GridSlot> slots = fieldSlotService.generateSlotGrid(adminId, fieldId, slotMinutes, schedules);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", slots.size() + " field slots created successfully");
+            response.put("data", slots);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (ClassCastException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid grid: ids and slotMinutes are numbers, times are \"HH:mm\" strings"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to generate field slots: " + e.getMessage()));
+        }
+    }
+
     /**
      * Delete a field slot (admin only)
      * DELETE /api/field-slots/{slotId}
@@ -140,4 +196,8 @@ public class FieldSlotController {
                     .body(Map.of("error", "Failed to delete field slot: " + e.getMessage()));
         }
     }
-} 
\ No newline at end of file
+
+    private static Double number(Object value) {
+        return value instanceof Number n ? n.doubleValue() : null;
+    }
+}
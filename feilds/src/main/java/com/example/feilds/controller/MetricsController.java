@@ -0,0 +1,112 @@
+package com.example.feilds.controller;
+
+import com.example.feilds.model.Users;
+import com.example.feilds.repository.UserRepository;
+import com.example.feilds.service.AvailabilityFeed;
+import com.example.feilds.service.BlackoutCalendar;
+import com.example.feilds.service.BookingHoldService;
+import com.example.feilds.service.BookingIntakeService;
+import com.example.feilds.service.BookingLockManager;
+import com.example.feilds.service.BookingPartitionService;
+import com.example.feilds.service.BookingRollupService;
+import com.example.feilds.service.FieldSlotIntervalIndex;
+import com.example.feilds.service.FieldSlotListCache;
+import com.example.feilds.service.IdempotencyService;
+import com.example.feilds.service.PendingExpiryService;
+import com.example.feilds.service.SlotOccupancyIndex;
+import com.example.feilds.service.SlotPriceIndex;
+import com.example.feilds.service.WeekDayCache;
+import com.example.feilds.service.WaitlistService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+@CrossOrigin(origins = "*")
+public class MetricsController {
+
+    private final UserRepository userRepository;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final BookingLockManager lockManager;
+    private final IdempotencyService idempotencyService;
+    private final BookingHoldService holdService;
+    private final WaitlistService waitlistService;
+    private final BookingIntakeService intakeService;
+    private final BookingPartitionService partitionService;
+    private final BookingRollupService rollupService;
+    private final PendingExpiryService expiryService;
+    private final FieldSlotIntervalIndex slotIntervals;
+    private final WeekDayCache weekDays;
+    private final SlotPriceIndex prices;
+    private final FieldSlotListCache slotLists;
+    private final AvailabilityFeed availabilityFeed;
+    private final BlackoutCalendar blackouts;
+
+    public MetricsController(UserRepository userRepository, SlotOccupancyIndex occupancyIndex,
+                             BookingLockManager lockManager, IdempotencyService idempotencyService,
+                             BookingHoldService holdService, WaitlistService waitlistService,
+                             BookingIntakeService intakeService, BookingPartitionService partitionService,
+                             BookingRollupService rollupService, PendingExpiryService expiryService,
+                             FieldSlotIntervalIndex slotIntervals, WeekDayCache weekDays,
+                             SlotPriceIndex prices, FieldSlotListCache slotLists,
+                             AvailabilityFeed availabilityFeed, BlackoutCalendar blackouts) {
+        this.userRepository = userRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.lockManager = lockManager;
+        this.idempotencyService = idempotencyService;
+        this.holdService = holdService;
+        this.waitlistService = waitlistService;
+        this.intakeService = intakeService;
+        this.partitionService = partitionService;
+        this.rollupService = rollupService;
+        this.expiryService = expiryService;
+        this.slotIntervals = slotIntervals;
+        this.weekDays = weekDays;
+        this.prices = prices;
+        this.slotLists = slotLists;
+        this.availabilityFeed = availabilityFeed;
+        this.blackouts = blackouts;
+    }
+
+    /**
+     * In-process metrics of the booking engine (admin only)
+     * GET /api/admin/metrics
+     */
+    @GetMapping
+    public ResponseEntity<?> getMetrics(@RequestHeader("X-Admin-ID") Integer adminId) {
+        Users admin = userRepository.findById(adminId).orElse(null);
+        if (admin == null || admin.getRole() != Users.Role.admin) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Access denied. Admin role required."));
+        }
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("occupancyIndex", occupancyIndex.stats());
+        metrics.put("bookingLocks", lockManager.stats());
+        metrics.put("idempotency", idempotencyService.stats());
+        metrics.put("holds", holdService.stats());
+        metrics.put("waitlist", waitlistService.stats());
+        metrics.put("intake", intakeService.stats());
+        metrics.put("statusChangePartitions", partitionService.stats());
+        metrics.put("rollups", rollupService.stats());
+        metrics.put("pendingExpiry", expiryService.stats());
+        metrics.put("slotIntervals", slotIntervals.stats());
+        metrics.put("weekDays", weekDays.stats());
+        metrics.put("slotPrices", prices.stats());
+        metrics.put("fieldSlotLists", slotLists.stats());
+        metrics.put("availabilityStreams", availabilityFeed.stats());
+        metrics.put("blackouts", blackouts.stats());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("message", "Metrics retrieved successfully");
+        response.put("data", metrics);
+
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.feilds.controller;
+
+import com.example.feilds.model.Users;
+import com.example.feilds.repository.UserRepository;
+import com.example.feilds.service.BookingRollupService;
+import com.example.feilds.service.BookingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    private final UserRepository userRepository;
+    private final BookingRollupService rollupService;
+
+    public ReportController(UserRepository userRepository, BookingRollupService rollupService) {
+        this.userRepository = userRepository;
+        this.rollupService = rollupService;
+    }
+
+    /**
+     * Booking counts per day, slot hour or field for a date range (admin only)
+     * GET /api/admin/reports/occupancy?from=2024-01-01&to=2024-01-31&fieldId=1&groupBy=day
+     */
+    @GetMapping("/occupancy")
+    public ResponseEntity<?> getOccupancy(@RequestHeader("X-Admin-ID") Integer adminId,
+                                          @RequestParam String from,
+                                          @RequestParam String to,
+                                          @RequestParam(required = false) Integer fieldId,
+                                          @RequestParam(required = false) String groupBy) {
+        if (!isAdmin(adminId)) {
+            return forbidden();
+        }
+        try {
+            Map<String, Object> report = rollupService.occupancy(BookingService.parseDate(from),
+                    BookingService.parseDate(to), fieldId, BookingRollupService.GroupBy.parse(groupBy));
+            return ResponseEntity.ok(success("Occupancy report retrieved successfully", report));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Revenue of approved and completed bookings per day, slot hour or field (admin only)
+     * GET /api/admin/reports/revenue?from=2024-01-01&to=2024-01-31&groupBy=field
+     */
+    @GetMapping("/revenue")
+    public ResponseEntity<?> getRevenue(@RequestHeader("X-Admin-ID") Integer adminId,
+                                        @RequestParam String from,
+                                        @RequestParam String to,
+                                        @RequestParam(required = false) Integer fieldId,
+                                        @RequestParam(required = false) String groupBy) {
+        if (!isAdmin(adminId)) {
+            return forbidden();
+        }
+        try {
+            Map<String, Object> report = rollupService.revenue(BookingService.parseDate(from),
+                    BookingService.parseDate(to), fieldId, BookingRollupService.GroupBy.parse(groupBy));
+            return ResponseEntity.ok(success("Revenue report retrieved successfully", report));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Recompute all rollups from the bookings table (admin only)
+     * POST /api/admin/reports/rebuild
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild(@RequestHeader("X-Admin-ID") Integer adminId) {
+        if (!isAdmin(adminId)) {
+            return forbidden();
+        }
+        try {
+            return ResponseEntity.ok(success("Rollups rebuilt successfully", rollupService.rebuild()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private boolean isAdmin(Integer adminId) {
+        Users admin = userRepository.findById(adminId).orElse(null);
+        return admin != null && admin.getRole() == Users.Role.admin;
+    }
+
+    private static ResponseEntity<?> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("error", "Access denied. Admin role required."));
+    }
+
+    private static Map<String, Object> success(String message, Object data) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("message", message);
+        response.put("data", data);
+        return response;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.feilds.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Booking counters per field, day and starting hour of the slot, kept up to date by
+// BookingRollupService as bookings are created and change status
+@Entity
+@Table(name = "booking_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "ux_booking_rollups_bucket", columnNames = {"field_id", "day", "hour_of_day"}),
+       indexes = @Index(name = "ix_booking_rollups_day", columnList = "day"))
+public class BookingRollups {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "field_id", nullable = false)
+    private Integer fieldId;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(name = "hour_of_day", nullable = false)
+    private Integer hourOfDay;
+
+    // Bookings created in the bucket, whatever happened to them later
+    @Column(nullable = false)
+    private Long bookings = 0L;
+
+    // Bookings currently approved or completed
+    @Column(nullable = false)
+    private Long approved = 0L;
+
+    @Column(nullable = false)
+    private Long cancelled = 0L;
+
+    // Price of the approved/completed bookings in minor units (price x 100)
+    @Column(name = "revenue_minor", nullable = false)
+    private Long revenueMinor = 0L;
+
+    // Default constructor
+    public BookingRollups() {}
+
+    // Constructor with all fields
+    public BookingRollups(Long id, Integer fieldId, LocalDate day, Integer hourOfDay, Long bookings, Long approved, Long cancelled, Long revenueMinor) {
+        this.id = id;
+        this.fieldId = fieldId;
+        this.day = day;
+        this.hourOfDay = hourOfDay;
+        this.bookings = bookings;
+        this.approved = approved;
+        this.cancelled = cancelled;
+        this.revenueMinor = revenueMinor;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getFieldId() {
+        return fieldId;
+    }
+
+    public void setFieldId(Integer fieldId) {
+        this.fieldId = fieldId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public Integer getHourOfDay() {
+        return hourOfDay;
+    }
+
+    public void setHourOfDay(Integer hourOfDay) {
+        this.hourOfDay = hourOfDay;
+    }
+
+    public Long getBookings() {
+        return bookings;
+    }
+
+    public void setBookings(Long bookings) {
+        this.bookings = bookings;
+    }
+
+    public Long getApproved() {
+        return approved;
+    }
+
+    public void setApproved(Long approved) {
+        this.approved = approved;
+    }
+
+    public Long getCancelled() {
+        return cancelled;
+    }
+
+    public void setCancelled(Long cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    public Long getRevenueMinor() {
+        return revenueMinor;
+    }
+
+    public void setRevenueMinor(Long revenueMinor) {
+        this.revenueMinor = revenueMinor;
+    }
+
+    // Builder pattern methods
+    public static BookingRollupsBuilder builder() {
+        return new BookingRollupsBuilder();
+    }
+
+    public static class BookingRollupsBuilder {
+        private Long id;
+        private Integer fieldId;
+        private LocalDate day;
+        private Integer hourOfDay;
+        private Long bookings;
+        private Long approved;
+        private Long cancelled;
+        private Long revenueMinor;
+
+        public BookingRollupsBuilder id(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public BookingRollupsBuilder fieldId(Integer fieldId) {
+            this.fieldId = fieldId;
+            return this;
+        }
+
+        public BookingRollupsBuilder day(LocalDate day) {
+            this.day = day;
+            return this;
+        }
+
+        public BookingRollupsBuilder hourOfDay(Integer hourOfDay) {
+            this.hourOfDay = hourOfDay;
+            return this;
+        }
+
+        public BookingRollupsBuilder bookings(Long bookings) {
+            this.bookings = bookings;
+            return this;
+        }
+
+        public BookingRollupsBuilder approved(Long approved) {
+            this.approved = approved;
+            return this;
+        }
+
+        public BookingRollupsBuilder cancelled(Long cancelled) {
+            this.cancelled = cancelled;
+            return this;
+        }
+
+        public BookingRollupsBuilder revenueMinor(Long revenueMinor) {
+            this.revenueMinor = revenueMinor;
+            return this;
+        }
+
+        public BookingRollups build() {
+            return new BookingRollups(id, fieldId, day, hourOfDay, bookings, approved, cancelled, revenueMinor);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.feilds.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Flat read model of a booking for list endpoints. Built directly by JPQL constructor
+ * expressions, so no entity graph is loaded and no user details beyond id/name leak out.
+ */
+public record BookingView(
+        Integer id,
+        LocalDate date,
+        Bookings.Status status,
+        BigDecimal price,
+        Integer fieldSlotId,
+        LocalTime fromTime,
+        LocalTime toTime,
+        Integer fieldId,
+        String fieldName,
+        Integer teamId,
+        String teamName,
+        Integer playerId,
+        String playerName) {
+
+    // Shared select list for constructor expressions; expects aliases b, s, f, t, p
+    public static final String SELECT =
+            "new com.example.feilds.model.BookingView(b.id, b.date, b.status, b.price, s.id, s.fromTime, s.toTime, " +
+            "f.id, f.name, t.id, t.name, p.id, p.name)";
+
+    public static final String FROM =
+            " FROM Bookings b JOIN b.fieldSlot s JOIN s.field f LEFT JOIN b.team t JOIN b.player p";
+
+    /**
+     * The same view of a booking entity already in memory, e.g. one just created
+     */
+    public static BookingView of(Bookings booking) {
+        FieldSlots slot = booking.getFieldSlot();
+        Fields field = slot.getField();
+        Teams team = booking.getTeam();
+        Users player = booking.getPlayer();
+        return new BookingView(booking.getId(), booking.getDate(), booking.getStatus(), booking.getPrice(),
+                slot.getId(), slot.getFromTime(), slot.getToTime(), field.getId(), field.getName(),
+                team != null ? team.getId() : null, team != null ? team.getName() : null,
+                player.getId(), player.getName());
+    }
+}
@@ -3,6 +3,9 @@ package com.example.feilds.model;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "bookings")
@@ -22,8 +25,9 @@ public class Bookings {
     @Column(nullable = false)
     private LocalDate date;
 
+    @Enumerated(EnumType.STRING)
     @Column(nullable = false)
-    private String status = "pending";
+    private Status status = Status.pending;
 
     @ManyToOne
     @JoinColumn(name = "field_slot_id", nullable = false)
@@ -32,28 +36,87 @@ public class Bookings {
     @Column(nullable = false)
     private BigDecimal price;
 
+    // Copy of fieldSlot.field.id so history and reporting queries can filter and index by field without a join
+    @Column(name = "field_id")
+    private Integer fieldId;
+
+    // Approval queue lease: the admin working on this pending booking and until when
+    @Column(name = "claimed_by")
+    private Integer claimedBy;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    // When the booking was made; lower bound for timeline lookups in the partitioned
+    // booking_status_changes table (JDBC inserts get it from the column default)
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum Status {
+        pending, approved, rejected, cancelled, completed,
+        // Pending for longer than booking.expiry.pending-minutes (see PendingExpiryService)
+        expired;
+
+        // Statuses that keep the slot taken (mirrors ux_bookings_active_slot_date in schema.sql)
+        public static final Set<Status> LIVE = EnumSet.of(pending, approved, completed);
+
+        public boolean isLive() {
+            return LIVE.contains(this);
+        }
+
+        public boolean canMoveTo(Status target) {
+            return switch (this) {
+                case pending -> target == approved || target == rejected || target == cancelled || target == expired;
+                case approved -> target == cancelled || target == completed;
+                default -> false;
+            };
+        }
+
+        // Every status this one can be reached from
+        public Set<Status> sources() {
+            Set<Status> sources = EnumSet.noneOf(Status.class);
+            for (Status candidate : values()) {
+                if (candidate.canMoveTo(this)) sources.add(candidate);
+            }
+            return sources;
+        }
+
+        public static Status parse(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                throw new IllegalArgumentException("Status is required");
+            }
+            try {
+                return Status.valueOf(value.trim().toLowerCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown booking status: " + value);
+            }
+        }
+    }
+
     // Default constructor
     public Bookings() {}
 
     // Constructor with all fields
-    public Bookings(Integer id, Users player, Teams team, LocalDate date, String status, FieldSlots fieldSlot, BigDecimal price) {
+    public Bookings(Integer id, Users player, Teams team, LocalDate date, Status status, FieldSlots fieldSlot, BigDecimal price) {
         this.id = id;
         this.player = player;
         this.team = team;
         this.date = date;
-        this.status = status != null ? status : "pending";
-        this.fieldSlot = fieldSlot;
+        this.status = status != null ? status : Status.pending;
+        setFieldSlot(fieldSlot);
         this.price = price;
+        this.createdAt = LocalDateTime.now();
     }
 
     // Constructor without id (for creation)
-    public Bookings(Users player, Teams team, LocalDate date, String status, FieldSlots fieldSlot, BigDecimal price) {
+    public Bookings(Users player, Teams team, LocalDate date, Status status, FieldSlots fieldSlot, BigDecimal price) {
         this.player = player;
         this.team = team;
         this.date = date;
-        this.status = status != null ? status : "pending";
-        this.fieldSlot = fieldSlot;
+        this.status = status != null ? status : Status.pending;
+        setFieldSlot(fieldSlot);
         this.price = price;
+        this.createdAt = LocalDateTime.now();
     }
 
     // Getters and Setters
@@ -89,11 +152,11 @@ public class Bookings {
         this.date = date;
     }
 
-    public String getStatus() {
+    public Status getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(Status status) {
         this.status = status;
     }
 
@@ -103,6 +166,7 @@ public class Bookings {
 
     public void setFieldSlot(FieldSlots fieldSlot) {
         this.fieldSlot = fieldSlot;
+        this.fieldId = fieldSlot != null && fieldSlot.getField() != null ? fieldSlot.getField().getId() : null;
     }
 
     public BigDecimal getPrice() {
@@ -113,6 +177,38 @@ public class Bookings {
         this.price = price;
     }
 
+    public Integer getFieldId() {
+        return fieldId;
+    }
+
+    public void setFieldId(Integer fieldId) {
+        this.fieldId = fieldId;
+    }
+
+    public Integer getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(Integer claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public LocalDateTime getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(LocalDateTime claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
     // Builder pattern methods
     public static BookingsBuilder builder() {
         return new BookingsBuilder();
@@ -123,7 +219,7 @@ public class Bookings {
         private Users player;
         private Teams team;
         private LocalDate date;
-        private String status = "pending";
+        private Status status = Status.pending;
         private FieldSlots fieldSlot;
         private BigDecimal price;
 
@@ -147,7 +243,7 @@ public class Bookings {
             return this;
         }
 
-        public BookingsBuilder status(String status) {
+        public BookingsBuilder status(Status status) {
             this.status = status;
             return this;
         }
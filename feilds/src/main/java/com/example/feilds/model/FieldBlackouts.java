@@ -0,0 +1,145 @@
+package com.example.feilds.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "field_blackouts")
+public class FieldBlackouts {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    // Null closes every field
+    @ManyToOne
+    @JoinColumn(name = "field_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Fields field;
+
+    // First and last closed date, both inclusive
+    @Column(nullable = false)
+    private LocalDate fromDate;
+
+    @Column(nullable = false)
+    private LocalDate toDate;
+
+    private String reason;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Default constructor
+    public FieldBlackouts() {}
+
+    // Constructor with all fields
+    public FieldBlackouts(Integer id, Fields field, LocalDate fromDate, LocalDate toDate, String reason,
+                          LocalDateTime createdAt) {
+        this.id = id;
+        this.field = field;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.reason = reason;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Fields getField() {
+        return field;
+    }
+
+    public void setField(Fields field) {
+        this.field = field;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    // Builder pattern methods
+    public static FieldBlackoutsBuilder builder() {
+        return new FieldBlackoutsBuilder();
+    }
+
+    public static class FieldBlackoutsBuilder {
+        private Integer id;
+        private Fields field;
+        private LocalDate fromDate;
+        private LocalDate toDate;
+        private String reason;
+        private LocalDateTime createdAt;
+
+        public FieldBlackoutsBuilder id(Integer id) {
+            this.id = id;
+            return this;
+        }
+
+        public FieldBlackoutsBuilder field(Fields field) {
+            this.field = field;
+            return this;
+        }
+
+        public FieldBlackoutsBuilder fromDate(LocalDate fromDate) {
+            this.fromDate = fromDate;
+            return this;
+        }
+
+        public FieldBlackoutsBuilder toDate(LocalDate toDate) {
+            this.toDate = toDate;
+            return this;
+        }
+
+        public FieldBlackoutsBuilder reason(String reason) {
+            this.reason = reason;
+            return this;
+        }
+
+        public FieldBlackoutsBuilder createdAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+            return this;
+        }
+
+        public FieldBlackouts build() {
+            return new FieldBlackouts(id, field, fromDate, toDate, reason, createdAt);
+        }
+    }
+}
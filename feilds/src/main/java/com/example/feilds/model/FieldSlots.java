@@ -15,7 +15,8 @@ public class FieldSlots {
     @JoinColumn(name = "field_id", nullable = false)
     private Fields field;
 
-    @ManyToOne
+    // Lazy: the day is resolved from WeekDayCache wherever slots are listed
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "week_day_id", nullable = false)
     private WeekDays weekDay;
 
@@ -0,0 +1,203 @@
+package com.example.feilds.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "waitlist_entries")
+public class WaitlistEntries {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne
+    @JoinColumn(name = "field_slot_id", nullable = false)
+    private FieldSlots fieldSlot;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @ManyToOne
+    @JoinColumn(name = "team_id", nullable = false)
+    private Teams team;
+
+    // Team admin who joined; the promoted booking is made in their name
+    @ManyToOne
+    @JoinColumn(name = "player_id", nullable = false)
+    private Users player;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.waiting;
+
+    // Booking created when the entry was promoted
+    @ManyToOne
+    @JoinColumn(name = "booking_id")
+    private Bookings booking;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime promotedAt;
+
+    public enum Status {
+        waiting, promoted, left
+    }
+
+    // Default constructor
+    public WaitlistEntries() {}
+
+    // Constructor with all fields
+    public WaitlistEntries(Integer id, FieldSlots fieldSlot, LocalDate date, Teams team, Users player, Status status,
+                           Bookings booking, LocalDateTime createdAt, LocalDateTime promotedAt) {
+        this.id = id;
+        this.fieldSlot = fieldSlot;
+        this.date = date;
+        this.team = team;
+        this.player = player;
+        this.status = status != null ? status : Status.waiting;
+        this.booking = booking;
+        this.createdAt = createdAt;
+        this.promotedAt = promotedAt;
+    }
+
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public FieldSlots getFieldSlot() {
+        return fieldSlot;
+    }
+
+    public void setFieldSlot(FieldSlots fieldSlot) {
+        this.fieldSlot = fieldSlot;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public Teams getTeam() {
+        return team;
+    }
+
+    public void setTeam(Teams team) {
+        this.team = team;
+    }
+
+    public Users getPlayer() {
+        return player;
+    }
+
+    public void setPlayer(Users player) {
+        this.player = player;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Bookings getBooking() {
+        return booking;
+    }
+
+    public void setBooking(Bookings booking) {
+        this.booking = booking;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getPromotedAt() {
+        return promotedAt;
+    }
+
+    public void setPromotedAt(LocalDateTime promotedAt) {
+        this.promotedAt = promotedAt;
+    }
+
+    // Builder pattern methods
+    public static WaitlistEntriesBuilder builder() {
+        return new WaitlistEntriesBuilder();
+    }
+
+    public static class WaitlistEntriesBuilder {
+        private Integer id;
+        private FieldSlots fieldSlot;
+        private LocalDate date;
+        private Teams team;
+        private Users player;
+        private Status status;
+        private Bookings booking;
+        private LocalDateTime createdAt;
+        private LocalDateTime promotedAt;
+
+        public WaitlistEntriesBuilder id(Integer id) {
+            this.id = id;
+            return this;
+        }
+
+        public WaitlistEntriesBuilder fieldSlot(FieldSlots fieldSlot) {
+            this.fieldSlot = fieldSlot;
+            return this;
+        }
+
+        public WaitlistEntriesBuilder date(LocalDate date) {
+            this.date = date;
+            return this;
+        }
+
+        public WaitlistEntriesBuilder team(Teams team) {
+            this.team = team;
+            return this;
+        }
+
+        public WaitlistEntriesBuilder player(Users player) {
+            this.player = player;
+            return this;
+        }
+
+        public WaitlistEntriesBuilder status(Status status) {
+            this.status = status;
+            return this;
+        }
+
+        public WaitlistEntriesBuilder booking(Bookings booking) {
+            this.booking = booking;
+            return this;
+        }
+
+        public WaitlistEntriesBuilder createdAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+            return this;
+        }
+
+        public WaitlistEntriesBuilder promotedAt(LocalDateTime promotedAt) {
+            this.promotedAt = promotedAt;
+            return this;
+        }
+
+        public WaitlistEntries build() {
+            return new WaitlistEntries(id, fieldSlot, date, team, player, status, booking, createdAt, promotedAt);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.feilds.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "week_days")
+// A slot's week day may still be an uninitialized proxy when a slot is serialized
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class WeekDays {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
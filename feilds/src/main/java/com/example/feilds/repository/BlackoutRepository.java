@@ -0,0 +1,32 @@
+package com.example.feilds.repository;
+
+import com.example.feilds.model.FieldBlackouts;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BlackoutRepository extends JpaRepository<FieldBlackouts, Integer> {
+
+    // [fieldId or null for all fields, fromDate, toDate] of the blackouts not over before :from
+    @Query("SELECT f.id, b.fromDate, b.toDate FROM FieldBlackouts b LEFT JOIN b.field f WHERE b.toDate >= :from")
+    List<Object[]> findRangesFrom(@Param("from") LocalDate from);
+
+    // Blackouts not over before :from; with a field id only the ones that apply to it, its own and the global ones
+    @Query("SELECT b FROM FieldBlackouts b LEFT JOIN FETCH b.field f WHERE b.toDate >= :from " +
+           "AND (:fieldId IS NULL OR f.id = :fieldId OR f IS NULL) ORDER BY b.fromDate, b.id")
+    List<FieldBlackouts> findApplicable(@Param("fieldId") Integer fieldId, @Param("from") LocalDate from);
+
+    // Season re-import: blackouts of the given fields (and the global ones if asked) lying within [from, to]
+    @Modifying
+    @Query("DELETE FROM FieldBlackouts b WHERE b.fromDate >= :from AND b.toDate <= :to " +
+           "AND (b.field.id IN :fieldIds OR (:global = true AND b.field IS NULL))")
+    int deleteWithin(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                     @Param("fieldIds") Collection<Integer> fieldIds, @Param("global") boolean global);
+}
@@ -0,0 +1,27 @@
+package com.example.feilds.repository;
+
+import com.example.feilds.model.BookingRollups;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Report queries over the rollup buckets; every row is [key, bookings, approved, cancelled, revenueMinor]
+@Repository
+public interface BookingRollupRepository extends JpaRepository<BookingRollups, Long> {
+
+    String COUNTERS = "SUM(r.bookings), SUM(r.approved), SUM(r.cancelled), SUM(r.revenueMinor)";
+    String RANGE = " FROM BookingRollups r WHERE r.day BETWEEN :from AND :to AND (:fieldId IS NULL OR r.fieldId = :fieldId)";
+
+    @Query("SELECT r.day, " + COUNTERS + RANGE + " GROUP BY r.day ORDER BY r.day")
+    List<Object[]> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("fieldId") Integer fieldId);
+
+    @Query("SELECT r.hourOfDay, " + COUNTERS + RANGE + " GROUP BY r.hourOfDay ORDER BY r.hourOfDay")
+    List<Object[]> sumByHour(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("fieldId") Integer fieldId);
+
+    @Query("SELECT r.fieldId, " + COUNTERS + RANGE + " GROUP BY r.fieldId ORDER BY r.fieldId")
+    List<Object[]> sumByField(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("fieldId") Integer fieldId);
+}
@@ -2,11 +2,29 @@ package com.example.feilds.repository;
 
 import com.example.feilds.model.BookingStatusChanges;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface BookingStatusChangesRepository extends JpaRepository<BookingStatusChanges, Integer> {
-    List<BookingStatusChanges> findByBooking_IdOrderByCreatedAtAsc(Integer bookingId);
+
+    // booking_status_changes is partitioned by month on created_at (see BookingPartitionService).
+    // Every lookup bounds created_at by the booking's own created_at (a day of slack for clock
+    // skew) so the planner prunes the months before the booking existed.
+    String SINCE_BOOKING_CREATED =
+            "COALESCE((SELECT b.created_at FROM bookings b WHERE b.id = :bookingId), '-infinity'::timestamp) " +
+            "- INTERVAL '1 day'";
+
+    @Query(value = "SELECT c.* FROM booking_status_changes c WHERE c.booking_id = :bookingId " +
+                   "AND c.created_at >= " + SINCE_BOOKING_CREATED + " ORDER BY c.created_at", nativeQuery = true)
+    List<BookingStatusChanges> findTimeline(@Param("bookingId") Integer bookingId);
+
+    // When the booking entered the timeline (its initial 'pending' row)
+    @Query(value = "SELECT MIN(c.created_at) FROM booking_status_changes c WHERE c.booking_id = :bookingId " +
+                   "AND c.created_at >= " + SINCE_BOOKING_CREATED, nativeQuery = true)
+    LocalDateTime findFirstChangeAt(@Param("bookingId") Integer bookingId);
 }
@@ -1,13 +1,135 @@
 package com.example.feilds.repository;
 
+import com.example.feilds.model.BookingView;
 import com.example.feilds.model.Bookings;
 import com.example.feilds.model.Teams;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingsRepository extends JpaRepository<Bookings, Integer> {
+public interface BookingsRepository extends JpaRepository<Bookings, Integer>, BookingsRepositoryCustom {
     List<Bookings> findByTeamOrderByDateDesc(Teams team);
+
+    // Cheap pre-check before the optimistic insert; the unique index is the real guarantee
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Bookings b " +
+           "WHERE b.fieldSlot.id = :fieldSlotId AND b.date = :date AND b.status IN :statuses")
+    boolean existsBookingInStatus(@Param("fieldSlotId") Integer fieldSlotId, @Param("date") LocalDate date,
+                                  @Param("statuses") Collection<Bookings.Status> statuses);
+
+    // Team of the booking holding the slot on the date, if any (null for a booking without a team)
+    @Query("SELECT t.id FROM Bookings b LEFT JOIN b.team t " +
+           "WHERE b.fieldSlot.id = :fieldSlotId AND b.date = :date AND b.status IN :statuses")
+    List<Integer> findTeamIdsInStatus(@Param("fieldSlotId") Integer fieldSlotId, @Param("date") LocalDate date,
+                                      @Param("statuses") Collection<Bookings.Status> statuses);
+
+    // Occupancy rows for the in-memory index: [fieldId, date, fromTime, toTime]
+    @Query("SELECT s.field.id, b.date, s.fromTime, s.toTime FROM Bookings b JOIN b.fieldSlot s " +
+           "WHERE b.date >= :from AND b.status IN :statuses")
+    List<Object[]> findOccupancyFrom(@Param("from") LocalDate from,
+                                     @Param("statuses") Collection<Bookings.Status> statuses);
+
+    // One field's live occupancy from a date on: [date, fromTime, toTime]
+    @Query("SELECT b.date, s.fromTime, s.toTime FROM Bookings b JOIN b.fieldSlot s " +
+           "WHERE b.fieldId = :fieldId AND b.date >= :from AND b.status IN :statuses")
+    List<Object[]> findFieldOccupancyFrom(@Param("fieldId") Integer fieldId, @Param("from") LocalDate from,
+                                          @Param("statuses") Collection<Bookings.Status> statuses);
+
+    // Booked time ranges of a field over a date range, sorted for merging: [date, fromTime, toTime]
+    @Query("SELECT b.date, s.fromTime, s.toTime FROM Bookings b JOIN b.fieldSlot s " +
+           "WHERE b.fieldId = :fieldId AND b.date BETWEEN :from AND :to AND b.status IN :statuses " +
+           "ORDER BY b.date, s.fromTime")
+    List<Object[]> findBookedRanges(@Param("fieldId") Integer fieldId, @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to,
+                                    @Param("statuses") Collection<Bookings.Status> statuses);
+
+    // Occupancy rows of specific bookings: [bookingId, fieldId, date, fromTime, toTime, fieldSlotId, weekDayId]
+    @Query("SELECT b.id, s.field.id, b.date, s.fromTime, s.toTime, s.id, s.weekDay.id FROM Bookings b JOIN b.fieldSlot s WHERE b.id IN :ids")
+    List<Object[]> findOccupancyByIds(@Param("ids") Collection<Integer> ids);
+
+    // Whether any of the given slots (overlapping another slot's time) is taken on the date
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Bookings b " +
+           "WHERE b.fieldSlot.id IN :fieldSlotIds AND b.date = :date AND b.status IN :statuses")
+    boolean existsBookingOnSlotsInStatus(@Param("fieldSlotIds") Collection<Integer> fieldSlotIds,
+                                         @Param("date") LocalDate date,
+                                         @Param("statuses") Collection<Bookings.Status> statuses);
+
+    // Dates among the given ones on which any of the slots is taken
+    @Query("SELECT DISTINCT b.date FROM Bookings b WHERE b.fieldSlot.id IN :fieldSlotIds AND b.date IN :dates " +
+           "AND b.status IN :statuses")
+    List<LocalDate> findDatesOnSlotsInStatus(@Param("fieldSlotIds") Collection<Integer> fieldSlotIds,
+                                             @Param("dates") Collection<LocalDate> dates,
+                                             @Param("statuses") Collection<Bookings.Status> statuses);
+
+    // Dates among the given ones on which the slot is already taken
+    @Query("SELECT b.date FROM Bookings b WHERE b.fieldSlot.id = :fieldSlotId AND b.date IN :dates AND b.status IN :statuses")
+    List<LocalDate> findDatesInStatus(@Param("fieldSlotId") Integer fieldSlotId,
+                                      @Param("dates") Collection<LocalDate> dates,
+                                      @Param("statuses") Collection<Bookings.Status> statuses);
+
+    @Query("SELECT b.status FROM Bookings b WHERE b.id = :id")
+    Optional<Bookings.Status> findStatusById(@Param("id") Integer id);
+
+    // [id, status] for the given bookings
+    @Query("SELECT b.id, b.status FROM Bookings b WHERE b.id IN :ids")
+    List<Object[]> findStatusesByIds(@Param("ids") Collection<Integer> ids);
+
+    // Compare-and-set: only moves the row if it is still in one of the expected statuses and no
+    // other admin holds an unexpired claim on it
+    @Modifying
+    @Query("UPDATE Bookings b SET b.status = :to WHERE b.id = :id AND b.status IN :from " +
+           "AND (b.claimedBy IS NULL OR b.claimedBy = :adminId OR b.claimedUntil < :now)")
+    int compareAndSetStatus(@Param("id") Integer id,
+                            @Param("from") Collection<Bookings.Status> from,
+                            @Param("to") Bookings.Status to,
+                            @Param("adminId") Integer adminId,
+                            @Param("now") LocalDateTime now);
+
+    // [id, claimedBy] of the given bookings that are under an unexpired claim
+    @Query("SELECT b.id, b.claimedBy FROM Bookings b WHERE b.id IN :ids AND b.claimedUntil >= :now")
+    List<Object[]> findClaimantsByIds(@Param("ids") Collection<Integer> ids, @Param("now") LocalDateTime now);
+
+    /* ---------------- Approval queue (backed by ix_bookings_pending_queue) ---------------- */
+
+    // Oldest unclaimed (or lease-expired) pending bookings; rows another admin is claiming right now are skipped
+    @Query(value = "SELECT id FROM bookings WHERE status = 'pending' " +
+                   "AND (claimed_until IS NULL OR claimed_until < :now) " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Integer> lockClaimablePending(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Bookings b SET b.claimedBy = :adminId, b.claimedUntil = :until WHERE b.id IN :ids")
+    int claim(@Param("ids") Collection<Integer> ids, @Param("adminId") Integer adminId, @Param("until") LocalDateTime until);
+
+    @Query("SELECT " + BookingView.SELECT + BookingView.FROM + " WHERE b.id IN :ids ORDER BY b.id")
+    List<BookingView> findViewsByIds(@Param("ids") Collection<Integer> ids);
+
+    @Query(value = "SELECT id FROM bookings WHERE status = 'pending' AND id > :afterId ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Integer> findPendingIds(@Param("afterId") int afterId, @Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM bookings WHERE status = 'pending'", nativeQuery = true)
+    long countPending();
+
+    @Query(value = "SELECT COUNT(*) FROM bookings WHERE status = 'pending' AND claimed_until >= :now", nativeQuery = true)
+    long countClaimedPending(@Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT MIN(id) FROM bookings WHERE status = 'pending'", nativeQuery = true)
+    Integer findOldestPendingId();
+
+    // Pending bookings created before the cutoff that no admin is working on, oldest first;
+    // rows another node's sweeper (or an admin claim) has locked are skipped (ix_bookings_pending_created)
+    @Query(value = "SELECT id FROM bookings WHERE status = 'pending' AND created_at < :cutoff " +
+                   "AND (claimed_until IS NULL OR claimed_until < :now) " +
+                   "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Integer> lockExpirablePending(@Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now,
+                                       @Param("limit") int limit);
 }
@@ -0,0 +1,24 @@
+package com.example.feilds.repository;
+
+import com.example.feilds.model.BookingView;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BookingsRepositoryCustom {
+
+    /**
+     * One page of booking history, newest first, using keyset (seek) pagination.
+     * Only the filters that are non-null end up in the SQL, so each combination gets
+     * a plan that can use its index. afterDate/afterId are the last row of the previous page.
+     */
+    List<BookingView> findHistoryPage(LocalDate fromDate, LocalDate toDate, Integer fieldId, Integer teamId,
+                                      LocalDate afterDate, Integer afterId, int limit);
+
+    /**
+     * Take the transaction-scoped advisory lock of a field on a date. Every write that checks
+     * for overlapping slots takes it first, so two different slots of one field cannot both be
+     * booked at an overlapping time, on this node or another. Released at commit or rollback.
+     */
+    void lockFieldDay(Integer fieldId, LocalDate date);
+}
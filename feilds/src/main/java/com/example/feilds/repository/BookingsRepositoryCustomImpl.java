@@ -0,0 +1,64 @@
+package com.example.feilds.repository;
+
+import com.example.feilds.model.BookingView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BookingsRepositoryCustomImpl implements BookingsRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingView> findHistoryPage(LocalDate fromDate, LocalDate toDate, Integer fieldId, Integer teamId,
+                                             LocalDate afterDate, Integer afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT ").append(BookingView.SELECT).append(BookingView.FROM)
+                .append(" WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (fromDate != null) {
+            jpql.append(" AND b.date >= :fromDate");
+            params.put("fromDate", fromDate);
+        }
+        if (toDate != null) {
+            jpql.append(" AND b.date <= :toDate");
+            params.put("toDate", toDate);
+        }
+        // b.fieldId rather than f.id so ix_bookings_field_date can be used
+        if (fieldId != null) {
+            jpql.append(" AND b.fieldId = :fieldId");
+            params.put("fieldId", fieldId);
+        }
+        if (teamId != null) {
+            jpql.append(" AND b.team.id = :teamId");
+            params.put("teamId", teamId);
+        }
+        // Seek past the previous page instead of OFFSET, so deep pages cost the same as the first.
+        // A row-value comparison is a single range condition on (date, id) for the index scan.
+        if (afterDate != null && afterId != null) {
+            jpql.append(" AND (b.date, b.id) < (:afterDate, :afterId)");
+            params.put("afterDate", afterDate);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY b.date DESC, b.id DESC");
+
+        TypedQuery<BookingView> query = entityManager.createQuery(jpql.toString(), BookingView.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public void lockFieldDay(Integer fieldId, LocalDate date) {
+        // pg_advisory_xact_lock returns void; selecting from it gives one row to read back
+        entityManager.createNativeQuery("SELECT 1 FROM pg_advisory_xact_lock(:fieldId, :day)")
+                .setParameter("fieldId", fieldId)
+                .setParameter("day", Math.toIntExact(date.toEpochDay()))
+                .getSingleResult();
+    }
+}
@@ -9,7 +9,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface FieldRepository extends JpaRepository<Fields, Integer> {
+public interface FieldRepository extends JpaRepository<Fields, Integer>, FieldRepositoryCustom {
     
     /**
      * Find all active fields with pagination
@@ -0,0 +1,21 @@
+package com.example.feilds.repository;
+
+import com.example.feilds.model.Fields;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+
+public interface FieldRepositoryCustom {
+
+    /**
+     * Active fields matching every non-null filter, most relevant first, in one statement.
+     * With a date and/or time only fields with a matching slot qualify: on one of the
+     * date's week day rows (weekDayIds), covering coverFrom (to coverTo when given), and
+     * not booked on the date.
+     */
+    Page<Fields> searchActiveFields(Integer minCapacity, String location, LocalDate date, Collection<Integer> weekDayIds,
+                                    LocalTime coverFrom, LocalTime coverTo, Pageable pageable);
+}
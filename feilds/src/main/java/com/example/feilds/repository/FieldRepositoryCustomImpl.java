@@ -0,0 +1,115 @@
+package com.example.feilds.repository;
+
+import com.example.feilds.model.Fields;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class FieldRepositoryCustomImpl implements FieldRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Fields> searchActiveFields(Integer minCapacity, String location, LocalDate date,
+                                           Collection<Integer> weekDayIds, LocalTime coverFrom, LocalTime coverTo, Pageable pageable) {
+        StringBuilder body = new StringBuilder(" FROM fields f");
+        Map<String, Object> params = new HashMap<>();
+        boolean slotFilter = date != null || coverFrom != null;
+
+        // Matching slots per field; the NOT EXISTS probe is answered by ux_bookings_active_slot_date
+        if (slotFilter) {
+            body.append(" CROSS JOIN LATERAL (SELECT COUNT(*) AS free_slots FROM field_slots s WHERE s.field_id = f.id");
+            if (date != null) {
+                body.append(" AND s.week_day_id IN (:weekDayIds)");
+                params.put("weekDayIds", weekDayIds);
+            }
+            if (coverFrom != null) {
+                body.append(" AND s.from_time <= :coverFrom");
+                body.append(coverTo != null ? " AND s.to_time >= :coverTo" : " AND s.to_time > :coverFrom");
+                params.put("coverFrom", coverFrom);
+                if (coverTo != null) {
+                    params.put("coverTo", coverTo);
+                }
+            }
+            if (date != null) {
+                body.append(" AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.field_slot_id = s.id AND b.date = :date" +
+                        " AND b.status IN ('pending', 'approved', 'completed'))");
+                params.put("date", date);
+            }
+            body.append(") fs");
+        }
+
+        body.append(" WHERE f.is_active = true");
+        if (minCapacity != null) {
+            body.append(" AND f.players_capacity >= :minCapacity");
+            params.put("minCapacity", minCapacity);
+        }
+        if (location != null) {
+            location = location.toLowerCase(Locale.ROOT);
+            body.append(" AND lower(f.location_address) LIKE :locationPattern ESCAPE '\\'");
+            params.put("locationPattern", "%" + location.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+            params.put("location", location);
+        }
+        if (slotFilter) {
+            body.append(" AND fs.free_slots > 0");
+        }
+        // Blackouts of all fields on the date are turned away before the query; these are the field's own
+        if (date != null) {
+            body.append(" AND NOT EXISTS (SELECT 1 FROM field_blackouts x WHERE x.field_id = f.id" +
+                    " AND :date BETWEEN x.from_date AND x.to_date)");
+        }
+
+        // Relevance: earliest location match, then the tightest capacity fit, then the most free slots
+        List<String> order = new ArrayList<>();
+        if (location != null) order.add("strpos(lower(f.location_address), :location)");
+        if (minCapacity != null) order.add("f.players_capacity - :minCapacity");
+        if (slotFilter) order.add("fs.free_slots DESC");
+        order.add("f.id");
+
+        // The total rides along as a window count, so a page is still a single statement
+        Query query = entityManager.createNativeQuery("SELECT f.id, f.name, f.images, f.players_capacity, " +
+                "f.location_address, f.is_active, COUNT(*) OVER ()" + body + " ORDER BY " + String.join(", ", order) +
+                " LIMIT :limit OFFSET :offset");
+        params.forEach(query::setParameter);
+        query.setParameter("limit", pageable.getPageSize());
+        query.setParameter("offset", pageable.getOffset());
+
+        List<Fields> content = new ArrayList<>();
+        long total = 0;
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            content.add(Fields.builder()
+                    .id(((Number) columns[0]).intValue())
+                    .name((String) columns[1])
+                    .images((String) columns[2])
+                    .playersCapacity(((Number) columns[3]).intValue())
+                    .locationAddress((String) columns[4])
+                    .isActive((Boolean) columns[5])
+                    .build());
+            total = ((Number) columns[6]).longValue();
+        }
+
+        // Past the last page there is no row to carry the total
+        if (content.isEmpty() && pageable.getOffset() > 0) {
+            Query count = entityManager.createNativeQuery("SELECT COUNT(*)" + body);
+            params.entrySet().stream()
+                    .filter(param -> !param.getKey().equals("location"))
+                    .forEach(param -> count.setParameter(param.getKey(), param.getValue()));
+            total = ((Number) count.getSingleResult()).longValue();
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+}
@@ -4,6 +4,8 @@ import com.example.feilds.model.Fields;
 import com.example.feilds.model.FieldSlots;
 import com.example.feilds.model.WeekDays;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalTime;
@@ -27,4 +29,17 @@ public interface FieldSlotRepository extends JpaRepository<FieldSlots, Integer>
      */
     List<FieldSlots> findByFieldAndWeekDayAndFromTimeGreaterThanEqualAndToTimeLessThanEqual(
             Fields field, WeekDays weekDay, LocalTime fromTime, LocalTime toTime);
+
+    /**
+     * Time ranges of every slot on a field, for the interval tree: [id, weekDayId, fromTime, toTime]
+     */
+    @Query("SELECT s.id, s.weekDay.id, s.fromTime, s.toTime FROM FieldSlots s WHERE s.field.id = :fieldId")
+    List<Object[]> findTimeRangesByFieldId(@Param("fieldId") Integer fieldId);
+
+    /**
+     * Weekly templates of a field sorted by start time: [id, weekDayId, fromTime, toTime, price]
+     */
+    @Query("SELECT s.id, s.weekDay.id, s.fromTime, s.toTime, s.price FROM FieldSlots s " +
+           "WHERE s.field.id = :fieldId ORDER BY s.fromTime, s.toTime, s.id")
+    List<Object[]> findTemplatesByFieldId(@Param("fieldId") Integer fieldId);
 } 
\ No newline at end of file
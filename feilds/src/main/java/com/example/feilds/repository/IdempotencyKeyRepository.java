@@ -0,0 +1,21 @@
+package com.example.feilds.repository;
+
+import com.example.feilds.model.IdempotencyKeys;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeys, String> {
+
+    // Drop keys past their TTL
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKeys k WHERE k.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
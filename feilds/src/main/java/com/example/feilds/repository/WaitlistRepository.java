@@ -0,0 +1,59 @@
+package com.example.feilds.repository;
+
+import com.example.feilds.model.WaitlistEntries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntries, Integer> {
+
+    // Waiting entries of one slot and date in FIFO order (ix_waitlist_queue)
+    @Query(value = "SELECT id FROM waitlist_entries WHERE field_slot_id = :fieldSlotId AND date = :date " +
+                   "AND status = 'waiting' ORDER BY id", nativeQuery = true)
+    List<Integer> findWaitingIds(@Param("fieldSlotId") Integer fieldSlotId, @Param("date") LocalDate date);
+
+    // Fallback when the in-memory queue is stale: oldest waiting entry nobody else is promoting
+    @Query(value = "SELECT id FROM waitlist_entries WHERE field_slot_id = :fieldSlotId AND date = :date " +
+                   "AND status = 'waiting' ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Integer> lockOldestWaiting(@Param("fieldSlotId") Integer fieldSlotId, @Param("date") LocalDate date);
+
+    // [id, teamId, teamName, createdAt] of the waiting entries, in promotion order
+    @Query("SELECT w.id, w.team.id, w.team.name, w.createdAt FROM WaitlistEntries w " +
+           "WHERE w.fieldSlot.id = :fieldSlotId AND w.date = :date AND w.status = 'waiting' ORDER BY w.id")
+    List<Object[]> findQueue(@Param("fieldSlotId") Integer fieldSlotId, @Param("date") LocalDate date);
+
+    // [teamId, playerId] of an entry
+    @Query("SELECT w.team.id, w.player.id FROM WaitlistEntries w WHERE w.id = :id")
+    List<Object[]> findParties(@Param("id") Integer id);
+
+    // Compare-and-set claim: only one promotion can take a waiting entry
+    @Modifying
+    @Query(value = "UPDATE waitlist_entries SET status = 'promoted', promoted_at = :at " +
+                   "WHERE id = :id AND status = 'waiting'", nativeQuery = true)
+    int claimForPromotion(@Param("id") Integer id, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query(value = "UPDATE waitlist_entries SET booking_id = :bookingId WHERE id = :id", nativeQuery = true)
+    int attachBooking(@Param("id") Integer id, @Param("bookingId") Integer bookingId);
+
+    // Undo a claim whose booking could not be inserted (slot taken again in the meantime)
+    @Modifying
+    @Query(value = "UPDATE waitlist_entries SET status = 'waiting', promoted_at = NULL " +
+                   "WHERE id = :id AND status = 'promoted' AND booking_id IS NULL", nativeQuery = true)
+    int unclaim(@Param("id") Integer id);
+
+    @Modifying
+    @Query(value = "UPDATE waitlist_entries SET status = 'left' WHERE id = :id AND player_id = :playerId " +
+                   "AND status = 'waiting'", nativeQuery = true)
+    int leave(@Param("id") Integer id, @Param("playerId") Integer playerId);
+
+    @Query(value = "SELECT COUNT(*) FROM waitlist_entries WHERE status = 'waiting'", nativeQuery = true)
+    long countWaiting();
+}
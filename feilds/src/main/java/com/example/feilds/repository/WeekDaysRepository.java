@@ -0,0 +1,9 @@
+package com.example.feilds.repository;
+
+import com.example.feilds.model.WeekDays;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WeekDaysRepository extends JpaRepository<WeekDays, Integer> {
+}
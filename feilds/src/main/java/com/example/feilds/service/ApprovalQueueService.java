@@ -0,0 +1,99 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.BookingView;
+import com.example.feilds.repository.BookingStatusChangesRepository;
+import com.example.feilds.repository.BookingsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Work queue over pending bookings. Admins claim batches under a short lease, so several
+ * admins working the queue at the same time always get disjoint bookings.
+ */
+@Service
+public class ApprovalQueueService {
+
+    private static final int MAX_BATCH = 100;
+
+    private final BookingsRepository bookingsRepository;
+    private final BookingStatusChangesRepository statusRepository;
+    private final BookingService bookingService;
+    private final Duration claimLease;
+
+    public ApprovalQueueService(BookingsRepository bookingsRepository,
+                                BookingStatusChangesRepository statusRepository,
+                                BookingService bookingService,
+                                @Value("${booking.approval.claim-minutes:5}") long claimMinutes) {
+        this.bookingsRepository = bookingsRepository;
+        this.statusRepository = statusRepository;
+        this.bookingService = bookingService;
+        this.claimLease = Duration.ofMinutes(claimMinutes);
+    }
+
+    /**
+     * List pending bookings oldest first (admin only); afterId continues from the previous page
+     */
+    @Transactional(readOnly = true)
+    public List<BookingView> getPending(Integer adminId, Integer afterId, int size) {
+        bookingService.validateAdminAccess(adminId);
+        validateBatch(size);
+
+        List<Integer> ids = bookingsRepository.findPendingIds(afterId != null ? afterId : 0, size);
+        return ids.isEmpty() ? List.of() : bookingsRepository.findViewsByIds(ids);
+    }
+
+    /**
+     * Claim up to batchSize unclaimed pending bookings for this admin (admin only).
+     *
+     * Candidate rows are locked with FOR UPDATE SKIP LOCKED, so two admins claiming at
+     * the same moment skip each other's rows instead of waiting or double-claiming.
+     * The claim is a lease; unfinished work goes back to the queue when it runs out.
+     */
+    @Transactional
+    public List<BookingView> claimBatch(Integer adminId, int batchSize) {
+        bookingService.validateAdminAccess(adminId);
+        validateBatch(batchSize);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> ids = bookingsRepository.lockClaimablePending(now, batchSize);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        bookingsRepository.claim(ids, adminId, now.plus(claimLease));
+        return bookingsRepository.findViewsByIds(ids);
+    }
+
+    /**
+     * Queue depth and oldest pending age, answered from the pending-only index (admin only)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getQueueMetrics(Integer adminId) {
+        bookingService.validateAdminAccess(adminId);
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("depth", bookingsRepository.countPending());
+        metrics.put("claimed", bookingsRepository.countClaimedPending(now));
+
+        Integer oldestId = bookingsRepository.findOldestPendingId();
+        LocalDateTime oldestAt = oldestId != null ? statusRepository.findFirstChangeAt(oldestId) : null;
+        metrics.put("oldestPendingId", oldestId);
+        metrics.put("oldestPendingSince", oldestAt);
+        metrics.put("oldestPendingAgeSeconds", oldestAt != null ? Duration.between(oldestAt, now).getSeconds() : null);
+        return metrics;
+    }
+
+    private void validateBatch(int size) {
+        if (size <= 0 || size > MAX_BATCH) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_BATCH + ".");
+        }
+    }
+}
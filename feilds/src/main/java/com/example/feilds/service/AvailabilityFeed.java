@@ -0,0 +1,247 @@
+package com.example.feilds.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-sent availability changes per field, fed by SlotOccupancyIndex: a booking
+ * committed, a booking cancelled/rejected/expired, a hold placed or dropped.
+ *
+ * Each subscriber has a bounded queue of pending changes and one virtual thread that
+ * writes them out, so an idle subscriber is a parked virtual thread and a small map, and
+ * a slow one never holds up the booking that published the change. Pending changes to the
+ * same date and time range are coalesced into the latest one. A subscriber that still
+ * falls more than queue-capacity ranges behind gets a "resync" event and is disconnected;
+ * the client reconnects and reloads availability.
+ *
+ * Events: "ready" once subscribed, then "changes" with a JSON array of diffs
+ * ({"seq", "date", "from", "to", "change"}); the event id is the last seq in the batch.
+ * Idle connections get a comment line every heartbeat so dead ones are noticed.
+ */
+@Component
+public class AvailabilityFeed {
+
+    // One diff as sent to clients
+    public record Diff(long seq, LocalDate date, LocalTime from, LocalTime to, SlotOccupancyIndex.Change change) {}
+
+    // Refused because the node already serves max-subscribers streams
+    public static class FeedFullException extends RuntimeException {
+        public FeedFullException(String message) {
+            super(message);
+        }
+    }
+
+    private final long timeoutMillis;
+    private final int queueCapacity;
+    private final long heartbeatMillis;
+    private final int maxSubscribers;
+
+    private final ConcurrentHashMap<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicLong seq = new AtomicLong();
+
+    private final AtomicLong subscribed = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public AvailabilityFeed(SlotOccupancyIndex occupancyIndex,
+                            @Value("${availability.stream.timeout-ms:1800000}") long timeoutMillis,
+                            @Value("${availability.stream.queue-capacity:256}") int queueCapacity,
+                            @Value("${availability.stream.heartbeat-seconds:30}") long heartbeatSeconds,
+                            @Value("${availability.stream.max-subscribers:50000}") int maxSubscribers) {
+        this.timeoutMillis = timeoutMillis;
+        this.queueCapacity = queueCapacity;
+        this.heartbeatMillis = TimeUnit.SECONDS.toMillis(heartbeatSeconds);
+        this.maxSubscribers = maxSubscribers;
+        occupancyIndex.addListener(this::publish);
+    }
+
+    /**
+     * Open a stream of the field's availability changes. The caller checks the field.
+     */
+    public SseEmitter subscribe(Integer fieldId) {
+        if (open.incrementAndGet() > maxSubscribers) {
+            open.decrementAndGet();
+            throw new FeedFullException("Too many availability streams open, try again later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(fieldId, emitter);
+        // Added under the map's lock, so a concurrent close() cannot drop the set in between
+        subscribers.compute(fieldId, (id, set) -> {
+            Set<Subscriber> listening = set != null ? set : ConcurrentHashMap.newKeySet();
+            listening.add(subscriber);
+            return listening;
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribed.incrementAndGet();
+        Thread.ofVirtual().name("availability-feed-" + fieldId).start(subscriber::run);
+        return emitter;
+    }
+
+    /**
+     * Hand a change to every subscriber of the field; never blocks
+     */
+    void publish(Integer fieldId, LocalDate date, LocalTime from, LocalTime to, SlotOccupancyIndex.Change change) {
+        Set<Subscriber> listening = subscribers.get(fieldId);
+        if (listening == null || listening.isEmpty()) {
+            return;
+        }
+        published.incrementAndGet();
+        Diff diff = new Diff(seq.incrementAndGet(), date, from, to, change);
+        for (Subscriber subscriber : listening) {
+            subscriber.offer(diff);
+        }
+    }
+
+    /**
+     * Subscriber and delivery counters for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("openStreams", open.get());
+        stats.put("fieldsWatched", subscribers.size());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("subscribed", subscribed.get());
+        stats.put("published", published.get());
+        stats.put("queued", queued.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("sent", sent.get());
+        stats.put("droppedSlow", dropped.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+    }
+
+    private final class Subscriber {
+
+        private final Integer fieldId;
+        private final SseEmitter emitter;
+        // ReentrantLock rather than synchronized, so a waiting virtual thread does not pin its carrier
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        // Keyed by date and time range; re-inserted on update so the newest change goes last
+        private final LinkedHashMap<String, Diff> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+        private boolean closed;
+
+        Subscriber(Integer fieldId, SseEmitter emitter) {
+            this.fieldId = fieldId;
+            this.emitter = emitter;
+        }
+
+        void offer(Diff diff) {
+            String key = diff.date() + "|" + diff.from() + "|" + diff.to();
+            lock.lock();
+            try {
+                if (closed || overflowed) {
+                    return;
+                }
+                if (pending.remove(key) != null) {
+                    coalesced.incrementAndGet();
+                } else if (pending.size() >= queueCapacity) {
+                    overflowed = true;
+                    pending.clear();
+                    changed.signal();
+                    return;
+                }
+                pending.put(key, diff);
+                queued.incrementAndGet();
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void run() {
+            try {
+                emitter.send(SseEmitter.event().name("ready").data(Map.of("fieldId", fieldId, "seq", seq.get()),
+                        MediaType.APPLICATION_JSON));
+                while (true) {
+                    List<Diff> batch;
+                    boolean resync;
+                    lock.lock();
+                    try {
+                        if (pending.isEmpty() && !overflowed && !closed) {
+                            changed.await(heartbeatMillis, TimeUnit.MILLISECONDS);
+                        }
+                        if (closed) {
+                            return;
+                        }
+                        resync = overflowed;
+                        batch = new ArrayList<>(pending.values());
+                        pending.clear();
+                    } finally {
+                        lock.unlock();
+                    }
+
+                    if (resync) {
+                        dropped.incrementAndGet();
+                        emitter.send(SseEmitter.event().name("resync").data(Map.of("fieldId", fieldId),
+                                MediaType.APPLICATION_JSON));
+                        emitter.complete();
+                        return;
+                    }
+                    if (batch.isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                        continue;
+                    }
+                    emitter.send(SseEmitter.event().id(Long.toString(batch.get(batch.size() - 1).seq()))
+                            .name("changes").data(batch, MediaType.APPLICATION_JSON));
+                    sent.addAndGet(batch.size());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+            open.decrementAndGet();
+            subscribers.computeIfPresent(fieldId, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.feilds.service;
+
+import com.example.feilds.repository.BlackoutRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed dates of every field, for availability and booking checks: one 366-bit set per
+ * field and calendar year (six longs, bit n is day of year n + 1), plus the same for the
+ * blackouts that close all fields. Whether a field is closed on a date is two map lookups
+ * and a bit test.
+ *
+ * Sets are copy-on-write: a change builds a new array and swaps it in, so readers never
+ * lock. Writers are serialized, so a reload cannot drop a blackout added while it reads
+ * the table. Loaded at startup from the blackouts ending today or later; BlackoutService
+ * marks new ranges after commit and reloads after deletes, because other ranges may still
+ * cover the freed dates. Those only reach the node that made the change, so every node
+ * also reloads on a fixed delay (blackouts.reload-interval-ms) to pick up the others.
+ */
+@Component
+public class BlackoutCalendar {
+
+    // Field id under which blackouts of all fields are kept; real field ids start at 1
+    static final int ALL_FIELDS = 0;
+    // 384 bits, enough for a leap year
+    private static final int WORDS = 6;
+
+    private final BlackoutRepository blackoutRepository;
+    private final ConcurrentHashMap<Long, long[]> years = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong closedAnswers = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    private volatile long lastReloadRows;
+    private volatile long lastReloadMillis = -1;
+    private volatile LocalDateTime lastReloadAt;
+
+    public BlackoutCalendar(BlackoutRepository blackoutRepository) {
+        this.blackoutRepository = blackoutRepository;
+    }
+
+    /**
+     * Rebuild every set from the blackouts ending today or later
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        synchronized (writeLock) {
+            long started = System.nanoTime();
+            Map<Long, long[]> fresh = new HashMap<>();
+            List<Object[]> rows = blackoutRepository.findRangesFrom(LocalDate.now());
+            for (Object[] row : rows) {
+                Integer fieldId = (Integer) row[0];
+                LocalDate from = (LocalDate) row[1];
+                LocalDate to = (LocalDate) row[2];
+                for (int year = from.getYear(); year <= to.getYear(); year++) {
+                    setRange(fresh.computeIfAbsent(key(fieldId, year), k -> new long[WORDS]),
+                            firstBit(from, year), lastBit(to, year));
+                }
+            }
+
+            // Swap in place rather than clear(), so readers never see an empty calendar
+            years.keySet().retainAll(fresh.keySet());
+            years.putAll(fresh);
+
+            reloads.incrementAndGet();
+            lastReloadRows = rows.size();
+            lastReloadMillis = (System.nanoTime() - started) / 1_000_000;
+            lastReloadAt = LocalDateTime.now();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${blackouts.reload-interval-ms:30000}",
+               initialDelayString = "${blackouts.reload-interval-ms:30000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    /**
+     * Whether the field is closed on the date, by its own blackouts or one of all fields
+     */
+    public boolean isClosed(Integer fieldId, LocalDate date) {
+        lookups.incrementAndGet();
+        int year = date.getYear();
+        int bit = date.getDayOfYear() - 1;
+        boolean closed = test(years.get(key(ALL_FIELDS, year)), bit)
+                || (fieldId != null && test(years.get(key(fieldId, year)), bit));
+        if (closed) closedAnswers.incrementAndGet();
+        return closed;
+    }
+
+    /**
+     * Whether a blackout of all fields covers the date
+     */
+    public boolean isClosedEverywhere(LocalDate date) {
+        return isClosed(null, date);
+    }
+
+    /**
+     * Mark [from, to] closed for a field, or for all fields when fieldId is null; call
+     * after the blackout has committed
+     */
+    public void close(Integer fieldId, LocalDate from, LocalDate to) {
+        synchronized (writeLock) {
+            for (int year = from.getYear(); year <= to.getYear(); year++) {
+                long key = key(fieldId, year);
+                long[] current = years.get(key);
+                long[] next = current != null ? current.clone() : new long[WORDS];
+                setRange(next, firstBit(from, year), lastBit(to, year));
+                years.put(key, next);
+            }
+        }
+    }
+
+    /**
+     * Set counts, footprint and lookup counters for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        Set<Integer> fields = new HashSet<>();
+        long closedDays = 0;
+        for (Map.Entry<Long, long[]> entry : years.entrySet()) {
+            fields.add((int) (entry.getKey() >> 32));
+            for (long word : entry.getValue()) {
+                closedDays += Long.bitCount(word);
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("yearSets", years.size());
+        stats.put("bytes", (long) years.size() * WORDS * Long.BYTES);
+        stats.put("fieldsWithBlackouts", fields.size() - (fields.contains(ALL_FIELDS) ? 1 : 0));
+        stats.put("allFieldsBlackouts", fields.contains(ALL_FIELDS));
+        stats.put("closedFieldDays", closedDays);
+        stats.put("lookups", lookups.get());
+        stats.put("closedAnswers", closedAnswers.get());
+        stats.put("reloads", reloads.get());
+        stats.put("lastReloadRows", lastReloadRows);
+        stats.put("lastReloadMillis", lastReloadMillis);
+        stats.put("lastReloadAt", lastReloadAt);
+        return stats;
+    }
+
+    private static long key(Integer fieldId, int year) {
+        int id = fieldId != null ? fieldId : ALL_FIELDS;
+        return ((long) id << 32) | (year & 0xffffffffL);
+    }
+
+    // Bit of the first date of [from, ...] that falls in the year
+    private static int firstBit(LocalDate from, int year) {
+        return from.getYear() < year ? 0 : from.getDayOfYear() - 1;
+    }
+
+    // Bit of the last date of [..., to] that falls in the year
+    private static int lastBit(LocalDate to, int year) {
+        return to.getYear() > year ? Year.of(year).length() - 1 : to.getDayOfYear() - 1;
+    }
+
+    // Set bits first..last, both inclusive, a word at a time
+    static void setRange(long[] bits, int first, int last) {
+        for (int word = first >>> 6; word <= last >>> 6; word++) {
+            long mask = -1L;
+            if (word == first >>> 6) mask &= -1L << (first & 63);
+            if (word == last >>> 6) mask &= -1L >>> (63 - (last & 63));
+            bits[word] |= mask;
+        }
+    }
+
+    private static boolean test(long[] bits, int bit) {
+        return bits != null && (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.FieldBlackouts;
+import com.example.feilds.model.Fields;
+import com.example.feilds.model.Users;
+import com.example.feilds.repository.BlackoutRepository;
+import com.example.feilds.repository.FieldRepository;
+import com.example.feilds.repository.UserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Date ranges on which a field, or every field, is closed for maintenance, tournaments or
+ * public holidays. Closed dates offer no free slots and take no bookings or holds; bookings
+ * made before the blackout are left for the admin to handle. BlackoutCalendar answers the
+ * per-date checks; this service keeps the table and the calendar in step.
+ */
+@Service
+public class BlackoutService {
+
+    // Longest single blackout; a field closed for longer is deactivated instead
+    static final int MAX_DAYS = 366;
+    // Most entries one season import may carry
+    static final int MAX_IMPORT = 5000;
+
+    private final BlackoutRepository blackoutRepository;
+    private final FieldRepository fieldRepository;
+    private final UserRepository userRepository;
+    private final BlackoutCalendar calendar;
+    private final JdbcTemplate jdbcTemplate;
+
+    public BlackoutService(BlackoutRepository blackoutRepository, FieldRepository fieldRepository,
+                           UserRepository userRepository, BlackoutCalendar calendar, JdbcTemplate jdbcTemplate) {
+        this.blackoutRepository = blackoutRepository;
+        this.fieldRepository = fieldRepository;
+        this.userRepository = userRepository;
+        this.calendar = calendar;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // A blackout as sent and received by the API; fieldId null closes every field
+    public record Blackout(Integer id, Integer fieldId, LocalDate fromDate, LocalDate toDate, String reason) {}
+
+    // Outcome of a season import: blackouts replaced and blackouts created
+    public record ImportResult(int removed, List<Blackout> created) {}
+
+    /**
+     * Blackouts ending today or later; with a field id, the ones that apply to that field
+     */
+    @Transactional(readOnly = true)
+    public List<Blackout> getUpcoming(Integer fieldId) {
+        return blackoutRepository.findApplicable(fieldId, LocalDate.now()).stream()
+                .map(BlackoutService::toBlackout)
+                .toList();
+    }
+
+    /**
+     * Close a field, or every field when fieldId is null, from fromDate to toDate
+     * inclusive (admin only)
+     */
+    @Transactional
+    public Blackout createBlackout(Integer adminId, Integer fieldId, LocalDate fromDate, LocalDate toDate, String reason) {
+        validateAdminAccess(adminId);
+        validateRange(fromDate, toDate, reason);
+
+        Fields field = null;
+        if (fieldId != null) {
+            field = fieldRepository.findById(fieldId)
+                    .orElseThrow(() -> new IllegalArgumentException("Field not found"));
+        }
+
+        FieldBlackouts saved = blackoutRepository.save(FieldBlackouts.builder()
+                .field(field)
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .reason(reason)
+                .createdAt(LocalDateTime.now())
+                .build());
+        BookingService.afterCommit(() -> calendar.close(fieldId, fromDate, toDate));
+        return toBlackout(saved);
+    }
+
+    /**
+     * Import a season calendar in one transaction (admin only): every entry is checked
+     * first and all of them go in with a single multi-row INSERT, so either the whole
+     * calendar is taken or none of it. With replace, the blackouts of the fields named in
+     * the import (and the all-field ones, if the import has any) that lie between its
+     * earliest and latest date are removed first, so re-importing a corrected calendar
+     * does not double up.
+     */
+    @Transactional
+    public ImportResult importCalendar(Integer adminId, List<Blackout> entries, boolean replace) {
+        validateAdminAccess(adminId);
+
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("At least one blackout is required");
+        }
+        if (entries.size() > MAX_IMPORT) {
+            throw new IllegalArgumentException("An import may carry at most " + MAX_IMPORT + " blackouts");
+        }
+
+        Set<Integer> fieldIds = new HashSet<>();
+        boolean global = false;
+        LocalDate earliest = null;
+        LocalDate latest = null;
+        for (int i = 0; i < entries.size(); i++) {
+            Blackout entry = entries.get(i);
+            try {
+                validateRange(entry.fromDate(), entry.toDate(), entry.reason());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Blackout " + (i + 1) + ": " + e.getMessage());
+            }
+            if (entry.fieldId() != null) {
+                fieldIds.add(entry.fieldId());
+            } else {
+                global = true;
+            }
+            earliest = earliest == null || entry.fromDate().isBefore(earliest) ? entry.fromDate() : earliest;
+            latest = latest == null || entry.toDate().isAfter(latest) ? entry.toDate() : latest;
+        }
+
+        if (!fieldIds.isEmpty()) {
+            Set<Integer> missing = new HashSet<>(fieldIds);
+            fieldRepository.findAllById(fieldIds).forEach(field -> missing.remove(field.getId()));
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("Fields not found: " + missing);
+            }
+        }
+
+        int removed = 0;
+        if (replace) {
+            // No field has id 0; it keeps the IN list valid for an import of all-field blackouts only
+            removed = blackoutRepository.deleteWithin(earliest, latest, fieldIds.isEmpty() ? List.of(0) : fieldIds, global);
+        }
+        List<Blackout> created = insertBlackouts(entries);
+
+        if (removed > 0) {
+            BookingService.afterCommit(calendar::reload);
+        } else {
+            BookingService.afterCommit(() -> created.forEach(
+                    b -> calendar.close(b.fieldId(), b.fromDate(), b.toDate())));
+        }
+        return new ImportResult(removed, created);
+    }
+
+    /**
+     * Delete a blackout (admin only)
+     */
+    @Transactional
+    public void deleteBlackout(Integer adminId, Integer blackoutId) {
+        validateAdminAccess(adminId);
+
+        if (blackoutId == null) {
+            throw new IllegalArgumentException("Blackout ID is required");
+        }
+        if (!blackoutRepository.existsById(blackoutId)) {
+            throw new IllegalArgumentException("Blackout not found");
+        }
+
+        blackoutRepository.deleteById(blackoutId);
+        // Other blackouts may still cover some of the dates, so rebuild rather than clear bits
+        BookingService.afterCommit(calendar::reload);
+    }
+
+    private static void validateRange(LocalDate fromDate, LocalDate toDate, String reason) {
+        if (fromDate == null || toDate == null) {
+            throw new IllegalArgumentException("fromDate and toDate are required");
+        }
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("toDate cannot be before fromDate");
+        }
+        if (toDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Blackout is already over");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_DAYS) {
+            throw new IllegalArgumentException("A blackout can cover at most " + MAX_DAYS + " days");
+        }
+        if (reason != null && reason.length() > 255) {
+            throw new IllegalArgumentException("Reason cannot be longer than 255 characters");
+        }
+    }
+
+    private List<Blackout> insertBlackouts(List<Blackout> entries) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO field_blackouts (field_id, from_date, to_date, reason, created_at) " +
+                    "SELECT *, now() FROM unnest(?::int[], ?::date[], ?::date[], ?::varchar[]) " +
+                    "RETURNING id, field_id, from_date, to_date, reason");
+            ps.setArray(1, con.createArrayOf("integer", entries.stream().map(Blackout::fieldId).toArray()));
+            ps.setArray(2, con.createArrayOf("date", entries.stream().map(b -> Date.valueOf(b.fromDate())).toArray()));
+            ps.setArray(3, con.createArrayOf("date", entries.stream().map(b -> Date.valueOf(b.toDate())).toArray()));
+            ps.setArray(4, con.createArrayOf("varchar", entries.stream().map(Blackout::reason).toArray()));
+            return ps;
+        }, (rs, rowNum) -> new Blackout(rs.getInt(1), (Integer) rs.getObject(2), rs.getDate(3).toLocalDate(),
+                rs.getDate(4).toLocalDate(), rs.getString(5)));
+    }
+
+    private static Blackout toBlackout(FieldBlackouts blackout) {
+        return new Blackout(blackout.getId(), blackout.getField() != null ? blackout.getField().getId() : null,
+                blackout.getFromDate(), blackout.getToDate(), blackout.getReason());
+    }
+
+    /**
+     * Validate admin access
+     */
+    private void validateAdminAccess(Integer adminId) {
+        if (adminId == null) {
+            throw new IllegalArgumentException("Admin ID is required");
+        }
+
+        Optional<Users> adminOpt = userRepository.findById(adminId);
+        if (adminOpt.isEmpty()) {
+            throw new IllegalArgumentException("Admin not found");
+        }
+
+        if (adminOpt.get().getRole() != Users.Role.admin) {
+            throw new IllegalArgumentException("Access denied. Admin role required.");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.feilds.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Plain JDBC batch inserts for bulk booking writes. Hibernate cannot batch inserts of
+ * IDENTITY entities, so multi-row paths go through here and run in the caller's
+ * transaction. With reWriteBatchedInserts on the JDBC URL each batch goes to
+ * PostgreSQL as a few multi-row INSERTs.
+ */
+@Component
+public class BookingBatchWriter {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // One bookings row to insert
+    public record NewBooking(Integer playerId, Integer teamId, Integer fieldSlotId, Integer fieldId,
+                             LocalDate date, String status, BigDecimal price) {}
+
+    /**
+     * Insert bookings, silently skipping rows that hit a unique index (a slot and date
+     * taken in the meantime). Callers read back what was actually inserted.
+     */
+    public void insertBookings(List<NewBooking> bookings) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO bookings (player_id, team_id, field_slot_id, field_id, date, status, price) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING",
+                bookings, BATCH_SIZE, (ps, b) -> {
+                    ps.setInt(1, b.playerId());
+                    ps.setObject(2, b.teamId());
+                    ps.setInt(3, b.fieldSlotId());
+                    ps.setObject(4, b.fieldId());
+                    ps.setDate(5, Date.valueOf(b.date()));
+                    ps.setString(6, b.status());
+                    ps.setBigDecimal(7, b.price());
+                });
+    }
+
+    /**
+     * Insert one booking_status_changes row per booking with the same status and reason
+     */
+    public void insertStatusChanges(Collection<Integer> bookingIds, String status, String reason, LocalDateTime at) {
+        Timestamp createdAt = Timestamp.valueOf(at);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO booking_status_changes (booking_id, status, created_at, cancelled_reason) VALUES (?, ?, ?, ?)",
+                bookingIds, BATCH_SIZE, (ps, bookingId) -> {
+                    ps.setInt(1, bookingId);
+                    ps.setString(2, status);
+                    ps.setTimestamp(3, createdAt);
+                    ps.setString(4, reason);
+                });
+    }
+
+    // A row that insertBookingsReturning actually inserted
+    public record InsertedBooking(Integer id, Integer fieldSlotId, LocalDate date) {}
+
+    /**
+     * Insert many bookings in one multi-row statement (unnest over arrays), skipping rows
+     * that hit a unique index, and return the rows that landed with their new ids
+     */
+    public List<InsertedBooking> insertBookingsReturning(List<NewBooking> bookings) {
+        if (bookings.isEmpty()) return List.of();
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO bookings (player_id, team_id, field_slot_id, field_id, date, status, price) " +
+                    "SELECT * FROM unnest(?::int[], ?::int[], ?::int[], ?::int[], ?::date[], ?::varchar[], ?::numeric[]) " +
+                    "ON CONFLICT DO NOTHING RETURNING id, field_slot_id, date");
+            ps.setArray(1, con.createArrayOf("integer", bookings.stream().map(NewBooking::playerId).toArray()));
+            ps.setArray(2, con.createArrayOf("integer", bookings.stream().map(NewBooking::teamId).toArray()));
+            ps.setArray(3, con.createArrayOf("integer", bookings.stream().map(NewBooking::fieldSlotId).toArray()));
+            ps.setArray(4, con.createArrayOf("integer", bookings.stream().map(NewBooking::fieldId).toArray()));
+            ps.setArray(5, con.createArrayOf("date", bookings.stream().map(b -> Date.valueOf(b.date())).toArray()));
+            ps.setArray(6, con.createArrayOf("varchar", bookings.stream().map(NewBooking::status).toArray()));
+            ps.setArray(7, con.createArrayOf("numeric", bookings.stream().map(NewBooking::price).toArray()));
+            return ps;
+        }, (rs, rowNum) -> new InsertedBooking(rs.getInt(1), rs.getInt(2), rs.getDate(3).toLocalDate()));
+    }
+
+    /**
+     * Insert one booking unless the slot and date are taken (unique index), without
+     * aborting the surrounding transaction; returns the new id or null
+     */
+    public Integer insertBookingIfFree(NewBooking b) {
+        List<Integer> ids = jdbcTemplate.query(
+                "INSERT INTO bookings (player_id, team_id, field_slot_id, field_id, date, status, price) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING RETURNING id",
+                (rs, rowNum) -> rs.getInt(1),
+                b.playerId(), b.teamId(), b.fieldSlotId(), b.fieldId(), Date.valueOf(b.date()), b.status(), b.price());
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    /**
+     * Set-based compare-and-set: move every listed booking that is still in one of the
+     * expected statuses to the target status, and return the ids that actually moved. With
+     * an admin id, bookings another admin holds an unexpired claim on are left alone.
+     */
+    public List<Integer> compareAndSetStatuses(Collection<Integer> bookingIds, Collection<String> from, String to,
+                                               Integer adminId, LocalDateTime now) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE bookings SET status = ? WHERE id = ANY (?) AND status = ANY (?)" +
+                    (adminId != null ? " AND (claimed_by IS NULL OR claimed_by = ? OR claimed_until < ?)" : "") +
+                    " RETURNING id");
+            ps.setString(1, to);
+            ps.setArray(2, con.createArrayOf("integer", bookingIds.toArray()));
+            ps.setArray(3, con.createArrayOf("varchar", from.toArray()));
+            if (adminId != null) {
+                ps.setInt(4, adminId);
+                ps.setTimestamp(5, Timestamp.valueOf(now));
+            }
+            return ps;
+        }, (rs, rowNum) -> rs.getInt(1));
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.Bookings;
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.repository.BookingsRepository;
+import com.example.feilds.repository.FieldSlotRepository;
+import com.example.feilds.repository.TeamPlayersRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived holds on a (field slot, date) pair while a team gathers its players.
+ *
+ * Holds live only in memory on this node: two maps (by slot/date and by token) plus
+ * a timing wheel that expires them, driven by one ticker thread. Held slots are
+ * marked in the occupancy index so availability answers skip them, and BookingService
+ * refuses to book a slot held by someone else. A hold turns into a booking through
+ * BookingService.confirmHold.
+ */
+@Service
+public class BookingHoldService {
+
+    // What the client gets back and later confirms
+    public record Hold(String token, Integer fieldSlotId, Integer fieldId, LocalDate date,
+                       LocalTime fromTime, LocalTime toTime, Integer teamId, Integer playerId,
+                       LocalDateTime expiresAt) {}
+
+    private record HoldEntry(Hold hold, TimingWheel.Timeout timeout) {}
+
+    private final FieldSlotRepository fieldSlotRepository;
+    private final TeamPlayersRepository teamPlayersRepository;
+    private final BookingsRepository bookingsRepository;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final BookingLockManager lockManager;
+    private final FieldSlotIntervalIndex slotIntervals;
+    private final BlackoutCalendar blackouts;
+    private final WeekDayCache weekDays;
+
+    private final Duration ttl;
+    private final int maxHolds;
+    private final TimingWheel wheel;
+    private final ScheduledExecutorService ticker;
+
+    private final ConcurrentHashMap<String, HoldEntry> bySlot = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, HoldEntry> byToken = new ConcurrentHashMap<>();
+
+    private final AtomicLong placed = new AtomicLong();
+    private final AtomicLong confirmed = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    public BookingHoldService(FieldSlotRepository fieldSlotRepository,
+                              TeamPlayersRepository teamPlayersRepository,
+                              BookingsRepository bookingsRepository,
+                              SlotOccupancyIndex occupancyIndex,
+                              BookingLockManager lockManager,
+                              FieldSlotIntervalIndex slotIntervals,
+                              BlackoutCalendar blackouts,
+                              WeekDayCache weekDays,
+                              @Value("${booking.hold.ttl-seconds:60}") long ttlSeconds,
+                              @Value("${booking.hold.max-holds:200000}") int maxHolds,
+                              @Value("${booking.hold.tick-ms:100}") long tickMs) {
+        if (ttlSeconds <= 0) {
+            throw new IllegalArgumentException("booking.hold.ttl-seconds must be positive");
+        }
+        this.fieldSlotRepository = fieldSlotRepository;
+        this.teamPlayersRepository = teamPlayersRepository;
+        this.bookingsRepository = bookingsRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.lockManager = lockManager;
+        this.slotIntervals = slotIntervals;
+        this.blackouts = blackouts;
+        this.weekDays = weekDays;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.maxHolds = maxHolds;
+
+        // 512 x 100ms covers ~51s on the first level; longer TTLs cascade from the overflow levels
+        this.wheel = new TimingWheel(tickMs, 512, System::currentTimeMillis);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-hold-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(wheel::advance, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Hold a slot for a team (team admin only). Holding a slot the same team already
+     * holds returns the existing hold.
+     */
+    public Hold placeHold(Integer teamId, Integer playerId, Integer fieldSlotId, LocalDate date) {
+        if (teamId == null || fieldSlotId == null || playerId == null || date == null) {
+            throw new IllegalArgumentException("Team ID, Field Slot ID, Player ID, and date are required");
+        }
+        if (date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Booking date cannot be in the past");
+        }
+        if (!teamPlayersRepository.isPlayerAdminOfTeam(playerId, teamId)) {
+            throw new IllegalArgumentException("Only the team admin can hold slots");
+        }
+
+        FieldSlots slot = fieldSlotRepository.findById(fieldSlotId).orElse(null);
+        if (slot == null) {
+            throw new IllegalArgumentException("Field slot not found");
+        }
+        if (!slot.getField().getIsActive()) {
+            throw new IllegalArgumentException("Field is not active");
+        }
+        if (!weekDays.isOn(slot.getWeekDay().getId(), date)) {
+            throw new IllegalArgumentException("Field slot is not offered on " + date.getDayOfWeek() + " (" + date + ")");
+        }
+        if (blackouts.isClosed(slot.getField().getId(), date)) {
+            throw new BookingService.SlotUnavailableException("Field is closed on " + date);
+        }
+
+        // Same stripe as createBooking, so a hold and a booking for the pair cannot interleave
+        return lockManager.withSlotLock(fieldSlotId, date, () -> {
+            HoldEntry existing = bySlot.get(slotKey(fieldSlotId, date));
+            if (existing != null) {
+                if (existing.hold().teamId().equals(teamId)) {
+                    return existing.hold();
+                }
+                throw new BookingService.SlotUnavailableException("Field slot is on hold for " + date);
+            }
+            if (byToken.size() >= maxHolds) {
+                throw new IllegalStateException("Too many active holds, try again shortly");
+            }
+
+            Integer fieldId = slot.getField().getId();
+            if (bookingsRepository.existsBookingInStatus(fieldSlotId, date, Bookings.Status.LIVE)) {
+                throw new BookingService.SlotUnavailableException("Field slot is already booked for " + date);
+            }
+            List<Integer> overlapping = slotIntervals.overlappingSlotIds(slot);
+            if (!overlapping.isEmpty()
+                    && bookingsRepository.existsBookingOnSlotsInStatus(overlapping, date, Bookings.Status.LIVE)) {
+                throw new BookingService.SlotUnavailableException("The field is already booked at an overlapping time on " + date);
+            }
+
+            String token = UUID.randomUUID().toString();
+            Hold hold = new Hold(token, fieldSlotId, fieldId, date, slot.getFromTime(), slot.getToTime(),
+                    teamId, playerId, LocalDateTime.now().plus(ttl));
+
+            // The TTL is at least a second, so the entry is registered long before the timeout can fire
+            HoldEntry[] entry = new HoldEntry[1];
+            TimingWheel.Timeout timeout = wheel.schedule(ttl.toMillis(), () -> {
+                if (remove(entry[0])) expired.incrementAndGet();
+            });
+            entry[0] = new HoldEntry(hold, timeout);
+            bySlot.put(slotKey(fieldSlotId, date), entry[0]);
+            byToken.put(token, entry[0]);
+            occupancyIndex.hold(fieldId, date, hold.fromTime(), hold.toTime());
+            placed.incrementAndGet();
+            return hold;
+        });
+    }
+
+    /**
+     * Live hold for a token; empty once it expired, was released or confirmed
+     */
+    public Optional<Hold> find(String token) {
+        HoldEntry entry = token != null ? byToken.get(token) : null;
+        return entry != null ? Optional.of(entry.hold()) : Optional.empty();
+    }
+
+    /**
+     * Whether the slot is held on that date by a hold other than exceptToken
+     */
+    public boolean isHeld(Integer fieldSlotId, LocalDate date, String exceptToken) {
+        HoldEntry entry = bySlot.get(slotKey(fieldSlotId, date));
+        return entry != null && !entry.hold().token().equals(exceptToken);
+    }
+
+    /**
+     * Give a slot back before the hold runs out (only the player who placed it)
+     */
+    public void releaseHold(String token, Integer playerId) {
+        HoldEntry entry = byToken.get(token);
+        if (entry == null) {
+            throw new BookingService.NotFoundException("Hold not found or expired");
+        }
+        if (!entry.hold().playerId().equals(playerId)) {
+            throw new IllegalArgumentException("Only the player who placed the hold can release it");
+        }
+        if (remove(entry)) released.incrementAndGet();
+    }
+
+    /**
+     * Drop a hold that has become a booking; called by BookingService after commit
+     */
+    void consume(String token) {
+        HoldEntry entry = byToken.get(token);
+        if (entry != null && remove(entry)) confirmed.incrementAndGet();
+    }
+
+    /**
+     * Hold counters and timing wheel expiry lag for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", byToken.size());
+        stats.put("maxHolds", maxHolds);
+        stats.put("ttlSeconds", ttl.toSeconds());
+        stats.put("placed", placed.get());
+        stats.put("confirmed", confirmed.get());
+        stats.put("released", released.get());
+        stats.put("expired", expired.get());
+        stats.put("wheel", wheel.stats());
+        return stats;
+    }
+
+    // Exactly one of expiry/release/confirm wins the removal
+    private boolean remove(HoldEntry entry) {
+        Hold hold = entry.hold();
+        if (!byToken.remove(hold.token(), entry)) {
+            return false;
+        }
+        bySlot.remove(slotKey(hold.fieldSlotId(), hold.date()), entry);
+        entry.timeout().cancel();
+        occupancyIndex.unhold(hold.fieldId(), hold.date(), hold.fromTime(), hold.toTime());
+        return true;
+    }
+
+    private static String slotKey(Integer fieldSlotId, LocalDate date) {
+        return fieldSlotId + ":" + date;
+    }
+}
@@ -0,0 +1,423 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.BookingStatusChanges;
+import com.example.feilds.model.Bookings;
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.repository.BookingStatusChangesRepository;
+import com.example.feilds.repository.BookingsRepository;
+import com.example.feilds.repository.FieldSlotRepository;
+import com.example.feilds.repository.TeamPlayersRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind intake for booking requests during traffic spikes.
+ *
+ * submit() only does in-memory checks, puts the request on a bounded queue and returns
+ * at once; a full queue is refused (the controller answers 429). One writer thread
+ * drains the queue in batches and writes each batch in a single transaction with one
+ * connection: one multi-row INSERT ... ON CONFLICT DO NOTHING, then the batched
+ * 'pending' rows of the booking_status_changes timeline. The writer holds the slot stripes
+ * of the batch like createBooking does, and a batch whose transaction fails is retried
+ * one request at a time, so a single bad request is the only one rejected. Once a request is written its
+ * status is read from that timeline; before that (or when it was refused) from a
+ * bounded in-memory map.
+ */
+@Service
+public class BookingIntakeService {
+
+    // Raised when the queue is at capacity; the client should retry later
+    public static class IntakeFullException extends RuntimeException {
+        public IntakeFullException(String message) {
+            super(message);
+        }
+    }
+
+    public enum State {
+        queued, written, rejected
+    }
+
+    // Progress of one accepted request
+    public record IntakeStatus(String requestId, State state, Integer bookingId, String error,
+                               LocalDateTime acceptedAt, LocalDateTime processedAt) {}
+
+    private record IntakeRequest(String requestId, Integer teamId, Integer fieldSlotId, Integer playerId,
+                                 LocalDate date, LocalDateTime acceptedAt, long enqueuedNanos) {}
+
+    private final FieldSlotRepository fieldSlotRepository;
+    private final TeamPlayersRepository teamPlayersRepository;
+    private final BookingStatusChangesRepository statusRepository;
+    private final BookingsRepository bookingsRepository;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final BookingHoldService holdService;
+    private final BookingBatchWriter batchWriter;
+    private final BookingRollupService rollupService;
+    private final FieldSlotIntervalIndex slotIntervals;
+    private final SlotPriceIndex prices;
+    private final BlackoutCalendar blackouts;
+    private final WeekDayCache weekDays;
+    private final BookingLockManager lockManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean asyncByDefault;
+    private final int capacity;
+    private final int batchSize;
+    private final int statusRetention;
+
+    private final BlockingQueue<IntakeRequest> queue;
+    private final ConcurrentHashMap<String, IntakeStatus> statuses = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> statusOrder = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong refusedFull = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong splitBatches = new AtomicLong();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram endToEnd = new LatencyHistogram();
+
+    public BookingIntakeService(FieldSlotRepository fieldSlotRepository,
+                                TeamPlayersRepository teamPlayersRepository,
+                                BookingStatusChangesRepository statusRepository,
+                                BookingsRepository bookingsRepository,
+                                SlotOccupancyIndex occupancyIndex,
+                                BookingHoldService holdService,
+                                BookingBatchWriter batchWriter,
+                                BookingRollupService rollupService,
+                                FieldSlotIntervalIndex slotIntervals,
+                                SlotPriceIndex prices,
+                                BlackoutCalendar blackouts,
+                                WeekDayCache weekDays,
+                                BookingLockManager lockManager,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${booking.intake.async-default:false}") boolean asyncByDefault,
+                                @Value("${booking.intake.capacity:10000}") int capacity,
+                                @Value("${booking.intake.batch-size:200}") int batchSize,
+                                @Value("${booking.intake.status-retention:100000}") int statusRetention) {
+        this.fieldSlotRepository = fieldSlotRepository;
+        this.teamPlayersRepository = teamPlayersRepository;
+        this.statusRepository = statusRepository;
+        this.bookingsRepository = bookingsRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.holdService = holdService;
+        this.batchWriter = batchWriter;
+        this.rollupService = rollupService;
+        this.slotIntervals = slotIntervals;
+        this.prices = prices;
+        this.blackouts = blackouts;
+        this.weekDays = weekDays;
+        this.lockManager = lockManager;
+        this.transactionTemplate = transactionTemplate;
+        this.asyncByDefault = asyncByDefault;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.statusRetention = statusRetention;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        this.writer = new Thread(this::drainLoop, "booking-intake-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Let the writer finish what is already queued before the context closes
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(10_000);
+    }
+
+    public boolean isAsyncByDefault() {
+        return asyncByDefault;
+    }
+
+    /**
+     * Accept a booking request for the writer. Only cheap in-memory checks run here;
+     * everything that needs the database is checked by the writer.
+     */
+    public IntakeStatus submit(Integer teamId, Integer fieldSlotId, Integer playerId, LocalDate date) {
+        if (teamId == null || fieldSlotId == null || playerId == null || date == null) {
+            throw new IllegalArgumentException("Team ID, Field Slot ID, Player ID, and date are required");
+        }
+        if (date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Booking date cannot be in the past");
+        }
+        if (holdService.isHeld(fieldSlotId, date, null)) {
+            throw new BookingService.SlotUnavailableException("Field slot is on hold for " + date);
+        }
+
+        String requestId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        IntakeStatus status = new IntakeStatus(requestId, State.queued, null, null, now, null);
+        statuses.put(requestId, status);
+
+        if (!queue.offer(new IntakeRequest(requestId, teamId, fieldSlotId, playerId, date, now, System.nanoTime()))) {
+            statuses.remove(requestId);
+            refusedFull.incrementAndGet();
+            throw new IntakeFullException("Booking intake is full, retry shortly");
+        }
+
+        statusOrder.add(requestId);
+        trimStatuses();
+        accepted.incrementAndGet();
+        return status;
+    }
+
+    /**
+     * Status of an accepted request; for written requests the booking's timeline from
+     * booking_status_changes is included and its last entry is the current status
+     */
+    public Optional<Map<String, Object>> describe(String requestId) {
+        IntakeStatus status = statuses.get(requestId);
+        if (status == null) {
+            return Optional.empty();
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("requestId", status.requestId());
+        data.put("state", status.state());
+        data.put("acceptedAt", status.acceptedAt());
+        data.put("processedAt", status.processedAt());
+        if (status.error() != null) {
+            data.put("error", status.error());
+        }
+        if (status.bookingId() != null) {
+            List<BookingStatusChanges> timeline = statusRepository.findTimeline(status.bookingId());
+            data.put("bookingId", status.bookingId());
+            data.put("bookingStatus", timeline.isEmpty() ? null : timeline.get(timeline.size() - 1).getStatus());
+            data.put("timeline", timeline.stream().map(change -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("status", change.getStatus());
+                row.put("createdAt", change.getCreatedAt());
+                row.put("reason", change.getCancelledReason());
+                return row;
+            }).toList());
+        }
+        return Optional.of(data);
+    }
+
+    /**
+     * Queue depth, outcomes and latency histograms for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        long batchCount = batches.get();
+        long processed = written.get() + rejected.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("asyncByDefault", asyncByDefault);
+        stats.put("queueDepth", queue.size());
+        stats.put("capacity", capacity);
+        stats.put("accepted", accepted.get());
+        stats.put("refusedFull", refusedFull.get());
+        stats.put("written", written.get());
+        stats.put("rejected", rejected.get());
+        stats.put("batches", batchCount);
+        stats.put("splitBatches", splitBatches.get());
+        stats.put("avgBatchSize", batchCount == 0 ? 0.0 : (double) processed / batchCount);
+        stats.put("queueWait", queueWait.snapshot());
+        stats.put("endToEnd", endToEnd.snapshot());
+        return stats;
+    }
+
+    private void drainLoop() {
+        List<IntakeRequest> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                IntakeRequest first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // shutdown(): fall through and flush whatever is still queued
+                continue;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            process(batch);
+            batch.clear();
+        }
+    }
+
+    private void process(List<IntakeRequest> batch) {
+        long started = System.nanoTime();
+        for (IntakeRequest request : batch) {
+            queueWait.recordNanos(started - request.enqueuedNanos());
+        }
+
+        Map<String, IntakeStatus> outcomes;
+        try {
+            outcomes = write(batch);
+        } catch (RuntimeException e) {
+            outcomes = batch.size() > 1 ? writeEach(batch) : Map.of(batch.get(0).requestId(), failed(batch.get(0), e));
+        }
+
+        long finished = System.nanoTime();
+        for (IntakeRequest request : batch) {
+            IntakeStatus status = outcomes.get(request.requestId());
+            statuses.replace(request.requestId(), status);
+            (status.state() == State.written ? written : rejected).incrementAndGet();
+            endToEnd.recordNanos(finished - request.enqueuedNanos());
+        }
+        batches.incrementAndGet();
+    }
+
+    // One transaction under the slot stripes of every request, as createBooking and holds take them
+    private Map<String, IntakeStatus> write(List<IntakeRequest> requests) {
+        List<BookingLockManager.SlotDate> slots = requests.stream()
+                .map(request -> new BookingLockManager.SlotDate(request.fieldSlotId(), request.date()))
+                .toList();
+        return lockManager.withSlotLocks(slots, () -> transactionTemplate.execute(tx -> writeBatch(requests)));
+    }
+
+    // One bad row must not sink the rest: retry each request in its own transaction, so only
+    // the ones that fail again are rejected
+    private Map<String, IntakeStatus> writeEach(List<IntakeRequest> batch) {
+        splitBatches.incrementAndGet();
+        Map<String, IntakeStatus> outcomes = new HashMap<>();
+        for (IntakeRequest request : batch) {
+            try {
+                outcomes.putAll(write(List.of(request)));
+            } catch (RuntimeException e) {
+                outcomes.put(request.requestId(), failed(request, e));
+            }
+        }
+        return outcomes;
+    }
+
+    private static IntakeStatus failed(IntakeRequest request, RuntimeException e) {
+        return outcome(request, State.rejected, null, "Failed to create booking: " + e.getMessage());
+    }
+
+    // Same checks as BookingService.insertBooking, with lookups shared across the batch
+    private Map<String, IntakeStatus> writeBatch(List<IntakeRequest> batch) {
+        Map<String, IntakeStatus> outcomes = new HashMap<>();
+
+        Set<Integer> slotIds = new HashSet<>();
+        batch.forEach(request -> slotIds.add(request.fieldSlotId()));
+        Map<Integer, FieldSlots> slots = new HashMap<>();
+        fieldSlotRepository.findAllById(slotIds).forEach(slot -> slots.put(slot.getId(), slot));
+        Map<String, Boolean> admins = new HashMap<>();
+
+        // Lock every field and date of the batch before any overlap check, in one order so two
+        // writers (or a writer and a single booking) cannot deadlock
+        Map<Integer, Set<LocalDate>> fieldDays = new TreeMap<>();
+        for (IntakeRequest request : batch) {
+            FieldSlots slot = slots.get(request.fieldSlotId());
+            if (slot != null) {
+                fieldDays.computeIfAbsent(slot.getField().getId(), k -> new TreeSet<>()).add(request.date());
+            }
+        }
+        fieldDays.forEach((fieldId, dates) -> dates.forEach(date -> bookingsRepository.lockFieldDay(fieldId, date)));
+
+        // First request per slot and date wins inside the batch, as it would have on the queue
+        Map<String, IntakeRequest> winners = new LinkedHashMap<>();
+        List<BookingBatchWriter.NewBooking> rows = new ArrayList<>();
+        for (IntakeRequest request : batch) {
+            FieldSlots slot = slots.get(request.fieldSlotId());
+            String error = null;
+            if (slot == null) {
+                error = "Field slot not found";
+            } else if (!slot.getField().getIsActive()) {
+                error = "Field is not active";
+            } else if (!weekDays.isOn(slot.getWeekDay().getId(), request.date())) {
+                error = "Field slot is not offered on " + request.date().getDayOfWeek() + " (" + request.date() + ")";
+            } else if (blackouts.isClosed(slot.getField().getId(), request.date())) {
+                error = "Field is closed on " + request.date();
+            } else if (!admins.computeIfAbsent(request.playerId() + ":" + request.teamId(),
+                    k -> teamPlayersRepository.isPlayerAdminOfTeam(request.playerId(), request.teamId()))) {
+                error = "Only the team admin can create bookings";
+            } else if (winners.containsKey(slotKey(request.fieldSlotId(), request.date()))) {
+                error = "Field slot is already booked for " + request.date();
+            } else if (holdService.isHeld(request.fieldSlotId(), request.date(), null)) {
+                error = "Field slot is on hold for " + request.date();
+            } else if (overlapsTaken(slot, request.date(), winners)) {
+                error = "The field is already booked at an overlapping time on " + request.date();
+            }
+
+            if (error != null) {
+                outcomes.put(request.requestId(), outcome(request, State.rejected, null, error));
+                continue;
+            }
+            winners.put(slotKey(request.fieldSlotId(), request.date()), request);
+            rows.add(new BookingBatchWriter.NewBooking(request.playerId(), request.teamId(), request.fieldSlotId(),
+                    slot.getField().getId(), request.date(), Bookings.Status.pending.name(),
+                    prices.price(slot, request.date())));
+        }
+
+        List<Integer> bookingIds = new ArrayList<>();
+        for (BookingBatchWriter.InsertedBooking inserted : batchWriter.insertBookingsReturning(rows)) {
+            IntakeRequest request = winners.remove(slotKey(inserted.fieldSlotId(), inserted.date()));
+            FieldSlots slot = slots.get(inserted.fieldSlotId());
+            outcomes.put(request.requestId(), outcome(request, State.written, inserted.id(), null));
+            bookingIds.add(inserted.id());
+            BookingService.afterCommit(() -> occupancyIndex.occupy(slot.getField().getId(), inserted.date(),
+                    slot.getFromTime(), slot.getToTime()));
+        }
+        // Whatever is left lost to a row already in the table (unique index)
+        for (IntakeRequest request : winners.values()) {
+            outcomes.put(request.requestId(), outcome(request, State.rejected, null,
+                    "Field slot is already booked for " + request.date()));
+        }
+
+        if (!bookingIds.isEmpty()) {
+            batchWriter.insertStatusChanges(bookingIds, Bookings.Status.pending.name(), null, LocalDateTime.now());
+            rollupService.recordCreated(bookingIds);
+        }
+        return outcomes;
+    }
+
+    // An overlapping slot of the same field is booked on the date, or won earlier in this batch
+    private boolean overlapsTaken(FieldSlots slot, LocalDate date, Map<String, IntakeRequest> winners) {
+        List<Integer> overlapping = slotIntervals.overlappingSlotIds(slot);
+        if (overlapping.isEmpty()) {
+            return false;
+        }
+        for (Integer slotId : overlapping) {
+            if (winners.containsKey(slotKey(slotId, date))) {
+                return true;
+            }
+        }
+        return bookingsRepository.existsBookingOnSlotsInStatus(overlapping, date, Bookings.Status.LIVE);
+    }
+
+    private static IntakeStatus outcome(IntakeRequest request, State state, Integer bookingId, String error) {
+        return new IntakeStatus(request.requestId(), state, bookingId, error, request.acceptedAt(), LocalDateTime.now());
+    }
+
+    // Oldest statuses go first once the map is over its retention (far above the queue capacity)
+    private void trimStatuses() {
+        while (statuses.size() > statusRetention) {
+            String oldest = statusOrder.poll();
+            if (oldest == null) return;
+            statuses.remove(oldest);
+        }
+    }
+
+    private static String slotKey(Integer fieldSlotId, LocalDate date) {
+        return fieldSlotId + ":" + date;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.feilds.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks for booking writes. A (fieldSlotId, date) pair or a booking id hashes
+ * onto one of a fixed number of locks, so operations on the same slot or booking are
+ * serialized while unrelated slots almost never share a stripe.
+ *
+ * This only orders requests within one node; the unique index on bookings stays the
+ * cross-node guarantee for one slot, and the field's advisory lock for the date
+ * (BookingsRepository.lockFieldDay) for overlapping slots.
+ */
+@Component
+public class BookingLockManager {
+
+    private static final long LOCK_TIMEOUT_MILLIS = 5_000;
+
+    // Raised when a stripe cannot be acquired in time; the caller should retry
+    public static class LockTimeoutException extends RuntimeException {
+        public LockTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong contended = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public BookingLockManager(@Value("${booking.lock.stripes:1024}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        // Round up to a power of two so a stripe is picked with a mask
+        int size = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Run an action while holding the lock of a field slot on a date
+     */
+    public <T> T withSlotLock(Integer fieldSlotId, LocalDate date, Supplier<T> action) {
+        return withStripe(stripeFor(slotKey(fieldSlotId, date)), action);
+    }
+
+    // A field slot on a date, for taking several slot locks at once
+    public record SlotDate(Integer fieldSlotId, LocalDate date) {}
+
+    /**
+     * Run an action while holding the locks of several field slots on their dates. Stripes
+     * are taken in index order, so two callers locking overlapping sets cannot deadlock.
+     */
+    public <T> T withSlotLocks(Collection<SlotDate> slots, Supplier<T> action) {
+        int[] indexes = slots.stream()
+                .mapToInt(slot -> stripeFor(slotKey(slot.fieldSlotId(), slot.date())))
+                .distinct()
+                .sorted()
+                .toArray();
+        int held = 0;
+        try {
+            for (int index : indexes) {
+                acquire(stripes[index]);
+                held++;
+            }
+            return action.get();
+        } finally {
+            for (int i = held - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Run an action while holding the lock of a field (slot template changes)
+     */
+    public <T> T withFieldLock(Integer fieldId, Supplier<T> action) {
+        return withStripe(stripeFor(fieldKey(fieldId)), action);
+    }
+
+    /**
+     * Run an action while holding the lock of a booking
+     */
+    public <T> T withBookingLock(Integer bookingId, Supplier<T> action) {
+        return withStripe(stripeFor(bookingKey(bookingId)), action);
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Acquisition and contention counters for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("stripes", stripes.length);
+        stats.put("acquisitions", acquisitions.get());
+        stats.put("contended", contended.get());
+        stats.put("timeouts", timeouts.get());
+        return stats;
+    }
+
+    private <T> T withStripe(int index, Supplier<T> action) {
+        ReentrantLock lock = stripes[index];
+        acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire(ReentrantLock lock) {
+        acquisitions.incrementAndGet();
+        if (lock.tryLock()) {
+            return;
+        }
+        contended.incrementAndGet();
+        try {
+            if (lock.tryLock(LOCK_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        timeouts.incrementAndGet();
+        throw new LockTimeoutException("Booking is busy, please retry");
+    }
+
+    private int stripeFor(long key) {
+        return (int) mix(key) & mask;
+    }
+
+    private static long slotKey(Integer fieldSlotId, LocalDate date) {
+        return ((long) fieldSlotId << 32) ^ date.toEpochDay();
+    }
+
+    // Low half all ones: no date maps there, so field keys stay clear of slot keys
+    private static long fieldKey(Integer fieldId) {
+        return ((long) fieldId << 32) | 0xFFFFFFFFL;
+    }
+
+    // Negated so booking ids and slot keys live in different halves of the key space
+    private static long bookingKey(Integer bookingId) {
+        return ~((long) bookingId);
+    }
+
+    // murmur3 finalizer: neighbouring ids and dates land on unrelated stripes
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.feilds.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Monthly range partitioning of booking_status_changes on created_at.
+ *
+ * Hibernate creates the table as a plain one; on startup it is converted once into a
+ * partitioned table (rows copied, identity sequence carried over), and monthly
+ * partitions are kept created a few months ahead. A scheduled archiver detaches
+ * partitions older than the retention window, exports them as gzipped CSV into the
+ * archive directory and drops them.
+ *
+ * bookings itself is not partitioned: reviews, waitlist entries and the timeline all
+ * reference bookings.id, and PostgreSQL only allows foreign keys into a partitioned
+ * table through a key that contains the partition column.
+ */
+@Service
+public class BookingPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingPartitionService.class);
+
+    private static final String TABLE = "booking_status_changes";
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_y(\\d{4})m(\\d{2})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int retainMonths;
+    private final int monthsAhead;
+    private final Path archiveDir;
+
+    private final AtomicLong archivedPartitions = new AtomicLong();
+    private final AtomicLong archivedRows = new AtomicLong();
+    private volatile LocalDateTime lastArchiveAt;
+    private volatile String lastArchiveError;
+
+    public BookingPartitionService(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${booking.partitions.retain-months:24}") int retainMonths,
+                                   @Value("${booking.partitions.months-ahead:3}") int monthsAhead,
+                                   @Value("${booking.partitions.archive-dir:archive}") String archiveDir) {
+        if (retainMonths < 1 || monthsAhead < 1) {
+            throw new IllegalArgumentException("retain-months and months-ahead must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retainMonths = retainMonths;
+        this.monthsAhead = monthsAhead;
+        this.archiveDir = Path.of(archiveDir);
+    }
+
+    /**
+     * Convert the table on first start, then make sure upcoming months have partitions.
+     * Nodes starting together serialize on an advisory lock, and whoever gets it second
+     * finds the table already converted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!isPartitioned()) {
+            transactionTemplate.executeWithoutResult(tx -> {
+                jdbcTemplate.queryForObject("SELECT 1 FROM pg_advisory_xact_lock(hashtext(?))", Integer.class, TABLE);
+                if (!isPartitioned()) {
+                    convertToPartitioned();
+                }
+            });
+        }
+        ensurePartitions();
+    }
+
+    /**
+     * Create the partitions of the current month and the next monthsAhead months
+     */
+    @Scheduled(cron = "${booking.partitions.maintenance-cron:0 15 3 * * *}")
+    public void ensurePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    /**
+     * Detach, export and drop every partition that ended before the retention window.
+     * Partitions detached by an earlier run whose export failed are picked up again.
+     */
+    @Scheduled(cron = "${booking.partitions.archive-cron:0 30 3 * * *}")
+    public void archiveOldPartitions() {
+        YearMonth cutoff = YearMonth.now().minusMonths(retainMonths);
+        try {
+            for (Map.Entry<YearMonth, Boolean> partition : listPartitions().entrySet()) {
+                if (!partition.getKey().isBefore(cutoff)) continue;
+
+                String name = partitionName(partition.getKey());
+                if (partition.getValue()) {
+                    jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + name);
+                }
+                long rows = export(name);
+                jdbcTemplate.execute("DROP TABLE " + name);
+
+                archivedPartitions.incrementAndGet();
+                archivedRows.addAndGet(rows);
+                log.info("Archived {} ({} rows) to {}", name, rows, archiveDir);
+            }
+            lastArchiveError = null;
+        } catch (RuntimeException e) {
+            lastArchiveError = e.getMessage();
+            log.error("Archiving {} partitions failed", TABLE, e);
+        } finally {
+            lastArchiveAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Partition layout and archiver counters for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        Map<YearMonth, Boolean> partitions = listPartitions();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("partitioned", isPartitioned());
+        stats.put("attachedPartitions", partitions.values().stream().filter(Boolean::booleanValue).count());
+        stats.put("detachedPartitions", partitions.values().stream().filter(attached -> !attached).count());
+        stats.put("oldestPartition", partitions.isEmpty() ? null : partitions.keySet().iterator().next().toString());
+        stats.put("retainMonths", retainMonths);
+        stats.put("archivedPartitions", archivedPartitions.get());
+        stats.put("archivedRows", archivedRows.get());
+        stats.put("lastArchiveAt", lastArchiveAt);
+        stats.put("lastArchiveError", lastArchiveError);
+        return stats;
+    }
+
+    private boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid " +
+                "WHERE c.relname = ? AND pg_table_is_visible(c.oid))", Boolean.class, TABLE);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    // One-off: swap the plain table for a partitioned copy with the same columns and rows
+    private void convertToPartitioned() {
+        String legacy = TABLE + "_legacy";
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + legacy);
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + legacy +
+                " INCLUDING DEFAULTS INCLUDING IDENTITY) PARTITION BY RANGE (created_at)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD PRIMARY KEY (id, created_at)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT fk_" + TABLE + "_booking " +
+                "FOREIGN KEY (booking_id) REFERENCES bookings (id)");
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM " + legacy, Timestamp.class);
+        YearMonth from = oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : YearMonth.now();
+        for (YearMonth month = from; !month.isAfter(YearMonth.now().plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            createPartition(month);
+        }
+
+        jdbcTemplate.execute("INSERT INTO " + TABLE + " SELECT * FROM " + legacy);
+        jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('" + TABLE + "', 'id'), " +
+                "COALESCE((SELECT MAX(id) FROM " + TABLE + "), 0) + 1, false)");
+        jdbcTemplate.execute("DROP TABLE " + legacy);
+
+        // Same name as in schema.sql; created on the parent it cascades to every partition
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS ix_status_changes_booking ON " + TABLE + " (booking_id, created_at)");
+        log.info("Converted {} into a partitioned table starting at {}", TABLE, from);
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.plusMonths(1).atDay(1);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + TABLE +
+                " FOR VALUES FROM ('" + start + "') TO ('" + end + "')");
+    }
+
+    // Month -> still attached, oldest first, for every table following the partition naming scheme
+    private Map<YearMonth, Boolean> listPartitions() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid) AS attached " +
+                "FROM pg_class c WHERE c.relkind = 'r' AND c.relname LIKE ? AND pg_table_is_visible(c.oid) " +
+                "ORDER BY c.relname", TABLE + "\\_y%");
+        Map<YearMonth, Boolean> partitions = new LinkedHashMap<>();
+        for (Map<String, Object> row : rows) {
+            Matcher matcher = PARTITION_NAME.matcher((String) row.get("name"));
+            if (matcher.matches()) {
+                YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+                partitions.put(month, (Boolean) row.get("attached"));
+            }
+        }
+        return partitions;
+    }
+
+    // Stream the table into <archive-dir>/<name>.csv.gz (written to a temp file, then moved into place)
+    private long export(String table) {
+        try {
+            Files.createDirectories(archiveDir);
+            Path target = archiveDir.resolve(table + ".csv.gz");
+            Path temp = archiveDir.resolve(table + ".csv.gz.part");
+            long[] rows = {0};
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+                // Inside a transaction so the driver streams with a cursor instead of buffering the month
+                transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.query(con -> {
+                    var ps = con.prepareStatement("SELECT * FROM " + table + " ORDER BY id");
+                    ps.setFetchSize(10_000);
+                    return ps;
+                }, rs -> {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    try {
+                        if (rows[0] == 0) {
+                            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                                out.write((i > 1 ? "," : "") + meta.getColumnName(i));
+                            }
+                            out.write('\n');
+                        }
+                        for (int i = 1; i <= meta.getColumnCount(); i++) {
+                            if (i > 1) out.write(',');
+                            out.write(csv(rs.getString(i)));
+                        }
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                }));
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return rows[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not export " + table, e);
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String partitionName(YearMonth month) {
+        return TABLE + "_" + month.atDay(1).format(SUFFIX);
+    }
+}
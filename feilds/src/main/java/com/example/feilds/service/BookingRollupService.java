@@ -0,0 +1,357 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.Bookings;
+import com.example.feilds.repository.BookingRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Occupancy and revenue counters per field, day and slot starting hour (booking_rollups).
+ *
+ * Every write path that creates a booking or moves its status calls in here inside its
+ * own transaction, and the matching buckets are adjusted with one INSERT ... ON CONFLICT
+ * DO UPDATE, so reports read a few hundred small rows instead of summing bookings.price.
+ * A booking counts as approved (and its price as revenue) while it is approved or
+ * completed, and as cancelled once cancelled.
+ *
+ * rebuild() recomputes everything from bookings on a fork/join pool, one field per
+ * transaction. Writers take a shared advisory lock per field before adjusting its buckets
+ * and the rebuild takes it exclusively, so a field is never recomputed while a write to it
+ * is in flight and no delta is lost or counted twice.
+ */
+@Service
+public class BookingRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingRollupService.class);
+
+    // First key of the (int, int) advisory locks; the second is the field id
+    private static final int LOCK_SPACE = 0x526f6c6c;
+    private static final int FIELDS_PER_TASK = 8;
+
+    // Bucket of a booking row b joined with its slot fs
+    private static final String BUCKET = "b.field_id, b.date, EXTRACT(HOUR FROM fs.from_time)::int";
+    private static final String FROM_BOOKINGS = " FROM bookings b JOIN field_slots fs ON fs.id = b.field_slot_id ";
+    private static final String UPSERT =
+            "INSERT INTO booking_rollups (field_id, day, hour_of_day, bookings, approved, cancelled, revenue_minor) ";
+    private static final String ADD_ON_CONFLICT =
+            " ON CONFLICT (field_id, day, hour_of_day) DO UPDATE SET " +
+            "bookings = booking_rollups.bookings + EXCLUDED.bookings, " +
+            "approved = booking_rollups.approved + EXCLUDED.approved, " +
+            "cancelled = booking_rollups.cancelled + EXCLUDED.cancelled, " +
+            "revenue_minor = booking_rollups.revenue_minor + EXCLUDED.revenue_minor";
+    // Counters of bookings as they are now, for creations and rebuilds
+    private static final String CURRENT_COUNTERS =
+            "COUNT(*), " +
+            "COUNT(*) FILTER (WHERE b.status IN ('approved', 'completed')), " +
+            "COUNT(*) FILTER (WHERE b.status = 'cancelled'), " +
+            "COALESCE(SUM(ROUND(b.price * 100)) FILTER (WHERE b.status IN ('approved', 'completed')), 0)";
+
+    public enum GroupBy {
+        day, hour, field;
+
+        public static GroupBy parse(String value) {
+            if (value == null || value.isBlank()) return day;
+            try {
+                return valueOf(value.trim().toLowerCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("groupBy must be one of day, hour, field");
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingRollupRepository rollupRepository;
+    private final int parallelism;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong transitions = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private volatile long lastRebuildMillis;
+    private volatile long lastRebuildFields;
+    private volatile long lastRebuildBuckets;
+    private volatile LocalDateTime lastRebuildAt;
+
+    public BookingRollupService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                BookingRollupRepository rollupRepository,
+                                @Value("${reports.rebuild.parallelism:4}") int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("reports.rebuild.parallelism must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.rollupRepository = rollupRepository;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * First start with bookings but no rollups: build them once
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Boolean empty = jdbcTemplate.queryForObject(
+                "SELECT NOT EXISTS (SELECT 1 FROM booking_rollups) AND EXISTS (SELECT 1 FROM bookings)", Boolean.class);
+        if (Boolean.TRUE.equals(empty)) {
+            log.info("booking_rollups is empty, rebuilding from bookings");
+            rebuild();
+        }
+    }
+
+    /**
+     * Count newly inserted bookings; call in the transaction that inserted them
+     */
+    public void recordCreated(Collection<Integer> bookingIds) {
+        if (bookingIds.isEmpty()) return;
+        Integer[] ids = bookingIds.toArray(Integer[]::new);
+        lockFieldsShared(ids);
+        jdbcTemplate.update(UPSERT + "SELECT " + BUCKET + ", " + CURRENT_COUNTERS + FROM_BOOKINGS +
+                "WHERE b.id = ANY (?) GROUP BY 1, 2, 3 ORDER BY 1, 2, 3" + ADD_ON_CONFLICT, (Object) ids);
+        created.addAndGet(ids.length);
+    }
+
+    /**
+     * Move bookings' contribution from one status to another; call in the transaction
+     * that changed their status. Transitions that do not change any counter are free.
+     */
+    public void recordTransition(Collection<Integer> bookingIds, Bookings.Status from, Bookings.Status to) {
+        int approved = approvedWeight(to) - approvedWeight(from);
+        int cancelled = cancelledWeight(to) - cancelledWeight(from);
+        if (bookingIds.isEmpty() || (approved == 0 && cancelled == 0)) return;
+
+        Integer[] ids = bookingIds.toArray(Integer[]::new);
+        lockFieldsShared(ids);
+        jdbcTemplate.update(UPSERT + "SELECT " + BUCKET + ", 0, ? * COUNT(*), ? * COUNT(*), ? * SUM(ROUND(b.price * 100))" +
+                FROM_BOOKINGS + "WHERE b.id = ANY (?) GROUP BY 1, 2, 3 ORDER BY 1, 2, 3" + ADD_ON_CONFLICT,
+                approved, cancelled, approved, ids);
+        transitions.addAndGet(ids.length);
+    }
+
+    /**
+     * Booking counts for a date range, grouped by day, slot hour or field
+     */
+    public Map<String, Object> occupancy(LocalDate from, LocalDate to, Integer fieldId, GroupBy groupBy) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        long[] totals = new long[4];
+        for (Object[] row : sum(from, to, fieldId, groupBy)) {
+            long bookings = number(row[1]);
+            long approved = number(row[2]);
+            long cancelled = number(row[3]);
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put(keyName(groupBy), row[0]);
+            item.put("bookings", bookings);
+            item.put("approved", approved);
+            item.put("cancelled", cancelled);
+            item.put("cancellationRate", rate(cancelled, bookings));
+            rows.add(item);
+            totals[0] += bookings;
+            totals[1] += approved;
+            totals[2] += cancelled;
+        }
+
+        Map<String, Object> total = new LinkedHashMap<>();
+        total.put("bookings", totals[0]);
+        total.put("approved", totals[1]);
+        total.put("cancelled", totals[2]);
+        total.put("cancellationRate", rate(totals[2], totals[0]));
+        return report(from, to, fieldId, groupBy, rows, total);
+    }
+
+    /**
+     * Revenue of approved and completed bookings for a date range, grouped by day, slot hour or field
+     */
+    public Map<String, Object> revenue(LocalDate from, LocalDate to, Integer fieldId, GroupBy groupBy) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        long totalApproved = 0;
+        long totalMinor = 0;
+        for (Object[] row : sum(from, to, fieldId, groupBy)) {
+            long approved = number(row[2]);
+            long minor = number(row[4]);
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put(keyName(groupBy), row[0]);
+            item.put("approvedBookings", approved);
+            item.put("revenueMinor", minor);
+            item.put("revenue", BigDecimal.valueOf(minor, 2));
+            rows.add(item);
+            totalApproved += approved;
+            totalMinor += minor;
+        }
+
+        Map<String, Object> total = new LinkedHashMap<>();
+        total.put("approvedBookings", totalApproved);
+        total.put("revenueMinor", totalMinor);
+        total.put("revenue", BigDecimal.valueOf(totalMinor, 2));
+        return report(from, to, fieldId, groupBy, rows, total);
+    }
+
+    /**
+     * Recompute every bucket from the bookings table, fields split across a fork/join pool
+     */
+    public Map<String, Object> rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("A rollup rebuild is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            // Fields with bookings plus fields that only have stale buckets left
+            List<Integer> fieldIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM fields UNION SELECT field_id FROM booking_rollups ORDER BY 1", Integer.class);
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            long buckets;
+            try {
+                buckets = pool.invoke(new RebuildTask(fieldIds, 0, fieldIds.size()));
+            } finally {
+                pool.shutdown();
+            }
+
+            lastRebuildMillis = (System.nanoTime() - started) / 1_000_000;
+            lastRebuildFields = fieldIds.size();
+            lastRebuildBuckets = buckets;
+            lastRebuildAt = LocalDateTime.now();
+            rebuilds.incrementAndGet();
+            log.info("Rebuilt booking rollups: {} fields, {} buckets in {} ms", fieldIds.size(), buckets, lastRebuildMillis);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("fields", fieldIds.size());
+            result.put("buckets", buckets);
+            result.put("millis", lastRebuildMillis);
+            result.put("parallelism", parallelism);
+            return result;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Rollup counters for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("createdRecorded", created.get());
+        stats.put("transitionsRecorded", transitions.get());
+        stats.put("rebuilding", rebuilding.get());
+        stats.put("rebuilds", rebuilds.get());
+        stats.put("lastRebuildMillis", lastRebuildMillis);
+        stats.put("lastRebuildFields", lastRebuildFields);
+        stats.put("lastRebuildBuckets", lastRebuildBuckets);
+        stats.put("lastRebuildAt", lastRebuildAt);
+        return stats;
+    }
+
+    // Splits the field list in halves until a chunk is small enough to do in sequence
+    private class RebuildTask extends RecursiveTask<Long> {
+        private final List<Integer> fieldIds;
+        private final int start;
+        private final int end;
+
+        RebuildTask(List<Integer> fieldIds, int start, int end) {
+            this.fieldIds = fieldIds;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Long compute() {
+            if (end - start <= FIELDS_PER_TASK) {
+                long buckets = 0;
+                for (int i = start; i < end; i++) {
+                    buckets += rebuildField(fieldIds.get(i));
+                }
+                return buckets;
+            }
+            int middle = (start + end) >>> 1;
+            RebuildTask left = new RebuildTask(fieldIds, start, middle);
+            left.fork();
+            long right = new RebuildTask(fieldIds, middle, end).compute();
+            return right + left.join();
+        }
+    }
+
+    // One field, one transaction, holding only that field's lock so it cannot deadlock with writers
+    private int rebuildField(Integer fieldId) {
+        Integer buckets = transactionTemplate.execute(tx -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, ?)", LOCK_SPACE, fieldId);
+            jdbcTemplate.update("DELETE FROM booking_rollups WHERE field_id = ?", fieldId);
+            return jdbcTemplate.update(UPSERT + "SELECT " + BUCKET + ", " + CURRENT_COUNTERS + FROM_BOOKINGS +
+                    "WHERE b.field_id = ? GROUP BY 1, 2, 3", fieldId);
+        });
+        return buckets != null ? buckets : 0;
+    }
+
+    // Held until the writer's transaction ends; only a rebuild of the same field waits on it
+    private void lockFieldsShared(Integer[] bookingIds) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock_shared(?, f) FROM " +
+                "(SELECT DISTINCT field_id AS f FROM bookings WHERE id = ANY (?)) fields", LOCK_SPACE, bookingIds);
+    }
+
+    private List<Object[]> sum(LocalDate from, LocalDate to, Integer fieldId, GroupBy groupBy) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to are required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from cannot be after to");
+        }
+        return switch (groupBy) {
+            case day -> rollupRepository.sumByDay(from, to, fieldId);
+            case hour -> rollupRepository.sumByHour(from, to, fieldId);
+            case field -> rollupRepository.sumByField(from, to, fieldId);
+        };
+    }
+
+    private static Map<String, Object> report(LocalDate from, LocalDate to, Integer fieldId, GroupBy groupBy,
+                                              List<Map<String, Object>> rows, Map<String, Object> totals) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("from", from);
+        report.put("to", to);
+        report.put("fieldId", fieldId);
+        report.put("groupBy", groupBy);
+        report.put("rows", rows);
+        report.put("totals", totals);
+        return report;
+    }
+
+    private static String keyName(GroupBy groupBy) {
+        return switch (groupBy) {
+            case day -> "day";
+            case hour -> "hour";
+            case field -> "fieldId";
+        };
+    }
+
+    private static int approvedWeight(Bookings.Status status) {
+        return status == Bookings.Status.approved || status == Bookings.Status.completed ? 1 : 0;
+    }
+
+    private static int cancelledWeight(Bookings.Status status) {
+        return status == Bookings.Status.cancelled ? 1 : 0;
+    }
+
+    private static long number(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+
+    private static double rate(long part, long whole) {
+        return whole == 0 ? 0.0 : (double) part / whole;
+    }
+}
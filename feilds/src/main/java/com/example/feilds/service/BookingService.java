@@ -0,0 +1,590 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.BookingStatusChanges;
+import com.example.feilds.model.BookingView;
+import com.example.feilds.model.Bookings;
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.model.Teams;
+import com.example.feilds.model.Users;
+import com.example.feilds.repository.BookingStatusChangesRepository;
+import com.example.feilds.repository.BookingsRepository;
+import com.example.feilds.repository.FieldSlotRepository;
+import com.example.feilds.repository.TeamPlayersRepository;
+import com.example.feilds.repository.TeamRepository;
+import com.example.feilds.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class BookingService {
+
+    private static final int MAX_BULK = 1000;
+
+    private final BookingsRepository bookingsRepository;
+    private final BookingStatusChangesRepository statusRepository;
+    private final FieldSlotRepository fieldSlotRepository;
+    private final TeamRepository teamRepository;
+    private final TeamPlayersRepository teamPlayersRepository;
+    private final UserRepository userRepository;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final BookingLockManager lockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingBatchWriter batchWriter;
+    private final BookingHoldService holdService;
+    private final WaitlistService waitlistService;
+    private final BookingRollupService rollupService;
+    private final FieldSlotIntervalIndex slotIntervals;
+    private final SlotPriceIndex prices;
+    private final BlackoutCalendar blackouts;
+    private final WeekDayCache weekDays;
+
+    public BookingService(BookingsRepository bookingsRepository,
+                          BookingStatusChangesRepository statusRepository,
+                          FieldSlotRepository fieldSlotRepository,
+                          TeamRepository teamRepository,
+                          TeamPlayersRepository teamPlayersRepository,
+                          UserRepository userRepository,
+                          SlotOccupancyIndex occupancyIndex,
+                          BookingLockManager lockManager,
+                          TransactionTemplate transactionTemplate,
+                          BookingBatchWriter batchWriter,
+                          BookingHoldService holdService,
+                          WaitlistService waitlistService,
+                          BookingRollupService rollupService,
+                          FieldSlotIntervalIndex slotIntervals,
+                          SlotPriceIndex prices,
+                          BlackoutCalendar blackouts,
+                          WeekDayCache weekDays) {
+        this.bookingsRepository = bookingsRepository;
+        this.statusRepository = statusRepository;
+        this.fieldSlotRepository = fieldSlotRepository;
+        this.teamRepository = teamRepository;
+        this.teamPlayersRepository = teamPlayersRepository;
+        this.userRepository = userRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.lockManager = lockManager;
+        this.transactionTemplate = transactionTemplate;
+        this.batchWriter = batchWriter;
+        this.holdService = holdService;
+        this.waitlistService = waitlistService;
+        this.rollupService = rollupService;
+        this.slotIntervals = slotIntervals;
+        this.prices = prices;
+        this.blackouts = blackouts;
+        this.weekDays = weekDays;
+    }
+
+    // A compare-and-set status change found the booking in an unexpected status
+    public static class StatusConflictException extends RuntimeException {
+        private final Bookings.Status currentStatus;
+
+        public StatusConflictException(Bookings.Status currentStatus, Bookings.Status target) {
+            super("Booking is " + currentStatus + " and cannot be moved to " + target);
+            this.currentStatus = currentStatus;
+        }
+
+        public Bookings.Status getCurrentStatus() {
+            return currentStatus;
+        }
+    }
+
+    // Another admin holds an unexpired approval-queue claim on the booking
+    public static class ClaimedException extends RuntimeException {
+        private final Integer claimedBy;
+
+        public ClaimedException(Integer claimedBy) {
+            super("Booking is claimed by another admin");
+            this.claimedBy = claimedBy;
+        }
+
+        public Integer getClaimedBy() {
+            return claimedBy;
+        }
+    }
+
+    // One keyset page; nextCursor is null on the last page
+    public record HistoryPage(List<BookingView> items, String nextCursor) {}
+
+    public static class NotFoundException extends RuntimeException {
+        public NotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    // Raised when another request already holds the (slot, date) pair
+    public static class SlotUnavailableException extends RuntimeException {
+        public SlotUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Create a pending booking for a field slot on a given date (team admin only).
+     *
+     * Requests for the same slot and date queue on one lock stripe, so on this node
+     * they reach the database one at a time and losers are turned away by the cheap
+     * pre-check. The insert itself stays optimistic: the partial unique index
+     * ux_bookings_active_slot_date (see schema.sql) decides the winner across nodes.
+     * The lock is held until the transaction has committed. Other slots of the field can
+     * overlap this one, so the transaction also takes the field's advisory lock for the
+     * date before the overlap check.
+     */
+    public Bookings createBooking(Integer teamId, Integer fieldSlotId, Integer playerId, LocalDate date) {
+        if (teamId == null || fieldSlotId == null || playerId == null || date == null) {
+            throw new IllegalArgumentException("Team ID, Field Slot ID, Player ID, and date are required");
+        }
+
+        return lockManager.withSlotLock(fieldSlotId, date,
+                () -> transactionTemplate.execute(tx -> insertBooking(teamId, fieldSlotId, playerId, date, null)));
+    }
+
+    /**
+     * Turn a hold into a pending booking (only the player who placed it). The hold keeps
+     * the slot away from everyone else until the booking has committed.
+     */
+    public Bookings confirmHold(String token, Integer playerId) {
+        if (token == null || playerId == null) {
+            throw new IllegalArgumentException("Hold token and Player ID are required");
+        }
+
+        BookingHoldService.Hold hold = holdService.find(token)
+                .orElseThrow(() -> new NotFoundException("Hold not found or expired"));
+        if (!hold.playerId().equals(playerId)) {
+            throw new IllegalArgumentException("Only the player who placed the hold can confirm it");
+        }
+
+        return lockManager.withSlotLock(hold.fieldSlotId(), hold.date(),
+                () -> transactionTemplate.execute(tx -> insertBooking(hold.teamId(), hold.fieldSlotId(),
+                        hold.playerId(), hold.date(), token)));
+    }
+
+    private Bookings insertBooking(Integer teamId, Integer fieldSlotId, Integer playerId, LocalDate date,
+                                   String holdToken) {
+        if (date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Booking date cannot be in the past");
+        }
+
+        BookingParties parties = loadParties(teamId, playerId, fieldSlotId);
+        Teams team = parties.team();
+        Users player = parties.player();
+        FieldSlots slot = parties.slot();
+
+        if (!weekDays.isOn(slot.getWeekDay().getId(), date)) {
+            throw new IllegalArgumentException("Field slot is not offered on " + date.getDayOfWeek() + " (" + date + ")");
+        }
+        if (blackouts.isClosed(slot.getField().getId(), date)) {
+            throw new SlotUnavailableException("Field is closed on " + date);
+        }
+        // The slot stripe only covers this slot; overlapping slots of the field meet here
+        bookingsRepository.lockFieldDay(slot.getField().getId(), date);
+        // Fast reject for the common "already taken" case without burning an insert
+        if (bookingsRepository.existsBookingInStatus(fieldSlotId, date, Bookings.Status.LIVE)) {
+            throw new SlotUnavailableException("Field slot is already booked for " + date);
+        }
+        if (holdService.isHeld(fieldSlotId, date, holdToken)) {
+            throw new SlotUnavailableException("Field slot is on hold for " + date);
+        }
+        if (overlapsLiveBooking(slot, date)) {
+            throw new SlotUnavailableException("The field is already booked at an overlapping time on " + date);
+        }
+
+        Bookings booking = Bookings.builder()
+                .player(player)
+                .team(team)
+                .date(date)
+                .status(Bookings.Status.pending)
+                .fieldSlot(slot)
+                .price(prices.price(slot, date))
+                .build();
+
+        try {
+            booking = bookingsRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race: a concurrent request inserted the same slot and date first
+            throw new SlotUnavailableException("Field slot is already booked for " + date);
+        }
+
+        statusRepository.save(BookingStatusChanges.builder()
+                .booking(booking)
+                .status(Bookings.Status.pending.name())
+                .createdAt(LocalDateTime.now())
+                .build());
+        rollupService.recordCreated(List.of(booking.getId()));
+
+        afterCommit(() -> occupancyIndex.occupy(slot.getField().getId(), date, slot.getFromTime(), slot.getToTime()));
+        if (holdToken != null) {
+            afterCommit(() -> holdService.consume(holdToken));
+        }
+
+        return booking;
+    }
+
+    /**
+     * Whether another slot template overlapping this one on the same field is booked on the
+     * date. The interval tree answers "no overlapping slots" from memory; the database is
+     * only asked when the field really has overlapping templates.
+     */
+    boolean overlapsLiveBooking(FieldSlots slot, LocalDate date) {
+        List<Integer> overlapping = slotIntervals.overlappingSlotIds(slot);
+        return !overlapping.isEmpty()
+                && bookingsRepository.existsBookingOnSlotsInStatus(overlapping, date, Bookings.Status.LIVE);
+    }
+
+    // Validated team, booking player and slot of a booking request
+    record BookingParties(Teams team, Users player, FieldSlots slot) {}
+
+    /**
+     * Load and check everything a new booking refers to: the player must be the team's
+     * admin and the slot's field must be active
+     */
+    BookingParties loadParties(Integer teamId, Integer playerId, Integer fieldSlotId) {
+        Teams team = teamRepository.findById(teamId).orElse(null);
+        Users player = userRepository.findById(playerId).orElse(null);
+        if (team == null || player == null) {
+            throw new IllegalArgumentException("Invalid team or player");
+        }
+
+        if (!teamPlayersRepository.isPlayerAdminOfTeam(playerId, teamId)) {
+            throw new IllegalArgumentException("Only the team admin can create bookings");
+        }
+
+        FieldSlots slot = fieldSlotRepository.findById(fieldSlotId).orElse(null);
+        if (slot == null) {
+            throw new IllegalArgumentException("Field slot not found");
+        }
+
+        if (!slot.getField().getIsActive()) {
+            throw new IllegalArgumentException("Field is not active");
+        }
+
+        return new BookingParties(team, player, slot);
+    }
+
+    /**
+     * Move a booking to a new status (admin only).
+     *
+     * The transition is applied as one conditional UPDATE (compare-and-set on the
+     * current status) instead of load/modify/save, and the timeline row is written in
+     * the same transaction. When expectedStatus is given only that source status is
+     * accepted; otherwise any status allowed to move to the target is. A booking another
+     * admin has claimed from the approval queue is refused until the claim runs out.
+     */
+    public Bookings.Status updateBookingStatus(Integer adminId, Integer bookingId, String status,
+                                               String expectedStatus, String reason) {
+        validateAdminAccess(adminId);
+
+        if (bookingId == null) {
+            throw new IllegalArgumentException("Booking ID is required");
+        }
+
+        Bookings.Status target = Bookings.Status.parse(status);
+        Bookings.Status expected = expectedStatus != null ? Bookings.Status.parse(expectedStatus) : null;
+        if (expected != null && !expected.canMoveTo(target)) {
+            throw new IllegalArgumentException("Cannot move a booking from " + expected + " to " + target);
+        }
+
+        Set<Bookings.Status> from = expected != null ? EnumSet.of(expected) : target.sources();
+        if (from.isEmpty()) {
+            throw new IllegalArgumentException("Bookings cannot be moved to " + target);
+        }
+
+        return lockManager.withBookingLock(bookingId,
+                () -> transactionTemplate.execute(tx -> applyStatus(adminId, bookingId, from, target, reason)));
+    }
+
+    private Bookings.Status applyStatus(Integer adminId, Integer bookingId, Set<Bookings.Status> from,
+                                        Bookings.Status target, String reason) {
+        // One compare-and-set per source status, so the rollups know which status the booking left
+        LocalDateTime now = LocalDateTime.now();
+        Bookings.Status previous = null;
+        for (Bookings.Status source : from) {
+            if (bookingsRepository.compareAndSetStatus(bookingId, EnumSet.of(source), target, adminId, now) == 1) {
+                previous = source;
+                break;
+            }
+        }
+        if (previous == null) {
+            Bookings.Status current = bookingsRepository.findStatusById(bookingId)
+                    .orElseThrow(() -> new NotFoundException("Booking not found"));
+            // Still in a source status, so the claim is what stopped it
+            List<Object[]> claimants = from.contains(current)
+                    ? bookingsRepository.findClaimantsByIds(List.of(bookingId), now) : List.of();
+            if (!claimants.isEmpty()) {
+                throw new ClaimedException((Integer) claimants.get(0)[1]);
+            }
+            throw new StatusConflictException(current, target);
+        }
+        rollupService.recordTransition(List.of(bookingId), previous, target);
+
+        statusRepository.save(BookingStatusChanges.builder()
+                .booking(bookingsRepository.getReferenceById(bookingId))
+                .status(target.name())
+                .cancelledReason(reason)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        if (!target.isLive()) {
+            releaseSlots(List.of(bookingId));
+        }
+
+        return target;
+    }
+
+    // Outcome of one booking in a bulk status change
+    public record BulkOutcome(Integer bookingId, String outcome, Bookings.Status currentStatus) {}
+
+    /**
+     * Move many bookings to one status at once (admin only).
+     *
+     * The transition is a set-based compare-and-set UPDATE ... RETURNING id per source status
+     * and the audit rows are batch-inserted, so a few hundred approvals cost a handful of statements.
+     * Ids that did not move are reported as not_found, as conflict with their current status,
+     * or as claimed when another admin holds an unexpired approval-queue claim on them.
+     */
+    public List<BulkOutcome> bulkUpdateStatus(Integer adminId, List<Integer> bookingIds, String status, String reason) {
+        validateAdminAccess(adminId);
+
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            throw new IllegalArgumentException("bookingIds are required");
+        }
+        if (bookingIds.size() > MAX_BULK) {
+            throw new IllegalArgumentException("At most " + MAX_BULK + " bookings can be updated at once");
+        }
+        if (bookingIds.contains(null)) {
+            throw new IllegalArgumentException("bookingIds cannot contain null");
+        }
+
+        Bookings.Status target = Bookings.Status.parse(status);
+        Set<Bookings.Status> sources = target.sources();
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("Bookings cannot be moved to " + target);
+        }
+
+        Set<Integer> ids = new LinkedHashSet<>(bookingIds);
+
+        return transactionTemplate.execute(tx -> {
+            LocalDateTime now = LocalDateTime.now();
+            Set<Integer> moved = moveStatuses(ids, sources, target, reason, adminId, now);
+
+            Map<Integer, Bookings.Status> current = new HashMap<>();
+            Set<Integer> claimed = new HashSet<>();
+            if (moved.size() < ids.size()) {
+                List<Integer> missed = ids.stream().filter(id -> !moved.contains(id)).toList();
+                for (Object[] row : bookingsRepository.findStatusesByIds(missed)) {
+                    current.put((Integer) row[0], (Bookings.Status) row[1]);
+                }
+                for (Object[] row : bookingsRepository.findClaimantsByIds(missed, now)) {
+                    claimed.add((Integer) row[0]);
+                }
+            }
+
+            List<BulkOutcome> outcomes = new ArrayList<>(ids.size());
+            for (Integer id : ids) {
+                if (moved.contains(id)) {
+                    outcomes.add(new BulkOutcome(id, "updated", target));
+                } else if (claimed.contains(id) && sources.contains(current.get(id))) {
+                    outcomes.add(new BulkOutcome(id, "claimed", current.get(id)));
+                } else if (current.containsKey(id)) {
+                    outcomes.add(new BulkOutcome(id, "conflict", current.get(id)));
+                } else {
+                    outcomes.add(new BulkOutcome(id, "not_found", null));
+                }
+            }
+            return outcomes;
+        });
+    }
+
+    /**
+     * Expire pending bookings nobody handled in time; the caller has already locked the
+     * rows in its transaction. Returns the ids that actually moved.
+     */
+    public Set<Integer> expirePending(Collection<Integer> bookingIds, String reason) {
+        if (bookingIds.isEmpty()) return Set.of();
+        return transactionTemplate.execute(tx -> moveStatuses(bookingIds, EnumSet.of(Bookings.Status.pending),
+                Bookings.Status.expired, reason, null, null));
+    }
+
+    // Set-based compare-and-set per source status (so each moved id's previous status is known),
+    // then the timeline rows, rollups and freed slots of whatever moved. Without an admin id
+    // (the expiry sweep) claims are not checked.
+    private Set<Integer> moveStatuses(Collection<Integer> ids, Set<Bookings.Status> sources,
+                                      Bookings.Status target, String reason, Integer adminId, LocalDateTime now) {
+        Set<Integer> moved = new HashSet<>();
+        for (Bookings.Status source : sources) {
+            List<Integer> movedFrom = batchWriter.compareAndSetStatuses(ids, List.of(source.name()), target.name(),
+                    adminId, now);
+            rollupService.recordTransition(movedFrom, source, target);
+            moved.addAll(movedFrom);
+        }
+        if (!moved.isEmpty()) {
+            batchWriter.insertStatusChanges(moved, target.name(), reason, LocalDateTime.now());
+            if (!target.isLive()) {
+                releaseSlots(moved);
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Every source of a non-live status is live, so moving there freed these bookings'
+     * slots: hand each one to the first waiting team in this transaction, and update the
+     * occupancy index once it commits
+     */
+    private void releaseSlots(Collection<Integer> bookingIds) {
+        for (Object[] row : bookingsRepository.findOccupancyByIds(bookingIds)) {
+            Integer fieldId = (Integer) row[1];
+            LocalDate date = (LocalDate) row[2];
+            LocalTime from = (LocalTime) row[3];
+            LocalTime to = (LocalTime) row[4];
+            afterCommit(() -> occupancyIndex.release(fieldId, date, from, to));
+
+            // A booking left over from before the week day check is not handed on
+            Integer fieldSlotId = (Integer) row[5];
+            if (!weekDays.isOn((Integer) row[6], date)) {
+                continue;
+            }
+            WaitlistService.Promotion promotion = waitlistService.promoteNext(fieldSlotId, fieldId, date,
+                    prices.price(fieldId, fieldSlotId, date));
+            if (promotion != null) {
+                afterCommit(() -> occupancyIndex.occupy(fieldId, date, from, to));
+            }
+        }
+    }
+
+    /**
+     * Filtered booking history for admins, newest first, paged by an opaque cursor
+     */
+    public HistoryPage getBookingHistory(Integer adminId, LocalDate fromDate, LocalDate toDate,
+                                         Integer fieldId, Integer teamId, String cursor, int size) {
+        validateAdminAccess(adminId);
+
+        checkPageSize(size);
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("fromDate cannot be after toDate");
+        }
+        return historyPage(fromDate, toDate, fieldId, teamId, cursor, size);
+    }
+
+    /**
+     * A team's bookings, newest first, as flat views: one existence check plus one
+     * query per page, whatever the page size
+     */
+    public HistoryPage getTeamHistory(Integer teamId, String cursor, int size) {
+        checkPageSize(size);
+        if (!teamRepository.existsById(teamId)) {
+            throw new NotFoundException("Team not found");
+        }
+        // Served by ix_bookings_team_date
+        return historyPage(null, null, null, teamId, cursor, size);
+    }
+
+    // Keyset position of the last row on the previous page
+    private record Cursor(LocalDate date, Integer id) {}
+
+    private HistoryPage historyPage(LocalDate fromDate, LocalDate toDate, Integer fieldId, Integer teamId,
+                                    String cursor, int size) {
+        Cursor after = decodeCursor(cursor);
+
+        // Fetch one extra row to learn whether another page exists
+        List<BookingView> rows = bookingsRepository.findHistoryPage(fromDate, toDate, fieldId, teamId,
+                after != null ? after.date() : null, after != null ? after.id() : null, size + 1);
+        if (rows.size() <= size) {
+            return new HistoryPage(rows, null);
+        }
+
+        List<BookingView> page = rows.subList(0, size);
+        BookingView last = page.get(size - 1);
+        return new HistoryPage(List.copyOf(page), encodeCursor(new Cursor(last.date(), last.id())));
+    }
+
+    private static void checkPageSize(int size) {
+        if (size <= 0 || size > 200) {
+            throw new IllegalArgumentException("size must be between 1 and 200.");
+        }
+    }
+
+    private static String encodeCursor(Cursor cursor) {
+        String raw = cursor.date().toEpochDay() + ":" + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Null for the first page
+    private static Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 2);
+            return new Cursor(LocalDate.ofEpochDay(Long.parseLong(parts[0])), Integer.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // In-memory structures only learn about a change once the DB has it
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Validate admin access
+     */
+    public void validateAdminAccess(Integer adminId) {
+        if (adminId == null) {
+            throw new IllegalArgumentException("Admin ID is required");
+        }
+
+        Optional<Users> adminOpt = userRepository.findById(adminId);
+        if (adminOpt.isEmpty()) {
+            throw new IllegalArgumentException("Admin not found");
+        }
+
+        if (adminOpt.get().getRole() != Users.Role.admin) {
+            throw new IllegalArgumentException("Access denied. Admin role required.");
+        }
+    }
+
+    /**
+     * Parse an ISO date (yyyy-MM-dd) coming from a request body
+     */
+    public static LocalDate parseDate(String dateStr) {
+        if (dateStr == null || dateStr.trim().isEmpty()) {
+            throw new IllegalArgumentException("Date is required");
+        }
+        try {
+            return LocalDate.parse(dateStr.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format. Use yyyy-MM-dd (e.g., 2024-01-20)");
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package com.example.feilds.service;
 
+import com.example.feilds.model.Bookings;
 import com.example.feilds.model.Fields;
 import com.example.feilds.model.FieldSlots;
 import com.example.feilds.model.Users;
+import com.example.feilds.repository.BookingsRepository;
 import com.example.feilds.repository.FieldRepository;
 import com.example.feilds.repository.FieldSlotRepository;
 import com.example.feilds.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 @Service
@@ -21,51 +29,259 @@ public class FieldService {
     private final FieldRepository fieldRepository;
     private final FieldSlotRepository fieldSlotRepository;
     private final UserRepository userRepository;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final BookingsRepository bookingsRepository;
+    private final BookingHoldService holdService;
+    private final WeekDayCache weekDays;
+    private final SlotPriceIndex prices;
+    private final FieldSlotListCache slotLists;
+    private final AvailabilityFeed availabilityFeed;
+    private final BlackoutCalendar blackouts;
+    private final int maxAvailabilityDays;
+
+    // A free slot in an availability answer
+    public record FreeSlot(Integer slotId, LocalTime fromTime, LocalTime toTime, BigDecimal price) {}
+
+    // Free slots of one date, in start time order
+    public record DayAvailability(LocalDate date, List<FreeSlot> slots) {}
+
+    // Price of a slot on a date, or of the same slot weekly for several weeks
+    public record Quote(Integer slotId, LocalDate firstDate, int weeks, BigDecimal total) {}
     
-    public FieldService(FieldRepository fieldRepository, FieldSlotRepository fieldSlotRepository, UserRepository userRepository) {
+    public FieldService(FieldRepository fieldRepository, FieldSlotRepository fieldSlotRepository, UserRepository userRepository,
+                        SlotOccupancyIndex occupancyIndex, BookingsRepository bookingsRepository,
+                        BookingHoldService holdService, WeekDayCache weekDays, SlotPriceIndex prices,
+                        FieldSlotListCache slotLists, AvailabilityFeed availabilityFeed, BlackoutCalendar blackouts,
+                        @Value("${availability.max-days:92}") int maxAvailabilityDays) {
         this.fieldRepository = fieldRepository;
         this.fieldSlotRepository = fieldSlotRepository;
         this.userRepository = userRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.bookingsRepository = bookingsRepository;
+        this.holdService = holdService;
+        this.weekDays = weekDays;
+        this.prices = prices;
+        this.slotLists = slotLists;
+        this.availabilityFeed = availabilityFeed;
+        this.blackouts = blackouts;
+        this.maxAvailabilityDays = maxAvailabilityDays;
     }
 
     /**
-     * Browse fields with filters
+     * Browse active fields with filters, most relevant first. timeSlot is a time ("19:00")
+     * or a range ("19:00-21:00") a slot must cover; with a date that slot must also be free
+     * on the date and the field not closed by a blackout. Every filter is optional and all
+     * of them run as one query.
      */
     public Page<Fields> browseFieldsWithFilters(LocalDate date, String timeSlot, Integer capacity, String location, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        
-        // For now, return all active fields - can be enhanced with custom query later
-        return fieldRepository.findByIsActiveTrue(pageable);
+        if (page < 0 || size <= 0 || size > 100) {
+            throw new IllegalArgumentException("Page must be 0 or more and size between 1 and 100");
+        }
+        if (capacity != null && capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        if (date != null && date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Date cannot be in the past");
+        }
+
+        LocalTime[] cover = timeSlot != null && !timeSlot.isBlank() ? parseTimeSlot(timeSlot) : new LocalTime[2];
+        String locationFilter = location != null && !location.isBlank() ? location.trim() : null;
+        // The date's week day rows come from the cache, so the query filters slots by id without joining week_days
+        List<Integer> weekDayIds = date != null ? weekDays.idsOf(date.getDayOfWeek()) : null;
+        if ((weekDayIds != null && weekDayIds.isEmpty()) || (date != null && blackouts.isClosedEverywhere(date))) {
+            return Page.empty(PageRequest.of(page, size));
+        }
+        return fieldRepository.searchActiveFields(capacity, locationFilter, date, weekDayIds, cover[0], cover[1],
+                PageRequest.of(page, size));
+    }
+
+    // "19:00" -> [19:00, null]; "19:00-21:00" -> [19:00, 21:00]
+    private static LocalTime[] parseTimeSlot(String timeSlot) {
+        String[] parts = timeSlot.split("-");
+        try {
+            if (parts.length <= 2) {
+                LocalTime from = LocalTime.parse(parts[0].trim());
+                LocalTime to = parts.length == 2 ? LocalTime.parse(parts[1].trim()) : null;
+                if (to == null || to.isAfter(from)) {
+                    return new LocalTime[]{from, to};
+                }
+            }
+        } catch (DateTimeParseException e) {
+            // Reported below like any other malformed value
+        }
+        throw new IllegalArgumentException("Invalid time slot. Use HH:mm or HH:mm-HH:mm (e.g., 19:00-21:00)");
     }
 
     /**
-     * Get field details with available times
+     * Get field details with available times (from the slot list cache)
      */
     public Map<String, Object> getFieldWithAvailableTimes(Integer fieldId) {
         if (fieldId == null) {
             throw new IllegalArgumentException("Field ID is required");
         }
 
-        Optional<Fields> fieldOpt = fieldRepository.findById(fieldId);
-        if (fieldOpt.isEmpty()) {
-            throw new IllegalArgumentException("Field not found");
+        FieldSlotListCache.FieldSlotList cached = slotLists.get(fieldId);
+        if (!cached.field().getIsActive()) {
+            throw new IllegalArgumentException("Field is not active");
         }
 
-        Fields field = fieldOpt.get();
+        Map<String, Object> result = new HashMap<>();
+        result.put("field", cached.field());
+        result.put("availableTimeSlots", cached.slots());
+        
+        return result;
+    }
+
+    /**
+     * Get the unbooked windows of a field on a date (served from the occupancy index);
+     * none on a date the field is closed
+     */
+    public List<SlotOccupancyIndex.TimeWindow> getFreeWindows(Integer fieldId, LocalDate date) {
+        if (fieldId == null) {
+            throw new IllegalArgumentException("Field ID is required");
+        }
+        if (date == null) {
+            throw new IllegalArgumentException("Date is required");
+        }
+        if (blackouts.isClosed(fieldId, date)) {
+            return List.of();
+        }
+        return occupancyIndex.freeWindows(fieldId, date);
+    }
+
+    /**
+     * Free slots of a field for every date in [from, to].
+     *
+     * Two queries whatever the range: the field's weekly templates (sorted by start time)
+     * and its live bookings in the range (sorted by date and start time). Walking the dates
+     * in order, each date's bookings are the next run of the booking list; they are merged
+     * into disjoint busy ranges, and the date's templates are subtracted from them in one
+     * pass over both sorted lists. A template is free when no busy range intersects it, so
+     * a slot overlapping a booked one on the same field is not offered either. Held slots
+     * and slots of today that have already started are left out, and dates on which the
+     * field is closed by a blackout have no free slots.
+     */
+    public List<DayAvailability> getAvailability(Integer fieldId, LocalDate from, LocalDate to) {
+        if (fieldId == null) {
+            throw new IllegalArgumentException("Field ID is required");
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to dates are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > maxAvailabilityDays) {
+            throw new IllegalArgumentException("Date range cannot exceed " + maxAvailabilityDays + " days");
+        }
+
+        Fields field = fieldRepository.findById(fieldId)
+                .orElseThrow(() -> new IllegalArgumentException("Field not found"));
         if (!field.getIsActive()) {
             throw new IllegalArgumentException("Field is not active");
         }
 
-        // Get available time slots for this field
-        List<FieldSlots> timeSlots = fieldSlotRepository.findByField(field);
+        Map<DayOfWeek, List<FreeSlot>> templates = new EnumMap<>(DayOfWeek.class);
+        for (Object[] row : fieldSlotRepository.findTemplatesByFieldId(fieldId)) {
+            DayOfWeek day = weekDays.dayOf((Integer) row[1]);
+            if (day != null) {
+                templates.computeIfAbsent(day, d -> new ArrayList<>()).add(new FreeSlot((Integer) row[0],
+                        (LocalTime) row[2], (LocalTime) row[3], (BigDecimal) row[4]));
+            }
+        }
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("field", field);
-        result.put("availableTimeSlots", timeSlots);
-        
+        List<Object[]> booked = bookingsRepository.findBookedRanges(fieldId, from, to, Bookings.Status.LIVE);
+        int[] busyFrom = new int[booked.size()];
+        int[] busyTo = new int[booked.size()];
+        int next = 0;
+
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+        List<DayAvailability> result = new ArrayList<>((int) days);
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            // Merge this date's bookings into disjoint busy ranges, sorted by start
+            int busy = 0;
+            for (; next < booked.size() && date.equals(booked.get(next)[0]); next++) {
+                int start = startMinute((LocalTime) booked.get(next)[1]);
+                int end = endMinute((LocalTime) booked.get(next)[2]);
+                if (busy > 0 && start <= busyTo[busy - 1]) {
+                    busyTo[busy - 1] = Math.max(busyTo[busy - 1], end);
+                } else {
+                    busyFrom[busy] = start;
+                    busyTo[busy] = end;
+                    busy++;
+                }
+            }
+            if (blackouts.isClosed(fieldId, date)) {
+                result.add(new DayAvailability(date, List.of()));
+                continue;
+            }
+
+            List<FreeSlot> free = new ArrayList<>();
+            int b = 0;
+            for (FreeSlot slot : templates.getOrDefault(date.getDayOfWeek(), List.of())) {
+                int start = startMinute(slot.fromTime());
+                // Busy ranges that end before this slot starts end before every later slot too
+                while (b < busy && busyTo[b] <= start) {
+                    b++;
+                }
+                if (b < busy && busyFrom[b] < endMinute(slot.toTime())) continue;
+                if (date.equals(today) && !slot.fromTime().isAfter(now)) continue;
+                if (holdService.isHeld(slot.slotId(), date, null)) continue;
+                free.add(slot);
+            }
+            result.add(new DayAvailability(date, free));
+        }
         return result;
     }
 
+    private static int startMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    // A slot ending at 00:00 runs until midnight
+    private static int endMinute(LocalTime time) {
+        int minute = startMinute(time);
+        return minute == 0 ? 24 * 60 : minute;
+    }
+
+    /**
+     * Open a server-sent stream of the availability changes of an active field
+     */
+    public SseEmitter streamAvailability(Integer fieldId) {
+        if (fieldId == null) {
+            throw new IllegalArgumentException("Field ID is required");
+        }
+        if (!slotLists.get(fieldId).field().getIsActive()) {
+            throw new IllegalArgumentException("Field is not active");
+        }
+        return availabilityFeed.subscribe(fieldId);
+    }
+
+    /**
+     * Price of a slot of the field on a date, or the total for booking it on that date and
+     * weekly for the following weeks - 1 weeks, with the pricing rules applied
+     */
+    public Quote quote(Integer fieldId, Integer slotId, LocalDate date, Integer weeks) {
+        if (fieldId == null || slotId == null || date == null) {
+            throw new IllegalArgumentException("Field ID, slot ID and date are required");
+        }
+        int count = weeks != null ? weeks : 1;
+        if (count < 1 || count > 52) {
+            throw new IllegalArgumentException("Weeks must be between 1 and 52");
+        }
+        if (date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Date cannot be in the past");
+        }
+
+        long cents = prices.quoteSeriesCents(fieldId, slotId, date, count);
+        if (cents == SlotPriceMatrix.NONE) {
+            throw new IllegalArgumentException("Slot " + slotId + " is not a slot of this field on " + date.getDayOfWeek());
+        }
+        return new Quote(slotId, date, count, BigDecimal.valueOf(cents, 2));
+    }
+
     /**
      * Get all fields (admin only)
      */
@@ -140,7 +356,9 @@ public class FieldService {
             field.setIsActive(isActive);
         }
 
-        return fieldRepository.save(field);
+        Fields saved = fieldRepository.save(field);
+        slotLists.invalidate(fieldId);
+        return saved;
     }
 
     /**
@@ -161,6 +379,7 @@ public class FieldService {
         // In a real system, you might want to check if there are active bookings
         // For now, just delete the field
         fieldRepository.deleteById(fieldId);
+        slotLists.invalidate(fieldId);
     }
 
     /**
@@ -185,7 +404,9 @@ public class FieldService {
         Fields field = fieldOpt.get();
         field.setIsActive(isActive);
 
-        return fieldRepository.save(field);
+        Fields saved = fieldRepository.save(field);
+        slotLists.invalidate(fieldId);
+        return saved;
     }
 
     /**
@@ -0,0 +1,105 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.repository.FieldSlotRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One SlotIntervalTree per field, built on first use from the field's slot templates and
+ * dropped by FieldSlotService whenever a slot of the field is created, updated or deleted.
+ *
+ * Used to refuse slot templates that overlap on the same field and week day, and to find
+ * the other slots a booking would collide with on the same pitch. Fields without
+ * overlapping slots (the normal case) answer from memory with no extra query.
+ */
+@Component
+public class FieldSlotIntervalIndex {
+
+    private final FieldSlotRepository fieldSlotRepository;
+    private final ConcurrentHashMap<Integer, SlotIntervalTree> trees = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong buildNanos = new AtomicLong();
+
+    public FieldSlotIntervalIndex(FieldSlotRepository fieldSlotRepository) {
+        this.fieldSlotRepository = fieldSlotRepository;
+    }
+
+    /**
+     * Slots of the field on the week day whose times intersect [from, to), except exceptSlotId
+     */
+    public List<SlotIntervalTree.Interval> overlapping(Integer fieldId, Integer weekDayId, LocalTime from, LocalTime to,
+                                                      Integer exceptSlotId) {
+        return tree(fieldId).overlapping(weekDayId, from, to, exceptSlotId);
+    }
+
+    /**
+     * Ids of the other slots on the same field and week day that overlap this one
+     */
+    public List<Integer> overlappingSlotIds(FieldSlots slot) {
+        List<Integer> ids = new ArrayList<>();
+        for (SlotIntervalTree.Interval interval : overlapping(slot.getField().getId(), slot.getWeekDay().getId(),
+                slot.getFromTime(), slot.getToTime(), slot.getId())) {
+            ids.add(interval.slotId());
+        }
+        return ids;
+    }
+
+    /**
+     * Forget a field's tree; the next lookup rebuilds it from the database. Call after
+     * the slot change has committed.
+     */
+    public void invalidate(Integer fieldId) {
+        // Blocks while a concurrent build of the same field is still computing, then drops
+        // its (possibly stale) result, so a build can never outlive the invalidation
+        if (trees.remove(fieldId) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Cache counters for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        long count = builds.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedFields", trees.size());
+        stats.put("hits", hits.get());
+        stats.put("builds", count);
+        stats.put("invalidations", invalidations.get());
+        stats.put("avgBuildMicros", count == 0 ? 0.0 : buildNanos.get() / 1000.0 / count);
+        return stats;
+    }
+
+    private SlotIntervalTree tree(Integer fieldId) {
+        SlotIntervalTree tree = trees.get(fieldId);
+        if (tree != null) {
+            hits.incrementAndGet();
+            return tree;
+        }
+        return trees.computeIfAbsent(fieldId, this::build);
+    }
+
+    private SlotIntervalTree build(Integer fieldId) {
+        long started = System.nanoTime();
+        List<SlotIntervalTree.Interval> intervals = new ArrayList<>();
+        for (Object[] row : fieldSlotRepository.findTimeRangesByFieldId(fieldId)) {
+            intervals.add(SlotIntervalTree.Interval.of((Integer) row[0], (Integer) row[1],
+                    (LocalTime) row[2], (LocalTime) row[3]));
+        }
+        SlotIntervalTree tree = intervals.isEmpty() ? SlotIntervalTree.EMPTY : new SlotIntervalTree(intervals);
+        builds.incrementAndGet();
+        buildNanos.addAndGet(System.nanoTime() - started);
+        return tree;
+    }
+}
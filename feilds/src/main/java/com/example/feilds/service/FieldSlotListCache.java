@@ -0,0 +1,178 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.model.Fields;
+import com.example.feilds.repository.FieldRepository;
+import com.example.feilds.repository.FieldSlotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A field and its slot templates, as served by GET /api/field-slots/field/{id} and
+ * GET /api/fields/{id}, kept in a bounded LRU map. Entries hold detached copies, so
+ * they never touch a persistence context, and must be treated as read-only.
+ *
+ * FieldSlotService and FieldService invalidate a field after every write to it or its
+ * slots. Concurrent misses on the same field share one load: the first caller reads the
+ * database and the others wait for its result. A load that overlaps an invalidation is
+ * handed to the callers waiting on it but never cached.
+ */
+@Component
+public class FieldSlotListCache {
+
+    // A field with its slot templates
+    public record FieldSlotList(Fields field, List<FieldSlots> slots) {}
+
+    private final FieldRepository fieldRepository;
+    private final FieldSlotRepository fieldSlotRepository;
+    private final WeekDayCache weekDays;
+    private final int maxFields;
+
+    // Access-ordered so the least recently read field is evicted first; guarded by itself
+    private final Map<Integer, FieldSlotList> cache;
+    private final ConcurrentHashMap<Integer, CompletableFuture<FieldSlotList>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public FieldSlotListCache(FieldRepository fieldRepository, FieldSlotRepository fieldSlotRepository,
+                              WeekDayCache weekDays, @Value("${field-slots.cache.max-fields:1000}") int maxFields) {
+        this.fieldRepository = fieldRepository;
+        this.fieldSlotRepository = fieldSlotRepository;
+        this.weekDays = weekDays;
+        this.maxFields = maxFields;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, FieldSlotList> eldest) {
+                boolean evict = size() > FieldSlotListCache.this.maxFields;
+                if (evict) evictions.incrementAndGet();
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * The field and its slots; IllegalArgumentException when the field does not exist
+     */
+    public FieldSlotList get(Integer fieldId) {
+        requests.incrementAndGet();
+        FieldSlotList cached = cached(fieldId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<FieldSlotList> mine = new CompletableFuture<>();
+        CompletableFuture<FieldSlotList> running = loading.putIfAbsent(fieldId, mine);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return await(running);
+        }
+
+        FieldSlotList loaded = null;
+        try {
+            // Re-check: another load may have finished between the miss and putIfAbsent
+            loaded = cached(fieldId);
+            if (loaded == null) {
+                loaded = load(fieldId);
+                loads.incrementAndGet();
+            }
+            mine.complete(loaded);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (cache) {
+                // Gone from loading means the field was invalidated meanwhile: do not cache
+                if (loading.remove(fieldId, mine) && loaded != null) {
+                    cache.put(fieldId, loaded);
+                }
+            }
+        }
+        return present(loaded);
+    }
+
+    /**
+     * Drop a field; call after the write to the field or its slots has committed
+     */
+    public void invalidate(Integer fieldId) {
+        synchronized (cache) {
+            boolean removed = cache.remove(fieldId) != null;
+            removed |= loading.remove(fieldId) != null;
+            if (removed) invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Hit ratio, evictions and size for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        long total = requests.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (cache) {
+            stats.put("cachedFields", cache.size());
+        }
+        stats.put("maxFields", maxFields);
+        stats.put("requests", total);
+        stats.put("hits", hits.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hits.get() / total);
+        stats.put("loads", loads.get());
+        stats.put("coalescedLoads", coalesced.get());
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    private FieldSlotList cached(Integer fieldId) {
+        synchronized (cache) {
+            return cache.get(fieldId);
+        }
+    }
+
+    // Null when the field does not exist; misses are not cached
+    private FieldSlotList load(Integer fieldId) {
+        Fields field = fieldRepository.findById(fieldId).orElse(null);
+        if (field == null) {
+            return null;
+        }
+        Fields copy = new Fields(field.getId(), field.getName(), field.getImages(), field.getPlayersCapacity(),
+                field.getLocationAddress(), field.getIsActive());
+        List<FieldSlots> slots = new ArrayList<>();
+        for (FieldSlots slot : fieldSlotRepository.findByField(field)) {
+            slots.add(new FieldSlots(slot.getId(), copy, weekDays.require(slot.getWeekDay().getId()),
+                    slot.getFromTime(), slot.getToTime(), slot.getPrice()));
+        }
+        return new FieldSlotList(copy, List.copyOf(slots));
+    }
+
+    private static FieldSlotList await(CompletableFuture<FieldSlotList> running) {
+        try {
+            return present(running.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static FieldSlotList present(FieldSlotList list) {
+        if (list == null) {
+            throw new IllegalArgumentException("Field not found");
+        }
+        return list;
+    }
+}
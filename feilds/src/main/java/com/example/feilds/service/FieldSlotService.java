@@ -8,14 +8,19 @@ import com.example.feilds.repository.FieldRepository;
 import com.example.feilds.repository.FieldSlotRepository;
 import com.example.feilds.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Time;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class FieldSlotService {
@@ -23,31 +28,55 @@ public class FieldSlotService {
     private final FieldSlotRepository fieldSlotRepository;
     private final FieldRepository fieldRepository;
     private final UserRepository userRepository;
+    private final FieldSlotIntervalIndex slotIntervals;
+    private final BookingLockManager lockManager;
+    private final WeekDayCache weekDays;
+    private final JdbcTemplate jdbcTemplate;
+    private final SlotPriceIndex prices;
+    private final FieldSlotListCache slotLists;
+    private final SlotOccupancyIndex occupancyIndex;
+
+    // Largest grid one request may create: every 15 minutes of every day, twice over
+    static final int MAX_GRID_SLOTS = 2 * 7 * 96;
     
-    public FieldSlotService(FieldSlotRepository fieldSlotRepository, FieldRepository fieldRepository, UserRepository userRepository) {
+    public FieldSlotService(FieldSlotRepository fieldSlotRepository, FieldRepository fieldRepository, UserRepository userRepository,
+                            FieldSlotIntervalIndex slotIntervals, BookingLockManager lockManager, WeekDayCache weekDays,
+                            JdbcTemplate jdbcTemplate, SlotPriceIndex prices, FieldSlotListCache slotLists,
+                            SlotOccupancyIndex occupancyIndex) {
         this.fieldSlotRepository = fieldSlotRepository;
         this.fieldRepository = fieldRepository;
         this.userRepository = userRepository;
+        this.slotIntervals = slotIntervals;
+        this.lockManager = lockManager;
+        this.weekDays = weekDays;
+        this.jdbcTemplate = jdbcTemplate;
+        this.prices = prices;
+        this.slotLists = slotLists;
+        this.occupancyIndex = occupancyIndex;
     }
 
+    // A price for slots starting in [from, to) on one day of a grid
+    public record PriceBand(String from, String to, Double price) {}
+
+    // Opening hours of one week day in a grid, with its default price and optional bands
+    public record DaySchedule(Integer weekDayId, String opensAt, String closesAt, Double price, List<PriceBand> priceBands) {}
+
+    // A slot created by generateSlotGrid
+    public record GridSlot(Integer id, Integer weekDayId, LocalTime fromTime, LocalTime toTime, BigDecimal price) {}
+
     /**
-     * Get all time slots for a field
+     * Get all time slots for a field (from the slot list cache; the list is read-only)
      */
     public List<FieldSlots> getFieldSlots(Integer fieldId) {
         if (fieldId == null) {
             throw new IllegalArgumentException("Field ID is required");
         }
 
-        Optional<Fields> fieldOpt = fieldRepository.findById(fieldId);
-        if (fieldOpt.isEmpty()) {
-            throw new IllegalArgumentException("Field not found");
-        }
-
-        return fieldSlotRepository.findByField(fieldOpt.get());
+        return slotLists.get(fieldId).slots();
     }
 
     /**
-     * Create a new field slot (admin only)
+     * Create a new field slot (admin only); it may not overlap another slot of the field on the same day
      */
     public FieldSlots createFieldSlot(Integer adminId, Integer fieldId, Integer weekDayId, 
                                      String fromTime, String toTime, Double price) {
@@ -57,9 +86,7 @@ public class FieldSlotService {
             throw new IllegalArgumentException("Field ID is required");
         }
         
-        if (weekDayId == null) {
-            throw new IllegalArgumentException("Week day ID is required");
-        }
+        WeekDays weekDay = weekDays.require(weekDayId);
 
         Optional<Fields> fieldOpt = fieldRepository.findById(fieldId);
         if (fieldOpt.isEmpty()) {
@@ -77,11 +104,6 @@ public class FieldSlotService {
             throw new IllegalArgumentException("Price must be greater than 0");
         }
 
-        // For now, create a simple WeekDays object - in a real system you'd fetch from repository
-        WeekDays weekDay = WeekDays.builder()
-                .id(weekDayId)
-                .build();
-
         FieldSlots slot = FieldSlots.builder()
                 .field(fieldOpt.get())
                 .weekDay(weekDay)
@@ -90,7 +112,80 @@ public class FieldSlotService {
                 .price(BigDecimal.valueOf(price))
                 .build();
 
-        return fieldSlotRepository.save(slot);
+        // Check and save under the field's lock so two admins cannot add overlapping slots at once
+        return lockManager.withFieldLock(fieldId, () -> {
+            rejectOverlaps(fieldId, weekDayId, fromTimeObj, toTimeObj, null);
+            FieldSlots saved = fieldSlotRepository.save(slot);
+            fieldSlotsChanged(fieldId);
+            return saved;
+        });
+    }
+
+    /**
+     * Create a field's whole weekly grid in one go (admin only): back-to-back slots of
+     * slotMinutes from opening to closing time on each listed day, a tail shorter than a
+     * slot is left out. A slot costs the price of the band its start falls in, else the
+     * day's price.
+     *
+     * The admin and the field are looked up once, the generated grid is checked against
+     * itself and against the field's existing slots in memory, and all rows go in with a
+     * single multi-row INSERT, so either the whole grid is created or none of it.
+     */
+    public List<GridSlot> generateSlotGrid(Integer adminId, Integer fieldId, Integer slotMinutes, List<DaySchedule> days) {
+        validateAdminAccess(adminId);
+
+        if (fieldId == null) {
+            throw new IllegalArgumentException("Field ID is required");
+        }
+        if (!fieldRepository.existsById(fieldId)) {
+            throw new IllegalArgumentException("Field not found");
+        }
+        if (slotMinutes == null || slotMinutes < 15 || slotMinutes > 12 * 60) {
+            throw new IllegalArgumentException("Slot length must be between 15 and 720 minutes");
+        }
+        if (days == null || days.isEmpty()) {
+            throw new IllegalArgumentException("At least one day is required");
+        }
+
+        List<GridSlot> grid = new ArrayList<>();
+        for (DaySchedule day : days) {
+            addDay(grid, day, slotMinutes);
+            if (grid.size() > MAX_GRID_SLOTS) {
+                throw new IllegalArgumentException("A grid may create at most " + MAX_GRID_SLOTS + " slots");
+            }
+        }
+        if (grid.isEmpty()) {
+            throw new IllegalArgumentException("Opening hours are shorter than one slot on every day");
+        }
+
+        // Generated slots carry negative ids until they are inserted
+        List<SlotIntervalTree.Interval> intervals = new ArrayList<>(grid.size());
+        for (int i = 0; i < grid.size(); i++) {
+            GridSlot slot = grid.get(i);
+            intervals.add(SlotIntervalTree.Interval.of(-1 - i, slot.weekDayId(), slot.fromTime(), slot.toTime()));
+        }
+        SlotIntervalTree generated = new SlotIntervalTree(intervals);
+
+        return lockManager.withFieldLock(fieldId, () -> {
+            List<String> clashes = new ArrayList<>();
+            for (int i = 0; i < grid.size(); i++) {
+                GridSlot slot = grid.get(i);
+                SlotIntervalTree.Interval interval = intervals.get(i);
+                // Each clash inside the grid is reported once, from its later slot
+                generated.overlapping(slot.weekDayId(), slot.fromTime(), slot.toTime(), interval.slotId()).stream()
+                        .filter(o -> o.slotId() > interval.slotId())
+                        .forEach(o -> clashes.add(describe(interval) + " overlaps " + describe(o) + " in the grid"));
+                slotIntervals.overlapping(fieldId, slot.weekDayId(), slot.fromTime(), slot.toTime(), null)
+                        .forEach(o -> clashes.add(describe(interval) + " overlaps slot " + o.slotId()));
+            }
+            if (!clashes.isEmpty()) {
+                throw new IllegalArgumentException("Grid overlaps slots on this field (" + clashes.size() + "): "
+                        + clashes.stream().limit(5).collect(Collectors.joining(", ")));
+            }
+            List<GridSlot> inserted = insertSlots(fieldId, grid);
+            fieldSlotsChanged(fieldId);
+            return inserted;
+        });
     }
 
     /**
@@ -109,6 +204,8 @@ public class FieldSlotService {
         }
 
         FieldSlots slot = slotOpt.get();
+        LocalTime oldFrom = slot.getFromTime();
+        LocalTime oldTo = slot.getToTime();
         
         if (fromTime != null && !fromTime.trim().isEmpty()) {
             LocalTime fromTimeObj = parseTime(fromTime);
@@ -129,7 +226,17 @@ public class FieldSlotService {
             slot.setPrice(BigDecimal.valueOf(price));
         }
 
-        return fieldSlotRepository.save(slot);
+        Integer fieldId = slot.getField().getId();
+        return lockManager.withFieldLock(fieldId, () -> {
+            rejectOverlaps(fieldId, slot.getWeekDay().getId(), slot.getFromTime(), slot.getToTime(), slotId);
+            FieldSlots saved = fieldSlotRepository.save(slot);
+            fieldSlotsChanged(fieldId);
+            // Live bookings on the slot sit in the occupancy index under the old times
+            if (!saved.getFromTime().equals(oldFrom) || !saved.getToTime().equals(oldTo)) {
+                occupancyIndex.rebuildField(fieldId);
+            }
+            return weekDays.resolve(saved);
+        });
     }
 
     /**
@@ -148,6 +255,103 @@ public class FieldSlotService {
         }
 
         fieldSlotRepository.deleteById(slotId);
+        fieldSlotsChanged(slotOpt.get().getField().getId());
+    }
+
+    /**
+     * Drop everything cached from the field's slots; call after the change has committed
+     */
+    private void fieldSlotsChanged(Integer fieldId) {
+        slotIntervals.invalidate(fieldId);
+        prices.invalidate(fieldId);
+        slotLists.invalidate(fieldId);
+    }
+
+    /**
+     * Refuse a time range that intersects another slot of the field on the same week day
+     */
+    private void rejectOverlaps(Integer fieldId, Integer weekDayId, LocalTime from, LocalTime to, Integer exceptSlotId) {
+        List<SlotIntervalTree.Interval> overlaps = slotIntervals.overlapping(fieldId, weekDayId, from, to, exceptSlotId);
+        if (overlaps.isEmpty()) {
+            return;
+        }
+        String clashes = overlaps.stream()
+                .map(o -> String.format("%02d:%02d-%02d:%02d (slot %d)", o.fromMinute() / 60, o.fromMinute() % 60,
+                        o.toMinute() / 60, o.toMinute() % 60, o.slotId()))
+                .collect(Collectors.joining(", "));
+        throw new IllegalArgumentException("Slot overlaps existing slots on this field and day: " + clashes);
+    }
+
+    /**
+     * Append the slots of one day of a grid
+     */
+    private void addDay(List<GridSlot> grid, DaySchedule day, int slotMinutes) {
+        if (day == null) {
+            throw new IllegalArgumentException("Day schedule cannot be empty");
+        }
+        Integer weekDayId = weekDays.require(day.weekDayId()).getId();
+        LocalTime opensAt = parseTime(day.opensAt());
+        LocalTime closesAt = parseTime(day.closesAt());
+        if (!opensAt.isBefore(closesAt)) {
+            throw new IllegalArgumentException("Opening time must be before closing time");
+        }
+        List<PriceBand> bands = day.priceBands() != null ? day.priceBands() : List.of();
+        List<LocalTime[]> bandTimes = new ArrayList<>(bands.size());
+        for (PriceBand band : bands) {
+            LocalTime from = parseTime(band.from());
+            LocalTime to = parseTime(band.to());
+            if (!from.isBefore(to)) {
+                throw new IllegalArgumentException("Price band start must be before its end");
+            }
+            requirePositive(band.price());
+            bandTimes.add(new LocalTime[]{from, to});
+        }
+
+        int close = closesAt.toSecondOfDay() / 60;
+        for (int start = opensAt.toSecondOfDay() / 60; start + slotMinutes <= close; start += slotMinutes) {
+            LocalTime from = LocalTime.ofSecondOfDay(start * 60L);
+            Double price = day.price();
+            // The first band listed wins where bands overlap
+            for (int b = 0; b < bands.size(); b++) {
+                if (!from.isBefore(bandTimes.get(b)[0]) && from.isBefore(bandTimes.get(b)[1])) {
+                    price = bands.get(b).price();
+                    break;
+                }
+            }
+            requirePositive(price);
+            grid.add(new GridSlot(null, weekDayId, from, from.plusMinutes(slotMinutes), BigDecimal.valueOf(price)));
+        }
+    }
+
+    /**
+     * Insert the grid with one multi-row statement (unnest over arrays); the statement is
+     * atomic on its own, so no surrounding transaction is needed
+     */
+    private List<GridSlot> insertSlots(Integer fieldId, List<GridSlot> grid) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO field_slots (field_id, week_day_id, from_time, to_time, price) " +
+                    "SELECT ?, * FROM unnest(?::int[], ?::time[], ?::time[], ?::numeric[]) " +
+                    "RETURNING id, week_day_id, from_time, to_time, price");
+            ps.setInt(1, fieldId);
+            ps.setArray(2, con.createArrayOf("integer", grid.stream().map(GridSlot::weekDayId).toArray()));
+            ps.setArray(3, con.createArrayOf("time", grid.stream().map(s -> Time.valueOf(s.fromTime())).toArray()));
+            ps.setArray(4, con.createArrayOf("time", grid.stream().map(s -> Time.valueOf(s.toTime())).toArray()));
+            ps.setArray(5, con.createArrayOf("numeric", grid.stream().map(GridSlot::price).toArray()));
+            return ps;
+        }, (rs, rowNum) -> new GridSlot(rs.getInt(1), rs.getInt(2), rs.getTime(3).toLocalTime(),
+                rs.getTime(4).toLocalTime(), rs.getBigDecimal(5)));
+    }
+
+    private static String describe(SlotIntervalTree.Interval slot) {
+        return String.format("day %d %02d:%02d-%02d:%02d", slot.weekDayId(), slot.fromMinute() / 60, slot.fromMinute() % 60,
+                slot.toMinute() / 60, slot.toMinute() % 60);
+    }
+
+    private static void requirePositive(Double price) {
+        if (price == null || price <= 0) {
+            throw new IllegalArgumentException("Price must be greater than 0");
+        }
     }
 
     /**
@@ -0,0 +1,256 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.IdempotencyKeys;
+import com.example.feilds.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Entity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for retried writes. The first response for a key is kept
+ * in a bounded, TTL-evicted in-memory map and in the idempotency_keys table, and
+ * duplicates get that response replayed without the write running again.
+ *
+ * Only DTO bodies are kept: a response carrying a JPA entity anywhere in it is never
+ * stored, since entities pull in related rows (users and their credentials included)
+ * that must not be copied into another table or replayed to whoever reuses the key.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // What gets replayed: status code and the JSON body as originally serialized
+    private record StoredResponse(String requestHash, int statusCode, String body, LocalDateTime createdAt) {}
+
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final int maxEntries;
+
+    // Access-ordered so the least recently replayed key is evicted first
+    private final Map<String, StoredResponse> cache;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong replays = new AtomicLong();
+    private final AtomicLong memoryReplays = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong purged = new AtomicLong();
+    private final AtomicLong refusedEntities = new AtomicLong();
+
+    public IdempotencyService(IdempotencyKeyRepository repository,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${idempotency.max-entries:10000}") int maxEntries) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.maxEntries = maxEntries;
+        this.cache = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                boolean evict = size() > IdempotencyService.this.maxEntries;
+                if (evict) evictions.incrementAndGet();
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Run a write at most once per (scope, key). Without a key the action simply runs.
+     * Responses below 500 are stored; server errors are not, so the client can retry them.
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object requestBody, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", HEADER + " must be at most " + MAX_KEY_LENGTH + " characters"));
+        }
+
+        requests.incrementAndGet();
+        String scopedKey = scope + "|" + key;
+        String requestHash = hash(requestBody);
+
+        StoredResponse stored = lookup(scopedKey);
+        if (stored != null) {
+            return replay(stored, requestHash);
+        }
+
+        if (!inFlight.add(scopedKey)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "A request with this " + HEADER + " is still being processed"));
+        }
+        try {
+            // Re-check: the first request may have finished between lookup and add
+            stored = lookup(scopedKey);
+            if (stored != null) {
+                return replay(stored, requestHash);
+            }
+
+            ResponseEntity<?> response = action.get();
+            if (response.getStatusCode().value() < 500) {
+                store(scopedKey, requestHash, response);
+            }
+            return response;
+        } finally {
+            inFlight.remove(scopedKey);
+        }
+    }
+
+    /**
+     * Replay hit rate and store size for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        long total = requests.get();
+        long hits = replays.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("keyedRequests", total);
+        stats.put("replays", hits);
+        stats.put("memoryReplays", memoryReplays.get());
+        stats.put("replayHitRate", total == 0 ? 0.0 : (double) hits / total);
+        synchronized (cache) {
+            stats.put("memoryEntries", cache.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("evictions", evictions.get());
+        stats.put("inFlight", inFlight.size());
+        // Rows this node wrote and purged; the table itself is not counted on every metrics call
+        stats.put("persisted", persisted.get());
+        stats.put("purged", purged.get());
+        stats.put("refusedEntityBodies", refusedEntities.get());
+        return stats;
+    }
+
+    /**
+     * Drop expired keys from memory and from the table
+     */
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        synchronized (cache) {
+            cache.values().removeIf(entry -> entry.createdAt().isBefore(cutoff));
+        }
+        purged.addAndGet(repository.deleteOlderThan(cutoff));
+    }
+
+    private StoredResponse lookup(String scopedKey) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        synchronized (cache) {
+            StoredResponse cached = cache.get(scopedKey);
+            if (cached != null && !cached.createdAt().isBefore(cutoff)) {
+                memoryReplays.incrementAndGet();
+                return cached;
+            }
+            if (cached != null) {
+                cache.remove(scopedKey);
+            }
+        }
+
+        IdempotencyKeys row = repository.findById(scopedKey).orElse(null);
+        if (row == null || row.getCreatedAt().isBefore(cutoff)) {
+            return null;
+        }
+        StoredResponse stored = new StoredResponse(row.getRequestHash(), row.getStatusCode(),
+                row.getResponseBody(), row.getCreatedAt());
+        synchronized (cache) {
+            cache.put(scopedKey, stored);
+        }
+        return stored;
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(Map.of("error", HEADER + " was already used with a different request body"));
+        }
+        replays.incrementAndGet();
+        try {
+            Object body = stored.body() != null ? objectMapper.readValue(stored.body(), Object.class) : null;
+            return ResponseEntity.status(stored.statusCode())
+                    .header("Idempotent-Replayed", "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is not valid JSON", e);
+        }
+    }
+
+    private void store(String scopedKey, String requestHash, ResponseEntity<?> response) {
+        if (containsEntity(response.getBody())) {
+            refusedEntities.incrementAndGet();
+            log.warn("Not storing the response for {}: it contains a JPA entity, return a DTO instead", scopedKey);
+            return;
+        }
+        String body;
+        try {
+            body = response.getBody() != null ? objectMapper.writeValueAsString(response.getBody()) : null;
+        } catch (JsonProcessingException e) {
+            // Not replayable; the write itself already succeeded, so just skip storing
+            return;
+        }
+
+        StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(), body, LocalDateTime.now());
+        try {
+            repository.save(new IdempotencyKeys(scopedKey, requestHash, stored.statusCode(), body, stored.createdAt()));
+            persisted.incrementAndGet();
+        } catch (DataIntegrityViolationException e) {
+            // Another node stored this key first; its response wins on the next replay
+            return;
+        }
+        synchronized (cache) {
+            cache.put(scopedKey, stored);
+        }
+    }
+
+    // Walks the maps and collections a controller builds its response from
+    static boolean containsEntity(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Map<?, ?> map) {
+            return map.values().stream().anyMatch(IdempotencyService::containsEntity);
+        }
+        if (value instanceof Collection<?> items) {
+            return items.stream().anyMatch(IdempotencyService::containsEntity);
+        }
+        return value.getClass().isAnnotationPresent(Entity.class);
+    }
+
+    private String hash(Object requestBody) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(requestBody);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be serialized", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.feilds.service;
+
+import com.example.feilds.repository.BookingsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expires pending bookings that no admin handled within booking.expiry.pending-minutes,
+ * freeing their slots (and promoting waitlisted teams) like any other status change.
+ *
+ * Each run works in batches of at most batch-size rows, one transaction per batch, so
+ * locks are only ever held on one batch. Rows are claimed with FOR UPDATE SKIP LOCKED and
+ * moved with the usual compare-and-set, so sweepers on several nodes split the work
+ * instead of waiting on each other, and a booking an admin approves at the same moment
+ * is simply skipped. Bookings an admin has claimed from the approval queue are left alone
+ * until the claim lapses.
+ */
+@Service
+public class PendingExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingExpiryService.class);
+
+    private final BookingsRepository bookingsRepository;
+    private final BookingService bookingService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final Duration pendingFor;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong totalExpired = new AtomicLong();
+    private final AtomicLong maxExpiredPerRun = new AtomicLong();
+    private final LatencyHistogram sweepDuration = new LatencyHistogram();
+    private volatile long lastRunExpired;
+    private volatile long lastRunBatches;
+    private volatile long lastRunMillis;
+    private volatile LocalDateTime lastRunAt;
+    private volatile String lastError;
+
+    public PendingExpiryService(BookingsRepository bookingsRepository,
+                                BookingService bookingService,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${booking.expiry.enabled:true}") boolean enabled,
+                                @Value("${booking.expiry.pending-minutes:1440}") long pendingMinutes,
+                                @Value("${booking.expiry.batch-size:200}") int batchSize,
+                                @Value("${booking.expiry.max-batches:50}") int maxBatches) {
+        if (pendingMinutes <= 0 || batchSize <= 0 || maxBatches <= 0) {
+            throw new IllegalArgumentException("booking.expiry pending-minutes, batch-size and max-batches must be positive");
+        }
+        this.bookingsRepository = bookingsRepository;
+        this.bookingService = bookingService;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.pendingFor = Duration.ofMinutes(pendingMinutes);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.expiry.sweep-interval-ms:60000}",
+               initialDelayString = "${booking.expiry.sweep-interval-ms:60000}")
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep();
+        }
+    }
+
+    /**
+     * One sweep: expire batches until one comes back short or max-batches is reached
+     * (the rest waits for the next run). Returns the number of bookings expired.
+     */
+    public long sweep() {
+        long started = System.nanoTime();
+        String reason = "Not handled within " + pendingFor.toMinutes() + " minutes";
+        long expired = 0;
+        int batches = 0;
+        try {
+            while (batches < maxBatches) {
+                LocalDateTime now = LocalDateTime.now();
+                int[] claimed = {0};
+                Set<Integer> moved = transactionTemplate.execute(tx -> {
+                    List<Integer> ids = bookingsRepository.lockExpirablePending(now.minus(pendingFor), now, batchSize);
+                    claimed[0] = ids.size();
+                    return bookingService.expirePending(ids, reason);
+                });
+                batches++;
+                expired += moved != null ? moved.size() : 0;
+                if (claimed[0] < batchSize) break;
+            }
+            lastError = null;
+        } catch (RuntimeException e) {
+            // Batches committed so far stay expired; the next run picks up the rest
+            lastError = e.getMessage();
+            log.error("Pending booking expiry sweep failed after {} batches", batches, e);
+        } finally {
+            long nanos = System.nanoTime() - started;
+            sweepDuration.recordNanos(nanos);
+            runs.incrementAndGet();
+            totalExpired.addAndGet(expired);
+            maxExpiredPerRun.accumulateAndGet(expired, Math::max);
+            lastRunExpired = expired;
+            lastRunBatches = batches;
+            lastRunMillis = nanos / 1_000_000;
+            lastRunAt = LocalDateTime.now();
+        }
+        if (expired > 0) {
+            log.info("Expired {} pending bookings in {} batches ({} ms)", expired, batches, lastRunMillis);
+        }
+        return expired;
+    }
+
+    /**
+     * Rows expired per run and sweep duration for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        long count = runs.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("pendingMinutes", pendingFor.toMinutes());
+        stats.put("batchSize", batchSize);
+        stats.put("runs", count);
+        stats.put("totalExpired", totalExpired.get());
+        stats.put("avgExpiredPerRun", count == 0 ? 0.0 : (double) totalExpired.get() / count);
+        stats.put("maxExpiredPerRun", maxExpiredPerRun.get());
+        stats.put("lastRunExpired", lastRunExpired);
+        stats.put("lastRunBatches", lastRunBatches);
+        stats.put("lastRunMillis", lastRunMillis);
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastError", lastError);
+        stats.put("sweepDuration", sweepDuration.snapshot());
+        return stats;
+    }
+}
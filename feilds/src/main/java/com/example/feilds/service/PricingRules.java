@@ -0,0 +1,140 @@
+package com.example.feilds.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Price overlays on top of the slot prices, as multipliers in basis points (10000 = x1):
+ * a peak window and an off-peak window (week days plus a time of day, by slot start; peak
+ * wins where both match) and a multiplier for holiday dates. Every multiplier defaults to
+ * 1, so without configuration a quote is exactly the slot price.
+ *
+ * Holidays are kept as sorted epoch days and looked up by binary search, so checking a
+ * date allocates nothing.
+ */
+@Component
+public class PricingRules {
+
+    public static final int NEUTRAL = 10_000;
+
+    private record Window(Set<DayOfWeek> days, int fromMinute, int toMinute, int multiplier) {
+
+        boolean covers(DayOfWeek day, int minute) {
+            return multiplier != NEUTRAL && days.contains(day) && minute >= fromMinute && minute < toMinute;
+        }
+    }
+
+    private final Window peak;
+    private final Window offPeak;
+    private final long[] holidays;
+    private final int holidayMultiplier;
+
+    public PricingRules(@Value("${pricing.peak.days:}") String peakDays,
+                        @Value("${pricing.peak.from:18:00}") String peakFrom,
+                        @Value("${pricing.peak.to:23:00}") String peakTo,
+                        @Value("${pricing.peak.multiplier:1}") BigDecimal peakMultiplier,
+                        @Value("${pricing.off-peak.days:}") String offPeakDays,
+                        @Value("${pricing.off-peak.from:06:00}") String offPeakFrom,
+                        @Value("${pricing.off-peak.to:12:00}") String offPeakTo,
+                        @Value("${pricing.off-peak.multiplier:1}") BigDecimal offPeakMultiplier,
+                        @Value("${pricing.holiday.dates:}") String holidayDates,
+                        @Value("${pricing.holiday.multiplier:1}") BigDecimal holidayMultiplier) {
+        this.peak = new Window(parseDays(peakDays), minuteOf(peakFrom), minuteOf(peakTo), basisPoints(peakMultiplier));
+        this.offPeak = new Window(parseDays(offPeakDays), minuteOf(offPeakFrom), minuteOf(offPeakTo),
+                basisPoints(offPeakMultiplier));
+        this.holidays = Arrays.stream(holidayDates.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .mapToLong(s -> LocalDate.parse(s).toEpochDay())
+                .sorted()
+                .distinct()
+                .toArray();
+        this.holidayMultiplier = basisPoints(holidayMultiplier);
+    }
+
+    /**
+     * Multiplier for a slot starting at this minute of the day; null day (a week day row
+     * not named after a day) gets none
+     */
+    public int timeMultiplier(DayOfWeek day, int minuteOfDay) {
+        if (day == null) {
+            return NEUTRAL;
+        }
+        if (peak.covers(day, minuteOfDay)) {
+            return peak.multiplier();
+        }
+        if (offPeak.covers(day, minuteOfDay)) {
+            return offPeak.multiplier();
+        }
+        return NEUTRAL;
+    }
+
+    /**
+     * Multiplier for the date itself
+     */
+    public int dateMultiplier(long epochDay) {
+        return holidayMultiplier != NEUTRAL && Arrays.binarySearch(holidays, epochDay) >= 0 ? holidayMultiplier : NEUTRAL;
+    }
+
+    /**
+     * The configured rules, for the metrics endpoint
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> rules = new LinkedHashMap<>();
+        rules.put("peak", describe(peak));
+        rules.put("offPeak", describe(offPeak));
+        rules.put("holidays", holidays.length);
+        rules.put("holidayMultiplier", holidayMultiplier / (double) NEUTRAL);
+        return rules;
+    }
+
+    private static Map<String, Object> describe(Window window) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("days", window.days());
+        map.put("from", String.format("%02d:%02d", window.fromMinute() / 60, window.fromMinute() % 60));
+        map.put("to", String.format("%02d:%02d", window.toMinute() / 60, window.toMinute() % 60));
+        map.put("multiplier", window.multiplier() / (double) NEUTRAL);
+        return map;
+    }
+
+    // "SATURDAY,SUNDAY" or "Sat, Sun"; empty for none
+    private static Set<DayOfWeek> parseDays(String days) {
+        Set<DayOfWeek> parsed = EnumSet.noneOf(DayOfWeek.class);
+        for (String name : days.split(",")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            DayOfWeek day = WeekDayCache.parseDay(name);
+            if (day == null) {
+                throw new IllegalArgumentException("Unknown day in pricing rules: " + name.trim());
+            }
+            parsed.add(day);
+        }
+        return parsed;
+    }
+
+    // "24:00" is accepted as the end of the day
+    private static int minuteOf(String time) {
+        if ("24:00".equals(time.trim())) {
+            return 24 * 60;
+        }
+        return LocalTime.parse(time.trim()).toSecondOfDay() / 60;
+    }
+
+    private static int basisPoints(BigDecimal multiplier) {
+        if (multiplier.signum() <= 0) {
+            throw new IllegalArgumentException("Pricing multipliers must be greater than 0");
+        }
+        return multiplier.movePointRight(4).intValue();
+    }
+}
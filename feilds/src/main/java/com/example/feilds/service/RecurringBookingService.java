@@ -0,0 +1,180 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.Bookings;
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.repository.BookingsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Season bookings: the same field slot every week between two dates.
+ */
+@Service
+public class RecurringBookingService {
+
+    private static final int MAX_OCCURRENCES = 104;
+
+    private final BookingService bookingService;
+    private final BookingsRepository bookingsRepository;
+    private final BookingBatchWriter batchWriter;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final BookingHoldService holdService;
+    private final BookingRollupService rollupService;
+    private final FieldSlotIntervalIndex slotIntervals;
+    private final SlotPriceIndex prices;
+    private final BlackoutCalendar blackouts;
+    private final WeekDayCache weekDays;
+    private final BookingLockManager lockManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public RecurringBookingService(BookingService bookingService,
+                                   BookingsRepository bookingsRepository,
+                                   BookingBatchWriter batchWriter,
+                                   SlotOccupancyIndex occupancyIndex,
+                                   BookingHoldService holdService,
+                                   BookingRollupService rollupService,
+                                   FieldSlotIntervalIndex slotIntervals,
+                                   SlotPriceIndex prices,
+                                   BlackoutCalendar blackouts,
+                                   WeekDayCache weekDays,
+                                   BookingLockManager lockManager,
+                                   TransactionTemplate transactionTemplate) {
+        this.bookingService = bookingService;
+        this.bookingsRepository = bookingsRepository;
+        this.batchWriter = batchWriter;
+        this.occupancyIndex = occupancyIndex;
+        this.holdService = holdService;
+        this.rollupService = rollupService;
+        this.slotIntervals = slotIntervals;
+        this.prices = prices;
+        this.blackouts = blackouts;
+        this.weekDays = weekDays;
+        this.lockManager = lockManager;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Outcome of a series request: created bookings by date, plus the dates that were taken or closed
+    public record SeriesResult(Map<LocalDate, Integer> created, List<LocalDate> conflicts) {}
+
+    /**
+     * Book a slot weekly (team admin only). Either endDate or occurrences bounds the series.
+     * The series falls on the slot's week day; dayOfWeek may repeat it but not differ. Only
+     * a slot on a week day row that is not a day of the week takes dayOfWeek, defaulting to
+     * the start date's weekday.
+     *
+     * All occurrences are checked with one query, the free ones are inserted with one
+     * multi-row statement, and their 'pending' timeline rows are batch-inserted in the same
+     * transaction. Dates that are already taken, or on which the field is closed by a
+     * blackout, are reported back instead of failing the whole series. The checks run under
+     * the slot stripes and the field's advisory lock for every date, as a single booking's do.
+     */
+    public SeriesResult createSeries(Integer teamId, Integer playerId, Integer fieldSlotId, LocalDate startDate,
+                                     LocalDate endDate, Integer occurrences, DayOfWeek dayOfWeek) {
+        if (teamId == null || playerId == null || fieldSlotId == null || startDate == null) {
+            throw new IllegalArgumentException("Team ID, Player ID, Field Slot ID and start date are required");
+        }
+
+        BookingService.BookingParties parties = bookingService.loadParties(teamId, playerId, fieldSlotId);
+        FieldSlots slot = parties.slot();
+
+        DayOfWeek slotDay = weekDays.dayOf(slot.getWeekDay().getId());
+        if (slotDay != null && dayOfWeek != null && dayOfWeek != slotDay) {
+            throw new IllegalArgumentException("Field slot is only offered on " + slotDay + ", not " + dayOfWeek);
+        }
+        List<LocalDate> dates = occurrenceDates(startDate, endDate, occurrences, slotDay != null ? slotDay : dayOfWeek);
+
+        List<BookingLockManager.SlotDate> slotDates = dates.stream()
+                .map(date -> new BookingLockManager.SlotDate(fieldSlotId, date))
+                .toList();
+        return lockManager.withSlotLocks(slotDates,
+                () -> transactionTemplate.execute(tx -> writeSeries(teamId, playerId, slot, dates)));
+    }
+
+    private SeriesResult writeSeries(Integer teamId, Integer playerId, FieldSlots slot, List<LocalDate> dates) {
+        Integer fieldSlotId = slot.getId();
+        Integer fieldId = slot.getField().getId();
+
+        // Overlapping slots of the field meet on its advisory locks; dates ascend, so every
+        // writer takes them in the same order
+        dates.forEach(date -> bookingsRepository.lockFieldDay(fieldId, date));
+
+        // One set-based query for the whole series, plus the in-memory index for overlaps on the field
+        Set<LocalDate> taken = new HashSet<>(bookingsRepository.findDatesInStatus(fieldSlotId, dates, Bookings.Status.LIVE));
+        List<Integer> overlapping = slotIntervals.overlappingSlotIds(slot);
+        if (!overlapping.isEmpty()) {
+            taken.addAll(bookingsRepository.findDatesOnSlotsInStatus(overlapping, dates, Bookings.Status.LIVE));
+        }
+        List<BookingBatchWriter.NewBooking> rows = new ArrayList<>();
+        for (LocalDate date : dates) {
+            if (taken.contains(date) || blackouts.isClosed(fieldId, date)
+                    || holdService.isHeld(fieldSlotId, date, null)) {
+                taken.add(date);
+                continue;
+            }
+            rows.add(new BookingBatchWriter.NewBooking(playerId, teamId, fieldSlotId, fieldId, date,
+                    Bookings.Status.pending.name(), prices.price(slot, date)));
+        }
+
+        Map<LocalDate, Integer> created = new LinkedHashMap<>();
+        if (!rows.isEmpty()) {
+            // ON CONFLICT DO NOTHING skips rows taken concurrently; only what this insert wrote comes back
+            for (BookingBatchWriter.InsertedBooking inserted : batchWriter.insertBookingsReturning(rows)) {
+                created.put(inserted.date(), inserted.id());
+            }
+            batchWriter.insertStatusChanges(created.values(), Bookings.Status.pending.name(), null, LocalDateTime.now());
+            rollupService.recordCreated(created.values());
+        }
+
+        List<LocalDate> conflicts = dates.stream().filter(date -> !created.containsKey(date)).toList();
+
+        BookingService.afterCommit(() -> created.keySet().forEach(
+                date -> occupancyIndex.occupy(fieldId, date, slot.getFromTime(), slot.getToTime())));
+
+        return new SeriesResult(created, conflicts);
+    }
+
+    /**
+     * Weekly dates from the first dayOfWeek on or after startDate
+     */
+    static List<LocalDate> occurrenceDates(LocalDate startDate, LocalDate endDate, Integer occurrences, DayOfWeek dayOfWeek) {
+        if (endDate == null && occurrences == null) {
+            throw new IllegalArgumentException("Either endDate or occurrences is required");
+        }
+        if (occurrences != null && (occurrences <= 0 || occurrences > MAX_OCCURRENCES)) {
+            throw new IllegalArgumentException("occurrences must be between 1 and " + MAX_OCCURRENCES + ".");
+        }
+        if (startDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Start date cannot be in the past");
+        }
+        if (endDate != null && endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date cannot be before start date");
+        }
+
+        LocalDate first = dayOfWeek != null ? startDate.with(TemporalAdjusters.nextOrSame(dayOfWeek)) : startDate;
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = first;
+             (endDate == null || !date.isAfter(endDate)) && (occurrences == null || dates.size() < occurrences);
+             date = date.plusWeeks(1)) {
+            if (dates.size() == MAX_OCCURRENCES) {
+                throw new IllegalArgumentException("A series can have at most " + MAX_OCCURRENCES + " occurrences");
+            }
+            dates.add(date);
+        }
+
+        if (dates.isEmpty()) {
+            throw new IllegalArgumentException("The series has no occurrences in the given range");
+        }
+        return dates;
+    }
+}
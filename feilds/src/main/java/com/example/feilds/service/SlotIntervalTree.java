@@ -0,0 +1,104 @@
+package com.example.feilds.service;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable interval tree over the slot templates of one field. Each slot becomes the
+ * half-open range [weekDay * 1440 + fromMinute, weekDay * 1440 + toMinute) on a single
+ * week-long axis, so two slots overlap exactly when they share a week day and their
+ * times intersect.
+ *
+ * The tree is implicit: intervals sorted by start, the middle of every sub-range is its
+ * root, and maxEnd[mid] holds the largest end in that sub-range. An overlap query skips
+ * any sub-range whose maxEnd is at or before the query start and any right half that
+ * starts at or after the query end, so it costs O(log n + matches).
+ */
+public class SlotIntervalTree {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    public static final SlotIntervalTree EMPTY = new SlotIntervalTree(List.of());
+
+    // One slot template; toMinute is 1440 for a slot running until midnight
+    public record Interval(int slotId, int weekDayId, int fromMinute, int toMinute) {
+
+        public static Interval of(int slotId, int weekDayId, LocalTime from, LocalTime to) {
+            int toMinute = minuteOf(to);
+            return new Interval(slotId, weekDayId, minuteOf(from), toMinute == 0 ? MINUTES_PER_DAY : toMinute);
+        }
+
+        long start() {
+            return (long) weekDayId * MINUTES_PER_DAY + fromMinute;
+        }
+
+        long end() {
+            return (long) weekDayId * MINUTES_PER_DAY + toMinute;
+        }
+    }
+
+    private final Interval[] intervals;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnd;
+
+    public SlotIntervalTree(List<Interval> slots) {
+        this.intervals = slots.toArray(Interval[]::new);
+        Arrays.sort(intervals, Comparator.comparingLong(Interval::start).thenComparingInt(Interval::slotId));
+        int n = intervals.length;
+        this.starts = new long[n];
+        this.ends = new long[n];
+        this.maxEnd = new long[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = intervals[i].start();
+            ends[i] = intervals[i].end();
+        }
+        buildMaxEnd(0, n);
+    }
+
+    public int size() {
+        return intervals.length;
+    }
+
+    /**
+     * Slots on the week day whose time range intersects [from, to), except exceptSlotId
+     * (pass null to keep all)
+     */
+    public List<Interval> overlapping(int weekDayId, LocalTime from, LocalTime to, Integer exceptSlotId) {
+        Interval probe = Interval.of(-1, weekDayId, from, to);
+        List<Interval> found = new ArrayList<>();
+        collect(0, intervals.length, probe.start(), probe.end(), exceptSlotId != null ? exceptSlotId : Integer.MIN_VALUE, found);
+        return found;
+    }
+
+    private long buildMaxEnd(int lo, int hi) {
+        if (lo >= hi) return Long.MIN_VALUE;
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(ends[mid], Math.max(buildMaxEnd(lo, mid), buildMaxEnd(mid + 1, hi)));
+        maxEnd[mid] = max;
+        return max;
+    }
+
+    private void collect(int lo, int hi, long from, long to, int except, List<Interval> found) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        // Nothing in this sub-range ends after the query starts
+        if (maxEnd[mid] <= from) return;
+
+        collect(lo, mid, from, to, except, found);
+        // Everything from mid on starts at or after the query end
+        if (starts[mid] >= to) return;
+
+        if (ends[mid] > from && intervals[mid].slotId() != except) {
+            found.add(intervals[mid]);
+        }
+        collect(mid + 1, hi, from, to, except, found);
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
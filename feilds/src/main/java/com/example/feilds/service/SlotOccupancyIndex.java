@@ -0,0 +1,291 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.Bookings;
+import com.example.feilds.repository.BookingsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resident occupancy index: the booked time ranges of every field and calendar date, to
+ * the minute. Kept in sync by BookingService and rebuilt from the bookings table on
+ * startup, so free windows never need a DB round trip. Other nodes' bookings only reach
+ * the index through a full rebuild on a fixed delay (occupancy.rebuild-interval-ms), which
+ * also drops past days; a field is rebuilt on its own when one of its slots changes times. Each booking is its own entry, so
+ * releasing one never frees time another booking still holds, even when two slots touch
+ * inside a quarter-hour. Short-lived holds (BookingHoldService) live in a separate layer,
+ * kept the same way, so that expiring a hold never frees the time of a real booking or of
+ * another hold.
+ *
+ * The index trails the database (it is updated after commit, and only on this node), so
+ * it is for display only: booking writes decide conflicts from the bookings table.
+ *
+ * Every change is also passed to the registered listeners (the availability feed).
+ * Bookings reach the index only after they commit, so listeners never see a change
+ * that is rolled back.
+ */
+@Component
+public class SlotOccupancyIndex {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final Logger log = LoggerFactory.getLogger(SlotOccupancyIndex.class);
+
+    // A free stretch of the day, [from, to); a window running to midnight ends at LocalTime.MAX
+    public record TimeWindow(LocalTime from, LocalTime to) {}
+
+    // What happened to a time range
+    public enum Change { booked, released, held, unheld }
+
+    // Called on the writing thread right after the index was updated; must not block
+    public interface Listener {
+        void changed(Integer fieldId, LocalDate date, LocalTime from, LocalTime to, Change change);
+    }
+
+    // Ranges of one field and date as from << 16 | to (minutes of the day, a range running
+    // to midnight ends at 1440), sorted. Several entries may be equal, one per booking or hold.
+    // Immutable so readers never see a half-applied update; writers swap via compute()
+    private record DayRanges(int[] ranges) {
+        static DayRanges of(int range) {
+            return new DayRanges(new int[] { range });
+        }
+
+        DayRanges with(int range) {
+            int at = Arrays.binarySearch(ranges, range);
+            int index = at >= 0 ? at : -at - 1;
+            int[] next = new int[ranges.length + 1];
+            System.arraycopy(ranges, 0, next, 0, index);
+            next[index] = range;
+            System.arraycopy(ranges, index, next, index + 1, ranges.length - index);
+            return new DayRanges(next);
+        }
+
+        // One entry less; null once the last one is gone
+        DayRanges without(int range) {
+            int at = Arrays.binarySearch(ranges, range);
+            if (at < 0) return this;
+            if (ranges.length == 1) return null;
+            int[] next = new int[ranges.length - 1];
+            System.arraycopy(ranges, 0, next, 0, at);
+            System.arraycopy(ranges, at + 1, next, at, ranges.length - at - 1);
+            return new DayRanges(next);
+        }
+    }
+
+    private final BookingsRepository bookingsRepository;
+    private final ConcurrentHashMap<Long, DayRanges> days = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, DayRanges> held = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile long lastRebuildMillis = -1;
+    private volatile long lastRebuildRows = 0;
+    private volatile LocalDateTime lastRebuildAt;
+
+    public SlotOccupancyIndex(BookingsRepository bookingsRepository) {
+        this.bookingsRepository = bookingsRepository;
+    }
+
+    /**
+     * Reload all live bookings from today onwards (past days are never queried)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        LocalDate today = LocalDate.now();
+
+        Map<Long, DayRanges> fresh = new ConcurrentHashMap<>();
+        List<Object[]> rows = bookingsRepository.findOccupancyFrom(today, Bookings.Status.LIVE);
+        for (Object[] row : rows) {
+            Integer fieldId = (Integer) row[0];
+            LocalDate date = (LocalDate) row[1];
+            int range = range((LocalTime) row[2], (LocalTime) row[3]);
+            fresh.compute(key(fieldId, date), (k, current) -> current == null ? DayRanges.of(range) : current.with(range));
+        }
+
+        // Swap in place rather than clear(), so readers never see an empty index
+        days.keySet().retainAll(fresh.keySet());
+        days.putAll(fresh);
+        // Holds leave with their timeout; this only catches a past day left behind
+        held.keySet().removeIf(key -> epochDay(key) < today.toEpochDay());
+
+        lastRebuildRows = rows.size();
+        lastRebuildMillis = (System.nanoTime() - started) / 1_000_000;
+        lastRebuildAt = LocalDateTime.now();
+    }
+
+    @Scheduled(fixedDelayString = "${occupancy.rebuild-interval-ms:60000}",
+               initialDelayString = "${occupancy.rebuild-interval-ms:60000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Reload one field's live bookings from today onwards; its entries hold the old times
+     * of a slot whose from/to changed, which a later release would no longer match
+     */
+    public void rebuildField(Integer fieldId) {
+        Map<Long, DayRanges> fresh = new HashMap<>();
+        for (Object[] row : bookingsRepository.findFieldOccupancyFrom(fieldId, LocalDate.now(), Bookings.Status.LIVE)) {
+            int range = range((LocalTime) row[1], (LocalTime) row[2]);
+            fresh.compute(key(fieldId, (LocalDate) row[0]),
+                    (k, current) -> current == null ? DayRanges.of(range) : current.with(range));
+        }
+        days.keySet().removeIf(key -> fieldOf(key) == fieldId && !fresh.containsKey(key));
+        days.putAll(fresh);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Mark a time range as taken
+     */
+    public void occupy(Integer fieldId, LocalDate date, LocalTime from, LocalTime to) {
+        int range = range(from, to);
+        days.compute(key(fieldId, date), (k, current) -> current == null ? DayRanges.of(range) : current.with(range));
+        notifyListeners(fieldId, date, from, to, Change.booked);
+    }
+
+    /**
+     * Free a time range again (cancelled/rejected booking); other bookings overlapping it keep
+     * their time
+     */
+    public void release(Integer fieldId, LocalDate date, LocalTime from, LocalTime to) {
+        int range = range(from, to);
+        days.computeIfPresent(key(fieldId, date), (k, current) -> current.without(range));
+        notifyListeners(fieldId, date, from, to, Change.released);
+    }
+
+    /**
+     * Mark a time range as held (not booked yet, but not offered either)
+     */
+    public void hold(Integer fieldId, LocalDate date, LocalTime from, LocalTime to) {
+        int range = range(from, to);
+        held.compute(key(fieldId, date), (k, current) -> current == null ? DayRanges.of(range) : current.with(range));
+        notifyListeners(fieldId, date, from, to, Change.held);
+    }
+
+    /**
+     * Drop a hold (expired, released or converted into a booking); other holds overlapping
+     * it keep their time
+     */
+    public void unhold(Integer fieldId, LocalDate date, LocalTime from, LocalTime to) {
+        int range = range(from, to);
+        held.computeIfPresent(key(fieldId, date), (k, current) -> current.without(range));
+        notifyListeners(fieldId, date, from, to, Change.unheld);
+    }
+
+    // A failing listener must never fail the booking write that triggered it
+    private void notifyListeners(Integer fieldId, LocalDate date, LocalTime from, LocalTime to, Change change) {
+        for (Listener listener : listeners) {
+            try {
+                listener.changed(fieldId, date, from, to, change);
+            } catch (RuntimeException e) {
+                log.warn("Occupancy listener failed for field {} on {}", fieldId, date, e);
+            }
+        }
+    }
+
+    /**
+     * List the stretches of a day that are neither booked nor held, merged into maximal windows
+     */
+    public List<TimeWindow> freeWindows(Integer fieldId, LocalDate date) {
+        DayRanges day = lookup(fieldId, date);
+        int[] taken = day != null ? day.ranges() : new int[0];
+        DayRanges holds = held.get(key(fieldId, date));
+        if (holds != null) {
+            taken = merge(taken, holds.ranges());
+        }
+
+        List<TimeWindow> windows = new ArrayList<>();
+        int free = 0;
+        for (int range : taken) {
+            int from = range >>> 16;
+            if (from > free) {
+                windows.add(new TimeWindow(toTime(free), toTime(from)));
+            }
+            free = Math.max(free, range & 0xFFFF);
+        }
+        if (free < MINUTES_PER_DAY) {
+            windows.add(new TimeWindow(toTime(free), toTime(MINUTES_PER_DAY)));
+        }
+        return windows;
+    }
+
+    /**
+     * Hit/miss and rebuild statistics for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        long h = hits.get();
+        long m = misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedDays", days.size());
+        stats.put("heldDays", held.size());
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hitRatio", h + m == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("lastRebuildMillis", lastRebuildMillis);
+        stats.put("lastRebuildRows", lastRebuildRows);
+        stats.put("lastRebuildAt", lastRebuildAt);
+        return stats;
+    }
+
+    // A hit means the day has at least one booking; a miss means the day is entirely free
+    private DayRanges lookup(Integer fieldId, LocalDate date) {
+        DayRanges day = days.get(key(fieldId, date));
+        if (day == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return day;
+    }
+
+    private static long key(Integer fieldId, LocalDate date) {
+        return ((long) fieldId << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    private static int fieldOf(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static long epochDay(long key) {
+        return (int) key;
+    }
+
+    // [from, to) in minutes, packed as in DayRanges
+    private static int range(LocalTime from, LocalTime to) {
+        int toMinutes = to.getHour() * 60 + to.getMinute();
+        return (from.getHour() * 60 + from.getMinute()) << 16 | (toMinutes == 0 ? MINUTES_PER_DAY : toMinutes);
+    }
+
+    private static int[] merge(int[] a, int[] b) {
+        int[] merged = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, merged, a.length, b.length);
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    private static LocalTime toTime(int minute) {
+        return minute >= MINUTES_PER_DAY ? LocalTime.MAX : LocalTime.ofSecondOfDay(minute * 60L);
+    }
+}
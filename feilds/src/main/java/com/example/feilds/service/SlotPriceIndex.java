@@ -0,0 +1,130 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.repository.FieldSlotRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One SlotPriceMatrix per field, built on first use from the field's slot templates and
+ * the pricing rules, and dropped by FieldSlotService whenever a slot of the field changes.
+ * Booking creation and quotes price from here instead of the slot's BigDecimal.
+ */
+@Component
+public class SlotPriceIndex {
+
+    private final FieldSlotRepository fieldSlotRepository;
+    private final WeekDayCache weekDays;
+    private final PricingRules rules;
+    private final ConcurrentHashMap<Integer, SlotPriceMatrix> matrices = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong buildNanos = new AtomicLong();
+
+    public SlotPriceIndex(FieldSlotRepository fieldSlotRepository, WeekDayCache weekDays, PricingRules rules) {
+        this.fieldSlotRepository = fieldSlotRepository;
+        this.weekDays = weekDays;
+        this.rules = rules;
+    }
+
+    /**
+     * Price in cents of the field's slot on a date, or SlotPriceMatrix.NONE
+     */
+    public long quoteCents(Integer fieldId, Integer slotId, LocalDate date) {
+        return matrix(fieldId).quote(slotId, date);
+    }
+
+    /**
+     * Total in cents of the slot on the date and weekly after it, or SlotPriceMatrix.NONE
+     */
+    public long quoteSeriesCents(Integer fieldId, Integer slotId, LocalDate firstDate, int weeks) {
+        return matrix(fieldId).quoteSeries(slotId, firstDate, weeks);
+    }
+
+    /**
+     * Price to charge for a booking of the slot on the date
+     */
+    public BigDecimal price(FieldSlots slot, LocalDate date) {
+        return price(slot.getField().getId(), slot.getId(), date);
+    }
+
+    /**
+     * Price to charge for a booking of the field's slot on the date. A slot missing from the
+     * table (created a moment ago on another node) rebuilds it once; a slot that is still
+     * not quoted, or a date on another day of the week than the slot, is refused.
+     */
+    public BigDecimal price(Integer fieldId, Integer slotId, LocalDate date) {
+        long cents = quoteCents(fieldId, slotId, date);
+        if (cents == SlotPriceMatrix.NONE) {
+            invalidate(fieldId);
+            cents = quoteCents(fieldId, slotId, date);
+        }
+        if (cents == SlotPriceMatrix.NONE) {
+            throw new IllegalArgumentException("Field slot is not offered on " + date.getDayOfWeek() + " (" + date + ")");
+        }
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Forget a field's table; the next quote rebuilds it. Call after the slot change has committed.
+     */
+    public void invalidate(Integer fieldId) {
+        if (matrices.remove(fieldId) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Cache counters and the active rules for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        long count = builds.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedFields", matrices.size());
+        stats.put("hits", hits.get());
+        stats.put("builds", count);
+        stats.put("invalidations", invalidations.get());
+        stats.put("avgBuildMicros", count == 0 ? 0.0 : buildNanos.get() / 1000.0 / count);
+        stats.put("rules", rules.describe());
+        return stats;
+    }
+
+    private SlotPriceMatrix matrix(Integer fieldId) {
+        SlotPriceMatrix matrix = matrices.get(fieldId);
+        if (matrix != null) {
+            hits.incrementAndGet();
+            return matrix;
+        }
+        return matrices.computeIfAbsent(fieldId, this::build);
+    }
+
+    private SlotPriceMatrix build(Integer fieldId) {
+        long started = System.nanoTime();
+        List<SlotPriceMatrix.Slot> slots = new ArrayList<>();
+        for (Object[] row : fieldSlotRepository.findTemplatesByFieldId(fieldId)) {
+            LocalTime from = (LocalTime) row[2];
+            slots.add(new SlotPriceMatrix.Slot((Integer) row[0], weekDays.dayOf((Integer) row[1]),
+                    from.getHour() * 60 + from.getMinute(), toCents((BigDecimal) row[4])));
+        }
+        SlotPriceMatrix matrix = slots.isEmpty() ? SlotPriceMatrix.EMPTY : new SlotPriceMatrix(slots, rules);
+        builds.incrementAndGet();
+        buildNanos.addAndGet(System.nanoTime() - started);
+        return matrix;
+    }
+
+    static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.feilds.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable price table for the slot templates of one field, in minor units (cents).
+ *
+ * Cells are day of week x 15-minute bucket of the day (7 x 96); each holds the price of
+ * the slot starting in that bucket and the peak/off-peak multiplier for it, with the
+ * multiplier already applied. Slots are also kept as a sorted id array pointing at their
+ * price and cell, so a quote by slot id is a binary search plus arithmetic, and quoting a
+ * recurring series adds the date multiplier week by week. Nothing allocates after build.
+ *
+ * Slots on week day rows not named after a day have no cell; they quote at their plain
+ * price on any date. When two slots start in the same bucket the earlier one owns the cell.
+ */
+public class SlotPriceMatrix {
+
+    public static final int BUCKET_MINUTES = 15;
+    public static final int BUCKETS_PER_DAY = 24 * 60 / BUCKET_MINUTES;
+
+    public static final long NONE = -1;
+
+    public static final SlotPriceMatrix EMPTY = new SlotPriceMatrix(List.of(), null);
+
+    // One slot template; day is null for a week day row that is not a day of the week
+    public record Slot(int slotId, DayOfWeek day, int fromMinute, long cents) {}
+
+    // Price per cell with the time multiplier applied, NONE where no slot starts
+    private final long[] cellCents;
+    private final int[] slotIds;
+    private final long[] slotCents;
+    // Cell of each slot, or -1 for a slot without a day
+    private final int[] slotCells;
+    private final PricingRules rules;
+
+    public SlotPriceMatrix(List<Slot> slots, PricingRules rules) {
+        this.rules = rules;
+        Slot[] sorted = slots.toArray(Slot[]::new);
+        Arrays.sort(sorted, Comparator.comparingInt(Slot::slotId));
+        int n = sorted.length;
+        this.cellCents = new long[7 * BUCKETS_PER_DAY];
+        Arrays.fill(cellCents, NONE);
+        this.slotIds = new int[n];
+        this.slotCents = new long[n];
+        this.slotCells = new int[n];
+        int[] cellStart = new int[cellCents.length];
+        for (int i = 0; i < n; i++) {
+            Slot slot = sorted[i];
+            slotIds[i] = slot.slotId();
+            if (slot.day() == null) {
+                slotCents[i] = slot.cents();
+                slotCells[i] = -1;
+                continue;
+            }
+            int multiplier = rules != null ? rules.timeMultiplier(slot.day(), slot.fromMinute()) : PricingRules.NEUTRAL;
+            slotCents[i] = apply(slot.cents(), multiplier);
+            int cell = cellOf(slot.day(), slot.fromMinute());
+            slotCells[i] = cell;
+            if (cellCents[cell] == NONE || slot.fromMinute() < cellStart[cell]) {
+                cellCents[cell] = slotCents[i];
+                cellStart[cell] = slot.fromMinute();
+            }
+        }
+    }
+
+    public int size() {
+        return slotIds.length;
+    }
+
+    /**
+     * Price of the slot on a date, or NONE when the slot is not in this table or the date
+     * falls on another day of the week than the slot
+     */
+    public long quote(int slotId, LocalDate date) {
+        return quoteSeries(slotId, date, 1);
+    }
+
+    /**
+     * Total price of the slot on the date and the following weeks - 1 weeks, or NONE as
+     * for quote()
+     */
+    public long quoteSeries(int slotId, LocalDate firstDate, int weeks) {
+        int i = Arrays.binarySearch(slotIds, slotId);
+        if (i < 0) {
+            return NONE;
+        }
+        int cell = slotCells[i];
+        if (cell >= 0 && cell / BUCKETS_PER_DAY != firstDate.getDayOfWeek().ordinal()) {
+            return NONE;
+        }
+        long cents = slotCents[i];
+        long epochDay = firstDate.toEpochDay();
+        long total = 0;
+        for (int week = 0; week < weeks; week++) {
+            total += rules != null ? apply(cents, rules.dateMultiplier(epochDay + 7L * week)) : cents;
+        }
+        return total;
+    }
+
+    /**
+     * Price of whatever slot starts in the bucket of this minute on the day, or NONE
+     */
+    public long priceAt(DayOfWeek day, int minuteOfDay) {
+        return cellCents[cellOf(day, minuteOfDay)];
+    }
+
+    private static int cellOf(DayOfWeek day, int minuteOfDay) {
+        return day.ordinal() * BUCKETS_PER_DAY + minuteOfDay / BUCKET_MINUTES;
+    }
+
+    // Round half up to whole cents
+    private static long apply(long cents, int multiplier) {
+        return multiplier == PricingRules.NEUTRAL ? cents : (cents * multiplier + PricingRules.NEUTRAL / 2) / PricingRules.NEUTRAL;
+    }
+}
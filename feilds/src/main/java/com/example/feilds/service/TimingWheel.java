@@ -0,0 +1,209 @@
+package com.example.feilds.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Hierarchical timing wheel for many short-lived timeouts. Level 0 has wheelSize
+ * buckets of tickMs each; a timeout too far out for a level goes to a coarser overflow
+ * level (created on demand) and is cascaded down as the wheel turns. Scheduling and
+ * cancelling are O(1) and a single thread calling advance() drives all expiries, so
+ * 100k pending timeouts cost 100k small objects, not 100k scheduled tasks.
+ *
+ * A timeout never fires before its deadline and fires at most one tick (plus the
+ * caller's advance() delay) after it; the observed lag is kept in stats().
+ */
+public class TimingWheel {
+
+    // A scheduled task; cancel() leaves it in its bucket and it is dropped when reached
+    public static final class Timeout {
+        private final long deadline;
+        private final Runnable task;
+        private volatile boolean cancelled;
+
+        private Timeout(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        public long deadline() {
+            return deadline;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static final class Level {
+        final long tickMs;
+        final int size;
+        final long interval;
+        final ArrayDeque<Timeout>[] buckets;
+        long currentTime;
+        Level overflow;
+
+        @SuppressWarnings("unchecked")
+        Level(long tickMs, int size, long startMs) {
+            this.tickMs = tickMs;
+            this.size = size;
+            this.interval = tickMs * size;
+            this.buckets = new ArrayDeque[size];
+            for (int i = 0; i < size; i++) {
+                buckets[i] = new ArrayDeque<>();
+            }
+            this.currentTime = startMs - (startMs % tickMs);
+        }
+
+        ArrayDeque<Timeout> bucketFor(long time) {
+            return buckets[(int) ((time / tickMs) % size)];
+        }
+    }
+
+    private final LongSupplier clock;
+    private final Level root;
+
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong fired = new AtomicLong();
+    private final AtomicLong cancelledDropped = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagTotalMs = new AtomicLong();
+    private final AtomicLong lagMaxMs = new AtomicLong();
+    private volatile int levels = 1;
+
+    public TimingWheel(long tickMs, int wheelSize, LongSupplier clock) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize at least 2");
+        }
+        this.clock = clock;
+        this.root = new Level(tickMs, wheelSize, clock.getAsLong());
+    }
+
+    /**
+     * Run a task once delayMs has passed (on the thread calling advance())
+     */
+    public Timeout schedule(long delayMs, Runnable task) {
+        Timeout timeout = new Timeout(clock.getAsLong() + Math.max(delayMs, 0), task);
+        scheduled.incrementAndGet();
+        pending.incrementAndGet();
+        boolean placed;
+        synchronized (this) {
+            placed = place(timeout);
+        }
+        if (!placed) {
+            expire(List.of(timeout), clock.getAsLong());
+        }
+        return timeout;
+    }
+
+    /**
+     * Turn the wheel up to the clock's current time and run every timeout that came due
+     */
+    public void advance() {
+        long now = clock.getAsLong();
+        List<Timeout> due = new ArrayList<>();
+        synchronized (this) {
+            while (root.currentTime + root.tickMs <= now) {
+                step(root.currentTime + root.tickMs, due);
+            }
+        }
+        expire(due, now);
+    }
+
+    public long pendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Counters and expiry lag for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        long count = fired.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tickMs", root.tickMs);
+        stats.put("wheelSize", root.size);
+        stats.put("levels", levels);
+        stats.put("pending", pending.get());
+        stats.put("scheduled", scheduled.get());
+        stats.put("fired", count);
+        stats.put("cancelledDropped", cancelledDropped.get());
+        stats.put("avgLagMs", count == 0 ? 0.0 : (double) lagTotalMs.get() / count);
+        stats.put("maxLagMs", lagMaxMs.get());
+        return stats;
+    }
+
+    // Put a timeout into the finest level whose range covers it; false when already due
+    private boolean place(Timeout timeout) {
+        if (timeout.deadline < root.currentTime) {
+            return false;
+        }
+        Level level = root;
+        while (timeout.deadline >= level.currentTime + level.interval) {
+            if (level.overflow == null) {
+                level.overflow = new Level(level.interval, level.size, level.currentTime);
+                levels++;
+            }
+            level = level.overflow;
+        }
+        level.bucketFor(timeout.deadline).add(timeout);
+        return true;
+    }
+
+    // Move level 0 to time: cascade coarser buckets that start now, then collect the level-0 bucket that just ended
+    private void step(long time, List<Timeout> due) {
+        root.currentTime = time;
+
+        List<Timeout> cascade = new ArrayList<>();
+        for (Level level = root.overflow; level != null && time % level.tickMs == 0; level = level.overflow) {
+            level.currentTime = time;
+            ArrayDeque<Timeout> bucket = level.bucketFor(time);
+            cascade.addAll(bucket);
+            bucket.clear();
+        }
+
+        ArrayDeque<Timeout> ended = root.bucketFor(time - root.tickMs);
+        due.addAll(ended);
+        ended.clear();
+
+        for (Timeout timeout : cascade) {
+            if (timeout.cancelled) {
+                drop();
+            } else if (!place(timeout)) {
+                due.add(timeout);
+            }
+        }
+    }
+
+    private void expire(List<Timeout> due, long now) {
+        for (Timeout timeout : due) {
+            if (timeout.cancelled) {
+                drop();
+                continue;
+            }
+            pending.decrementAndGet();
+            fired.incrementAndGet();
+            long lag = Math.max(now - timeout.deadline, 0);
+            lagTotalMs.addAndGet(lag);
+            lagMaxMs.accumulateAndGet(lag, Math::max);
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                // One failing task must not stop the rest of the tick
+            }
+        }
+    }
+
+    private void drop() {
+        pending.decrementAndGet();
+        cancelledDropped.incrementAndGet();
+    }
+}
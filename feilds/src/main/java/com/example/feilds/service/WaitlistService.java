@@ -0,0 +1,272 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.Bookings;
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.model.WaitlistEntries;
+import com.example.feilds.repository.BookingsRepository;
+import com.example.feilds.repository.FieldSlotRepository;
+import com.example.feilds.repository.TeamPlayersRepository;
+import com.example.feilds.repository.TeamRepository;
+import com.example.feilds.repository.UserRepository;
+import com.example.feilds.repository.WaitlistRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per (field slot, date) waitlist. The waitlist_entries table is the source of truth;
+ * an in-memory FIFO of entry ids per slot and date (loaded on first use) tells the
+ * promoter whom to try first, and each pick is confirmed with a compare-and-set
+ * on the row, so a stale queue or a second node can never promote an entry twice.
+ *
+ * Promotion runs inside the transaction that frees the slot (see
+ * BookingService.releaseSlots), so the cancellation and the promoted booking
+ * commit or roll back together.
+ */
+@Service
+public class WaitlistService {
+
+    // A promoted entry and the booking made for it
+    public record Promotion(Integer entryId, Integer bookingId, Integer teamId) {}
+
+    private final WaitlistRepository waitlistRepository;
+    private final BookingsRepository bookingsRepository;
+    private final FieldSlotRepository fieldSlotRepository;
+    private final TeamPlayersRepository teamPlayersRepository;
+    private final TeamRepository teamRepository;
+    private final UserRepository userRepository;
+    private final BookingBatchWriter batchWriter;
+    private final BookingRollupService rollupService;
+    private final BlackoutCalendar blackouts;
+    private final WeekDayCache weekDays;
+
+    // Waiting entry ids per "slotId:date", oldest first
+    private final ConcurrentHashMap<String, LinkedHashSet<Integer>> queues = new ConcurrentHashMap<>();
+
+    private final AtomicLong joined = new AtomicLong();
+    private final AtomicLong promotions = new AtomicLong();
+    private final AtomicLong staleSkips = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public WaitlistService(WaitlistRepository waitlistRepository,
+                           BookingsRepository bookingsRepository,
+                           FieldSlotRepository fieldSlotRepository,
+                           TeamPlayersRepository teamPlayersRepository,
+                           TeamRepository teamRepository,
+                           UserRepository userRepository,
+                           BookingBatchWriter batchWriter,
+                           BookingRollupService rollupService,
+                           BlackoutCalendar blackouts,
+                           WeekDayCache weekDays) {
+        this.waitlistRepository = waitlistRepository;
+        this.bookingsRepository = bookingsRepository;
+        this.fieldSlotRepository = fieldSlotRepository;
+        this.teamPlayersRepository = teamPlayersRepository;
+        this.teamRepository = teamRepository;
+        this.userRepository = userRepository;
+        this.batchWriter = batchWriter;
+        this.rollupService = rollupService;
+        this.blackouts = blackouts;
+        this.weekDays = weekDays;
+    }
+
+    /**
+     * Put a team on the waitlist of a slot another team has taken (team admin only)
+     */
+    public WaitlistEntries join(Integer teamId, Integer playerId, Integer fieldSlotId, LocalDate date) {
+        if (teamId == null || fieldSlotId == null || playerId == null || date == null) {
+            throw new IllegalArgumentException("Team ID, Field Slot ID, Player ID, and date are required");
+        }
+        if (date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Booking date cannot be in the past");
+        }
+        if (!teamPlayersRepository.isPlayerAdminOfTeam(playerId, teamId)) {
+            throw new IllegalArgumentException("Only the team admin can join the waitlist");
+        }
+
+        FieldSlots slot = fieldSlotRepository.findById(fieldSlotId).orElse(null);
+        if (slot == null) {
+            throw new IllegalArgumentException("Field slot not found");
+        }
+        if (!weekDays.isOn(slot.getWeekDay().getId(), date)) {
+            throw new IllegalArgumentException("Field slot is not offered on " + date.getDayOfWeek() + " (" + date + ")");
+        }
+        if (blackouts.isClosed(slot.getField().getId(), date)) {
+            throw new IllegalArgumentException("Field is closed on " + date);
+        }
+        List<Integer> holders = bookingsRepository.findTeamIdsInStatus(fieldSlotId, date, Bookings.Status.LIVE);
+        if (holders.isEmpty()) {
+            throw new IllegalArgumentException("Field slot is free on " + date + ", book it directly");
+        }
+        if (holders.contains(teamId)) {
+            throw new IllegalArgumentException("Team already has this slot booked on " + date);
+        }
+
+        WaitlistEntries entry;
+        try {
+            entry = waitlistRepository.saveAndFlush(WaitlistEntries.builder()
+                    .fieldSlot(slot)
+                    .date(date)
+                    .team(teamRepository.getReferenceById(teamId))
+                    .player(userRepository.getReferenceById(playerId))
+                    .status(WaitlistEntries.Status.waiting)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Team is already on the waitlist for this slot and date");
+        }
+
+        LinkedHashSet<Integer> queue = queue(fieldSlotId, date);
+        synchronized (queue) {
+            queue.add(entry.getId());
+        }
+        joined.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Leave the waitlist (only the player who joined)
+     */
+    public void leave(Integer entryId, Integer playerId) {
+        WaitlistEntries entry = waitlistRepository.findById(entryId)
+                .orElseThrow(() -> new BookingService.NotFoundException("Waitlist entry not found"));
+        if (waitlistRepository.leave(entryId, playerId) == 0) {
+            throw new IllegalArgumentException("Only a waiting entry can be left, by the player who joined");
+        }
+        forget(entry.getFieldSlot().getId(), entry.getDate(), entryId);
+    }
+
+    /**
+     * Waiting teams of a slot and date in promotion order
+     */
+    public List<Map<String, Object>> getQueue(Integer fieldSlotId, LocalDate date) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        int position = 1;
+        for (Object[] row : waitlistRepository.findQueue(fieldSlotId, date)) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("entryId", row[0]);
+            item.put("position", position++);
+            item.put("teamId", row[1]);
+            item.put("teamName", row[2]);
+            item.put("joinedAt", row[3]);
+            result.add(item);
+        }
+        return result;
+    }
+
+    /**
+     * Book the freed slot for the longest-waiting team. Must run inside the transaction
+     * that freed it; returns null when nobody is waiting, the slot was retaken or the
+     * field is closed on the date.
+     */
+    Promotion promoteNext(Integer fieldSlotId, Integer fieldId, LocalDate date, BigDecimal price) {
+        if (date.isBefore(LocalDate.now()) || blackouts.isClosed(fieldId, date)) {
+            return null;
+        }
+
+        // A queue loaded just now is as fresh as the table, so the fallback can be skipped
+        boolean[] loaded = {false};
+        LinkedHashSet<Integer> queue = queues.computeIfAbsent(key(fieldSlotId, date), k -> {
+            loaded[0] = true;
+            return new LinkedHashSet<>(waitlistRepository.findWaitingIds(fieldSlotId, date));
+        });
+        List<Integer> candidates;
+        synchronized (queue) {
+            candidates = new ArrayList<>(queue);
+            if (queue.isEmpty()) {
+                queues.remove(key(fieldSlotId, date), queue);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Integer entryId : candidates) {
+            // Blocks on a concurrent promoter's row lock; 0 rows means it is no longer waiting
+            if (waitlistRepository.claimForPromotion(entryId, now) == 1) {
+                return book(entryId, fieldSlotId, fieldId, date, price);
+            }
+            staleSkips.incrementAndGet();
+            forget(fieldSlotId, date, entryId);
+        }
+        if (loaded[0]) {
+            return null;
+        }
+
+        // Entries joined through another node are not in this node's queue
+        List<Integer> oldest = waitlistRepository.lockOldestWaiting(fieldSlotId, date);
+        if (!oldest.isEmpty() && waitlistRepository.claimForPromotion(oldest.get(0), now) == 1) {
+            fallbacks.incrementAndGet();
+            return book(oldest.get(0), fieldSlotId, fieldId, date, price);
+        }
+        return null;
+    }
+
+    /**
+     * Waitlist counters for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("waiting", waitlistRepository.countWaiting());
+        stats.put("cachedQueues", queues.size());
+        stats.put("joined", joined.get());
+        stats.put("promotions", promotions.get());
+        stats.put("staleSkips", staleSkips.get());
+        stats.put("dbFallbacks", fallbacks.get());
+        return stats;
+    }
+
+    private Promotion book(Integer entryId, Integer fieldSlotId, Integer fieldId, LocalDate date, BigDecimal price) {
+        Object[] parties = waitlistRepository.findParties(entryId).get(0);
+        Integer teamId = (Integer) parties[0];
+        Integer playerId = (Integer) parties[1];
+
+        Integer bookingId = batchWriter.insertBookingIfFree(new BookingBatchWriter.NewBooking(
+                playerId, teamId, fieldSlotId, fieldId, date, Bookings.Status.pending.name(), price));
+        if (bookingId == null) {
+            // Someone booked the slot directly in the meantime; the entry keeps its place
+            waitlistRepository.unclaim(entryId);
+            return null;
+        }
+
+        waitlistRepository.attachBooking(entryId, bookingId);
+        batchWriter.insertStatusChanges(List.of(bookingId), Bookings.Status.pending.name(),
+                "Promoted from waitlist", LocalDateTime.now());
+        rollupService.recordCreated(List.of(bookingId));
+
+        BookingService.afterCommit(() -> {
+            forget(fieldSlotId, date, entryId);
+            promotions.incrementAndGet();
+        });
+        return new Promotion(entryId, bookingId, teamId);
+    }
+
+    private LinkedHashSet<Integer> queue(Integer fieldSlotId, LocalDate date) {
+        return queues.computeIfAbsent(key(fieldSlotId, date),
+                k -> new LinkedHashSet<>(waitlistRepository.findWaitingIds(fieldSlotId, date)));
+    }
+
+    private void forget(Integer fieldSlotId, LocalDate date, Integer entryId) {
+        LinkedHashSet<Integer> queue = queues.get(key(fieldSlotId, date));
+        if (queue == null) return;
+        synchronized (queue) {
+            queue.remove(entryId);
+            if (queue.isEmpty()) {
+                queues.remove(key(fieldSlotId, date), queue);
+            }
+        }
+    }
+
+    private static String key(Integer fieldSlotId, LocalDate date) {
+        return fieldSlotId + ":" + date;
+    }
+}
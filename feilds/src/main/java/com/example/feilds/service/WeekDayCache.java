@@ -0,0 +1,191 @@
+package com.example.feilds.service;
+
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.model.WeekDays;
+import com.example.feilds.repository.WeekDaysRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The week_days reference table, held as an immutable array indexed by id together with
+ * the mapping to java.time.DayOfWeek both ways. Rows are matched to days by name
+ * ("Monday" or "Mon", any case); rows named otherwise have no DayOfWeek.
+ *
+ * Loaded once at startup, so lookups never touch the database. The table has no API and
+ * only changes by hand: an id missing from the snapshot is checked with one primary key
+ * lookup and, if the row exists now, the snapshot is reloaded. reload() picks up renamed
+ * rows and new rows that are only looked up by day.
+ */
+@Component
+public class WeekDayCache {
+
+    // One consistent view of the table; replaced as a whole on reload
+    private record Snapshot(int rows, WeekDays[] byId, DayOfWeek[] dayById, Map<DayOfWeek, List<Integer>> idsByDay) {}
+
+    private final WeekDaysRepository weekDaysRepository;
+    private volatile Snapshot snapshot;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+
+    public WeekDayCache(WeekDaysRepository weekDaysRepository) {
+        this.weekDaysRepository = weekDaysRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * The week day with this id; IllegalArgumentException when there is none
+     */
+    public WeekDays require(Integer id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Week day ID is required");
+        }
+        WeekDays weekDay = lookup(id);
+        if (weekDay == null) {
+            throw new IllegalArgumentException("Week day not found: " + id);
+        }
+        return weekDay;
+    }
+
+    /**
+     * The DayOfWeek a week day row stands for, or null for an unknown id or a row not
+     * named after a day
+     */
+    public DayOfWeek dayOf(Integer id) {
+        if (id == null || lookup(id) == null) {
+            return null;
+        }
+        DayOfWeek[] days = current().dayById();
+        return id < days.length ? days[id] : null;
+    }
+
+    /**
+     * Whether a slot on this week day row can be used on the date. A row named after a day
+     * only matches dates on that day; a row not named after a day is not tied to one (the
+     * price matrix treats it the same way).
+     */
+    public boolean isOn(Integer weekDayId, LocalDate date) {
+        DayOfWeek day = dayOf(weekDayId);
+        return day == null || day == date.getDayOfWeek();
+    }
+
+    /**
+     * Ids of the week day rows for a day of the week; normally exactly one
+     */
+    public List<Integer> idsOf(DayOfWeek day) {
+        lookups.incrementAndGet();
+        return current().idsByDay().getOrDefault(day, List.of());
+    }
+
+    /**
+     * Point a loaded slot at the cached week day, so rendering it needs no query for the day
+     */
+    public FieldSlots resolve(FieldSlots slot) {
+        if (slot.getWeekDay() != null) {
+            WeekDays weekDay = lookup(slot.getWeekDay().getId());
+            if (weekDay != null) {
+                slot.setWeekDay(weekDay);
+            }
+        }
+        return slot;
+    }
+
+    public List<FieldSlots> resolve(List<FieldSlots> slots) {
+        slots.forEach(this::resolve);
+        return slots;
+    }
+
+    /**
+     * Re-read the table and swap in the new snapshot
+     */
+    public synchronized void reload() {
+        List<WeekDays> rows = weekDaysRepository.findAll();
+        int maxId = rows.stream().mapToInt(WeekDays::getId).max().orElse(0);
+        WeekDays[] byId = new WeekDays[maxId + 1];
+        DayOfWeek[] dayById = new DayOfWeek[maxId + 1];
+        Map<DayOfWeek, List<Integer>> idsByDay = new EnumMap<>(DayOfWeek.class);
+        for (WeekDays row : rows) {
+            // Detached copies, so callers can never drag a managed row into their persistence context
+            byId[row.getId()] = new WeekDays(row.getId(), row.getName());
+            DayOfWeek day = parseDay(row.getName());
+            dayById[row.getId()] = day;
+            if (day != null) {
+                idsByDay.computeIfAbsent(day, d -> new ArrayList<>()).add(row.getId());
+            }
+        }
+        idsByDay.replaceAll((day, ids) -> List.copyOf(ids));
+        snapshot = new Snapshot(rows.size(), byId, dayById, idsByDay);
+        reloads.incrementAndGet();
+    }
+
+    /**
+     * Snapshot size and lookup counters for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("weekDays", current == null ? 0 : current.rows());
+        stats.put("mappedDays", current == null ? 0 : current.idsByDay().size());
+        stats.put("lookups", lookups.get());
+        stats.put("misses", misses.get());
+        stats.put("reloads", reloads.get());
+        return stats;
+    }
+
+    private WeekDays lookup(int id) {
+        lookups.incrementAndGet();
+        WeekDays weekDay = find(current(), id);
+        if (weekDay != null) {
+            return weekDay;
+        }
+        misses.incrementAndGet();
+        if (!weekDaysRepository.existsById(id)) {
+            return null;
+        }
+        reload();
+        return find(snapshot, id);
+    }
+
+    private static WeekDays find(Snapshot snapshot, int id) {
+        return id >= 0 && id < snapshot.byId().length ? snapshot.byId()[id] : null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Used before the application was ready (early startup work, tests)
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    // "Monday", "MONDAY", "Mon" -> MONDAY
+    static DayOfWeek parseDay(String name) {
+        if (name == null) {
+            return null;
+        }
+        String upper = name.trim().toUpperCase();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (upper.equals(day.name()) || upper.equals(day.name().substring(0, 3))) {
+                return day;
+            }
+        }
+        return null;
+    }
+}
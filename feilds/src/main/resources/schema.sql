@@ -0,0 +1,97 @@
+-- Runs after Hibernate's ddl-auto=update (see spring.jpa.defer-datasource-initialization),
+-- so every statement here must be idempotent.
+
+-- One-off data fixes record themselves here. Each is guarded by an uncorrelated NOT EXISTS on
+-- its id, which PostgreSQL evaluates once up front, so an applied fix costs no table scan.
+CREATE TABLE IF NOT EXISTS schema_migrations (
+    id VARCHAR(100) PRIMARY KEY,
+    applied_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+-- At most one live booking per field slot and date. Concurrent inserts for the same
+-- pair are resolved by this index instead of an application-level lock.
+CREATE UNIQUE INDEX IF NOT EXISTS ux_bookings_active_slot_date
+    ON bookings (field_slot_id, date)
+    WHERE status IN ('pending', 'approved', 'completed');
+
+-- bookings.field_id is a copy of field_slots.field_id; fill it in for rows written before it existed
+UPDATE bookings b SET field_id = fs.field_id
+    FROM field_slots fs
+    WHERE b.field_slot_id = fs.id AND b.field_id IS NULL
+    AND NOT EXISTS (SELECT 1 FROM schema_migrations WHERE id = 'bookings-backfill-field-id');
+INSERT INTO schema_migrations (id) VALUES ('bookings-backfill-field-id') ON CONFLICT DO NOTHING;
+
+-- Admin history: equality filter first, then date/id for range scans and keyset pagination
+CREATE INDEX IF NOT EXISTS ix_bookings_field_date ON bookings (field_id, date, id);
+CREATE INDEX IF NOT EXISTS ix_bookings_team_date ON bookings (team_id, date, id);
+CREATE INDEX IF NOT EXISTS ix_bookings_date ON bookings (date, id);
+
+-- Approval queue: only pending rows, in arrival (id) order. Depth and oldest-pending
+-- lookups read this small index instead of the bookings table.
+CREATE INDEX IF NOT EXISTS ix_bookings_pending_queue ON bookings (id) WHERE status = 'pending';
+
+-- Status timeline per booking
+CREATE INDEX IF NOT EXISTS ix_status_changes_booking ON booking_status_changes (booking_id, created_at);
+
+-- TTL purge of stored idempotent responses
+CREATE INDEX IF NOT EXISTS ix_idempotency_keys_created ON idempotency_keys (created_at);
+
+-- Booking and review responses used to embed the player/customer entity, password included;
+-- drop the stored replays that carry one
+DELETE FROM idempotency_keys WHERE response_body LIKE '%"password"%'
+    AND NOT EXISTS (SELECT 1 FROM schema_migrations WHERE id = 'idempotency-drop-entity-bodies');
+INSERT INTO schema_migrations (id) VALUES ('idempotency-drop-entity-bodies') ON CONFLICT DO NOTHING;
+
+-- A team waits at most once per slot and date
+CREATE UNIQUE INDEX IF NOT EXISTS ux_waitlist_waiting_team
+    ON waitlist_entries (field_slot_id, date, team_id)
+    WHERE status = 'waiting';
+
+-- FIFO order of the waiting teams of one slot and date (promotion reads the head)
+CREATE INDEX IF NOT EXISTS ix_waitlist_queue
+    ON waitlist_entries (field_slot_id, date, id)
+    WHERE status = 'waiting';
+
+-- JDBC batch inserts do not set bookings.created_at; let the database fill it in
+ALTER TABLE bookings ALTER COLUMN created_at SET DEFAULT now();
+
+-- Bookings made before created_at existed: take it from their first status change
+UPDATE bookings b SET created_at = (SELECT MIN(c.created_at) FROM booking_status_changes c WHERE c.booking_id = b.id)
+    WHERE b.created_at IS NULL
+    AND NOT EXISTS (SELECT 1 FROM schema_migrations WHERE id = 'bookings-backfill-created-at');
+INSERT INTO schema_migrations (id) VALUES ('bookings-backfill-created-at') ON CONFLICT DO NOTHING;
+
+-- Week days are reference data with no API; give an empty table the seven days, Monday first
+INSERT INTO week_days (name)
+SELECT d.name FROM (VALUES (1, 'Monday'), (2, 'Tuesday'), (3, 'Wednesday'), (4, 'Thursday'),
+                           (5, 'Friday'), (6, 'Saturday'), (7, 'Sunday')) AS d(pos, name)
+WHERE NOT EXISTS (SELECT 1 FROM week_days)
+ORDER BY d.pos;
+
+-- Field search: a field's slots by week day and start time. The free-slot check then probes
+-- ux_bookings_active_slot_date once per candidate slot.
+CREATE INDEX IF NOT EXISTS ix_field_slots_field_day ON field_slots (field_id, week_day_id, from_time);
+
+-- Field search: active fields by capacity
+CREATE INDEX IF NOT EXISTS ix_fields_active_capacity ON fields (players_capacity) WHERE is_active;
+
+-- Pending-booking expiry sweep: oldest pending rows by creation time
+CREATE INDEX IF NOT EXISTS ix_bookings_pending_created ON bookings (created_at) WHERE status = 'pending';
+
+-- Hibernate only writes the enum check constraint when it creates the table; widen it for 'expired'
+-- once, since each ALTER takes an ACCESS EXCLUSIVE lock on bookings. NOT VALID skips re-checking
+-- existing rows. The block is single-quoted because the script runner splits on semicolons
+-- outside quotes, and does not know dollar quoting.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM schema_migrations WHERE id = ''bookings-status-check-expired'') THEN
+        ALTER TABLE bookings DROP CONSTRAINT IF EXISTS bookings_status_check;
+        ALTER TABLE bookings ADD CONSTRAINT bookings_status_check
+            CHECK (status IN (''pending'', ''approved'', ''rejected'', ''cancelled'', ''completed'', ''expired'')) NOT VALID;
+        INSERT INTO schema_migrations (id) VALUES (''bookings-status-check-expired'') ON CONFLICT DO NOTHING;
+    END IF;
+END';
+
+-- Field search with a date: a field's own blackouts covering the date. The calendar reload
+-- reads every blackout not over yet, which is few enough rows to scan.
+CREATE INDEX IF NOT EXISTS ix_field_blackouts_field_dates ON field_blackouts (field_id, from_date, to_date);
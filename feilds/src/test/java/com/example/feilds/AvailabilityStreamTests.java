@@ -0,0 +1,141 @@
+package com.example.feilds;
+
+import com.example.feilds.service.AvailabilityFeed;
+import com.example.feilds.service.BookingService;
+import com.example.feilds.service.SlotOccupancyIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A subscriber to a field's availability stream sees bookings on that field as they
+ * commit. The benchmark parks 50k idle subscribers and measures the heap they take and
+ * how long one change takes to fan out to a field's subscribers.
+ */
+// Room for the benchmark's 50k streams next to the ones the other test leaves closing
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "availability.stream.max-subscribers=60000")
+class AvailabilityStreamTests {
+
+	private static final int IDLE_SUBSCRIBERS = 50_000;
+	private static final int IDLE_FIELDS = 1_000;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private AvailabilityFeed availabilityFeed;
+	@Autowired
+	private SlotOccupancyIndex occupancyIndex;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	void bookingIsPushedToFieldSubscribers() throws Exception {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		HttpClient client = HttpClient.newHttpClient();
+		HttpResponse<Stream<String>> response = client.send(HttpRequest.newBuilder(
+						URI.create("http://localhost:" + port + "/api/fields/" + fixture.field().getId() + "/availability/stream"))
+				.header("Accept", "text/event-stream").build(), HttpResponse.BodyHandlers.ofLines());
+		assertEquals(200, response.statusCode());
+
+		BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+		Thread reader = Thread.ofVirtual().start(() -> response.body().forEach(lines::add));
+		try {
+			awaitLine(lines, "event:ready");
+
+			LocalDate date = LocalDate.now().plusYears(30);
+			bookingService.createBooking(fixture.team().getId(), fixture.slot().getId(), fixture.player().getId(), date);
+
+			awaitLine(lines, "event:changes");
+			String data = awaitLine(lines, "data:");
+			assertTrue(data.contains("\"date\":\"" + date + "\""), data);
+			assertTrue(data.contains("\"change\":\"booked\""), data);
+		} finally {
+			reader.interrupt();
+			response.body().close();
+		}
+
+		HttpResponse<String> missing = client.send(HttpRequest.newBuilder(
+						URI.create("http://localhost:" + port + "/api/fields/" + Integer.MAX_VALUE + "/availability/stream"))
+				.header("Accept", "text/event-stream").build(), HttpResponse.BodyHandlers.ofString());
+		assertEquals(400, missing.statusCode());
+		assertTrue(missing.body().contains("Field not found"), missing.body());
+	}
+
+	@Test
+	@Tag("benchmark")
+	void fiftyThousandIdleSubscribers() throws Exception {
+		// Streams on field ids no real field has, so no booking traffic reaches them
+		int firstField = -IDLE_FIELDS - 1_000_000;
+		int openBefore = openStreams();
+		long before = usedHeap();
+		List<SseEmitter> emitters = new ArrayList<>(IDLE_SUBSCRIBERS);
+		for (int i = 0; i < IDLE_SUBSCRIBERS; i++) {
+			emitters.add(availabilityFeed.subscribe(firstField + i % IDLE_FIELDS));
+		}
+		long after = usedHeap();
+		System.out.printf("[availability-stream] %d idle subscribers: ~%d bytes each%n",
+				IDLE_SUBSCRIBERS, (after - before) / IDLE_SUBSCRIBERS);
+
+		LocalDate date = LocalDate.now().plusYears(40);
+		long started = System.nanoTime();
+		occupancyIndex.occupy(firstField, date, LocalTime.of(19, 0), LocalTime.of(20, 0));
+		System.out.printf("[availability-stream] one change to %d subscribers queued in %d us%n",
+				IDLE_SUBSCRIBERS / IDLE_FIELDS, (System.nanoTime() - started) / 1_000);
+
+		// Completed emitters refuse the next send, which closes their subscriber; wake them all
+		emitters.forEach(SseEmitter::complete);
+		for (int i = 0; i < IDLE_FIELDS; i++) {
+			occupancyIndex.release(firstField + i, date, LocalTime.of(19, 0), LocalTime.of(20, 0));
+		}
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (openStreams() > openBefore && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+		assertEquals(openBefore, openStreams());
+	}
+
+	private static String awaitLine(BlockingQueue<String> lines, String prefix) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (System.nanoTime() < deadline) {
+			String line = lines.poll(100, TimeUnit.MILLISECONDS);
+			if (line != null && line.startsWith(prefix)) {
+				return line;
+			}
+		}
+		return fail("No line starting with " + prefix);
+	}
+
+	private int openStreams() {
+		return (Integer) availabilityFeed.stats().get("openStreams");
+	}
+
+	private static long usedHeap() throws InterruptedException {
+		System.gc();
+		Thread.sleep(200);
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,123 @@
+package com.example.feilds;
+
+import com.example.feilds.model.Users;
+import com.example.feilds.repository.*;
+import com.example.feilds.service.BlackoutCalendar;
+import com.example.feilds.service.BlackoutService;
+import com.example.feilds.service.BookingService;
+import com.example.feilds.service.FieldService;
+import com.example.feilds.service.RecurringBookingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Blackouts close a field, or all fields, on whole dates: the calendar marks ranges across
+ * year ends, closed dates show no free windows and refuse bookings, and a season import
+ * with replace swaps out the blackouts it covers.
+ */
+@SpringBootTest
+@Import(BookingFixtures.class)
+class BlackoutCalendarTests {
+
+	@Autowired
+	private BlackoutService blackoutService;
+	@Autowired
+	private BlackoutRepository blackoutRepository;
+	@Autowired
+	private FieldService fieldService;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private RecurringBookingService recurringBookingService;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	void rangesAcrossTheYearEndAreMarked() {
+		BlackoutCalendar calendar = new BlackoutCalendar(blackoutRepository);
+		// Not real fields; the calendar never reads them back
+		calendar.close(-5, LocalDate.of(2047, 12, 30), LocalDate.of(2048, 1, 2));
+		calendar.close(-6, LocalDate.of(2048, 12, 31), LocalDate.of(2048, 12, 31));
+
+		assertFalse(calendar.isClosed(-5, LocalDate.of(2047, 12, 29)));
+		assertTrue(calendar.isClosed(-5, LocalDate.of(2047, 12, 30)));
+		assertTrue(calendar.isClosed(-5, LocalDate.of(2048, 1, 1)));
+		assertTrue(calendar.isClosed(-5, LocalDate.of(2048, 1, 2)));
+		assertFalse(calendar.isClosed(-5, LocalDate.of(2048, 1, 3)));
+		// Day 366 of a leap year is the last bit of the set
+		assertTrue(calendar.isClosed(-6, LocalDate.of(2048, 12, 31)));
+		assertFalse(calendar.isClosed(-6, LocalDate.of(2048, 12, 30)));
+		assertFalse(calendar.isClosed(-5, LocalDate.of(2048, 12, 31)));
+
+		calendar.close(null, LocalDate.of(2049, 3, 1), LocalDate.of(2049, 3, 1));
+		assertTrue(calendar.isClosed(-5, LocalDate.of(2049, 3, 1)));
+		assertTrue(calendar.isClosedEverywhere(LocalDate.of(2049, 3, 1)));
+		assertEquals(6L, calendar.stats().get("closedFieldDays"));
+	}
+
+	@Test
+	void closedDatesRefuseBookings() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Users admin = fixtures.seedAdmin();
+		Integer fieldId = fixture.field().getId();
+		Integer slotId = fixture.slot().getId();
+		LocalDate start = LocalDate.now().plusYears(50);
+
+		BlackoutService.Blackout blackout = blackoutService.createBlackout(admin.getId(), fieldId,
+				start.plusWeeks(1), start.plusWeeks(1), "Tournament");
+		assertTrue(fieldService.getFreeWindows(fieldId, start.plusWeeks(1)).isEmpty());
+		assertFalse(fieldService.getFreeWindows(fieldId, start).isEmpty());
+		assertEquals(1, blackoutService.getUpcoming(fieldId).stream().filter(b -> b.id().equals(blackout.id())).count());
+
+		BookingService.SlotUnavailableException closed = assertThrows(BookingService.SlotUnavailableException.class,
+				() -> bookingService.createBooking(fixture.team().getId(), slotId, fixture.player().getId(), start.plusWeeks(1)));
+		assertEquals("Field is closed on " + start.plusWeeks(1), closed.getMessage());
+
+		RecurringBookingService.SeriesResult series = recurringBookingService.createSeries(fixture.team().getId(),
+				fixture.player().getId(), slotId, start, null, 3, null);
+		assertEquals(List.of(start.plusWeeks(1)), series.conflicts());
+		assertEquals(2, series.created().size());
+
+		blackoutService.deleteBlackout(admin.getId(), blackout.id());
+		assertNotNull(bookingService.createBooking(fixture.team().getId(), slotId, fixture.player().getId(), start.plusWeeks(1)));
+	}
+
+	@Test
+	void seasonImportReplacesTheBlackoutsItCovers() {
+		Users admin = fixtures.seedAdmin();
+		Integer fieldId = fixtures.seedSlot().field().getId();
+		Integer otherId = fixtures.seedSlot().field().getId();
+		LocalDate season = LocalDate.now().plusYears(55);
+
+		BlackoutService.ImportResult first = blackoutService.importCalendar(admin.getId(), List.of(
+				new BlackoutService.Blackout(null, fieldId, season, season.plusDays(2), "Maintenance"),
+				new BlackoutService.Blackout(null, otherId, season.plusDays(10), season.plusDays(10), null)), false);
+		assertEquals(0, first.removed());
+		assertEquals(2, first.created().size());
+		assertTrue(fieldService.getFreeWindows(fieldId, season.plusDays(1)).isEmpty());
+
+		// Replace only drops blackouts inside the imported span, and only of the listed fields
+		BlackoutService.ImportResult second = blackoutService.importCalendar(admin.getId(), List.of(
+				new BlackoutService.Blackout(null, fieldId, season.plusDays(7), season.plusDays(9), "Maintenance")), true);
+		assertEquals(0, second.removed());
+		BlackoutService.ImportResult third = blackoutService.importCalendar(admin.getId(), List.of(
+				new BlackoutService.Blackout(null, fieldId, season, season.plusDays(9), "Maintenance")), true);
+		assertEquals(2, third.removed());
+		assertTrue(fieldService.getFreeWindows(fieldId, season.plusDays(5)).isEmpty());
+		assertTrue(fieldService.getFreeWindows(otherId, season.plusDays(10)).isEmpty());
+		assertFalse(fieldService.getFreeWindows(otherId, season.plusDays(5)).isEmpty());
+
+		IllegalArgumentException invalid = assertThrows(IllegalArgumentException.class,
+				() -> blackoutService.importCalendar(admin.getId(), List.of(
+						new BlackoutService.Blackout(null, fieldId, season, season, null),
+						new BlackoutService.Blackout(null, fieldId, season.plusDays(3), season, null)), false));
+		assertEquals("Blackout 2: toDate cannot be before fromDate", invalid.getMessage());
+	}
+}
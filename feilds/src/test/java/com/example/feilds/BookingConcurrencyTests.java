@@ -0,0 +1,118 @@
+package com.example.feilds;
+
+import com.example.feilds.model.*;
+import com.example.feilds.repository.*;
+import com.example.feilds.service.BookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Import(BookingFixtures.class)
+class BookingConcurrencyTests {
+
+	private static final int REQUESTS = 2000;
+	private static final int THREADS = 64;
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BookingsRepository bookingsRepository;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	private Users player;
+	private Teams team;
+	private FieldSlots slot;
+
+	@BeforeEach
+	void seed() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		player = fixture.player();
+		team = fixture.team();
+		slot = fixture.slot();
+	}
+
+	@Test
+	void exactlyOneWinnerForContendedSlot() throws Exception {
+		LocalDate date = LocalDate.now().plusYears(5);
+
+		assertEquals(1, fire(i -> date));
+		assertEquals(1, bookingsRepository.findByTeamOrderByDateDesc(team).size());
+	}
+
+	@Test
+	void everyRequestWinsForUncontendedSlots() throws Exception {
+		LocalDate base = LocalDate.now().plusYears(6);
+
+		assertEquals(REQUESTS, fire(base::plusDays));
+	}
+
+	// Opt-in: mvn test -Dgroups=benchmark -DexcludedGroups=
+	@Test
+	@Tag("benchmark")
+	void bookingThroughput() throws Exception {
+		LocalDate contended = LocalDate.now().plusYears(7);
+		LocalDate base = contended.plusDays(1);
+
+		long started = System.nanoTime();
+		int winners = fire(i -> contended);
+		report("contended", System.nanoTime() - started);
+		assertEquals(1, winners);
+
+		started = System.nanoTime();
+		winners = fire(base::plusDays);
+		report("uncontended", System.nanoTime() - started);
+		assertEquals(REQUESTS, winners);
+	}
+
+	private interface DateForRequest {
+		LocalDate dateFor(int request);
+	}
+
+	private int fire(DateForRequest dates) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger winners = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int i = 0; i < REQUESTS; i++) {
+			LocalDate date = dates.dateFor(i);
+			futures.add(pool.submit(() -> {
+				start.await();
+				try {
+					bookingService.createBooking(team.getId(), slot.getId(), player.getId(), date);
+					winners.incrementAndGet();
+				} catch (BookingService.SlotUnavailableException expected) {
+					// lost the race
+				}
+				return null;
+			}));
+		}
+
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(2, TimeUnit.MINUTES);
+		}
+		pool.shutdown();
+		return winners.get();
+	}
+
+	private void report(String label, long elapsedNanos) {
+		double seconds = elapsedNanos / 1_000_000_000.0;
+		System.out.printf("[booking-throughput] %s: %d requests in %.2fs (%.0f req/s)%n",
+				label, REQUESTS, seconds, REQUESTS / seconds);
+	}
+
+}
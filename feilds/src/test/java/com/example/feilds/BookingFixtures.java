@@ -0,0 +1,74 @@
+package com.example.feilds;
+
+import com.example.feilds.model.*;
+import com.example.feilds.repository.*;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+
+/**
+ * Seeds the rows a booking needs (team admin, team, field, week day, slot) with unique names,
+ * so database-backed tests can run repeatedly against the same schema. Tests pull it in with
+ * {@code @Import(BookingFixtures.class)} and autowire it.
+ */
+@TestComponent
+class BookingFixtures {
+
+	record SlotFixture(Users player, Teams team, Fields field, FieldSlots slot) {}
+
+	record TeamFixture(Users player, Teams team) {}
+
+	private final UserRepository userRepository;
+	private final TeamRepository teamRepository;
+	private final TeamPlayersRepository teamPlayersRepository;
+	private final FieldRepository fieldRepository;
+	private final FieldSlotRepository fieldSlotRepository;
+	private final WeekDaysRepository weekDaysRepository;
+
+	BookingFixtures(UserRepository userRepository, TeamRepository teamRepository,
+					TeamPlayersRepository teamPlayersRepository, FieldRepository fieldRepository,
+					FieldSlotRepository fieldSlotRepository, WeekDaysRepository weekDaysRepository) {
+		this.userRepository = userRepository;
+		this.teamRepository = teamRepository;
+		this.teamPlayersRepository = teamPlayersRepository;
+		this.fieldRepository = fieldRepository;
+		this.fieldSlotRepository = fieldSlotRepository;
+		this.weekDaysRepository = weekDaysRepository;
+	}
+
+	SlotFixture seedSlot() {
+		String suffix = Long.toString(System.nanoTime());
+		TeamFixture owner = seedTeam();
+		Users player = owner.player();
+		Teams team = owner.team();
+		Fields field = fieldRepository.save(Fields.builder()
+				.name("Test Field " + suffix).images("").playersCapacity(10)
+				.locationAddress("Test").isActive(true).build());
+		WeekDays weekDay = weekDaysRepository.save(WeekDays.builder().name("Test day").build());
+		FieldSlots slot = fieldSlotRepository.save(FieldSlots.builder()
+				.field(field).weekDay(weekDay)
+				.fromTime(LocalTime.of(19, 0)).toTime(LocalTime.of(20, 0))
+				.price(BigDecimal.valueOf(50)).build());
+		return new SlotFixture(player, team, field, slot);
+	}
+
+	// Another team with its own admin player
+	TeamFixture seedTeam() {
+		String suffix = Long.toString(System.nanoTime());
+		Users player = userRepository.save(Users.builder()
+				.name("Test Player").email("player-" + suffix + "@test.local")
+				.phone("000").password("secret").role(Users.Role.player).build());
+		Teams team = teamRepository.save(Teams.builder().name("Test Team " + suffix).isActive(true).build());
+		teamPlayersRepository.save(TeamPlayers.builder()
+				.player(player).team(team).isAdmin(true).isActive(true).build());
+		return new TeamFixture(player, team);
+	}
+
+	Users seedAdmin() {
+		String suffix = Long.toString(System.nanoTime());
+		return userRepository.save(Users.builder()
+				.name("Test Admin").email("admin-" + suffix + "@test.local")
+				.phone("000").password("secret").role(Users.Role.admin).build());
+	}
+}
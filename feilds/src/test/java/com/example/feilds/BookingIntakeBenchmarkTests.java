@@ -0,0 +1,112 @@
+package com.example.feilds;
+
+import com.example.feilds.service.BookingIntakeService;
+import com.example.feilds.service.BookingService;
+import com.example.feilds.service.LatencyHistogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fires a burst of booking requests (distinct dates, so every one should win) from more
+ * threads than the Hikari pool has connections, once through the synchronous path and
+ * once through the write-behind intake, and prints p50/p99 of the caller-visible latency
+ * for both plus the intake's own queue-wait and end-to-end histograms. Excluded from the
+ * default build; run with mvn test -Dgroups=benchmark -DexcludedGroups=
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Import(BookingFixtures.class)
+class BookingIntakeBenchmarkTests {
+
+	private static final int REQUESTS = 5000;
+	private static final int THREADS = 128;
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BookingIntakeService intakeService;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	private interface Call {
+		void run(int i) throws Exception;
+	}
+
+	@Test
+	void burstLatencySyncVersusIntake() throws Exception {
+
+		BookingFixtures.SlotFixture sync = fixtures.seedSlot();
+		LocalDate syncBase = LocalDate.now().plusYears(10);
+		LatencyHistogram syncLatency = burst(i -> bookingService.createBooking(sync.team().getId(),
+				sync.slot().getId(), sync.player().getId(), syncBase.plusDays(i)));
+
+		BookingFixtures.SlotFixture async = fixtures.seedSlot();
+		LocalDate asyncBase = LocalDate.now().plusYears(30);
+		List<String> requestIds = new CopyOnWriteArrayList<>();
+		LatencyHistogram asyncLatency = burst(i -> requestIds.add(intakeService.submit(async.team().getId(),
+				async.slot().getId(), async.player().getId(), asyncBase.plusDays(i)).requestId()));
+
+		// Wait for the writer to finish the burst before reading its histograms
+		long deadline = System.currentTimeMillis() + 120_000;
+		int written = 0;
+		while (System.currentTimeMillis() < deadline) {
+			written = 0;
+			for (String requestId : requestIds) {
+				Map<String, Object> status = intakeService.describe(requestId).orElseThrow();
+				if (status.get("state") == BookingIntakeService.State.written) written++;
+			}
+			if (written == REQUESTS) break;
+			Thread.sleep(200);
+		}
+		assertEquals(REQUESTS, written);
+
+		report("synchronous", syncLatency);
+		report("intake (202)", asyncLatency);
+		Map<String, Object> stats = intakeService.stats();
+		System.out.printf("[booking-intake] writer queue wait %s, end-to-end %s, avg batch %.1f%n",
+				stats.get("queueWait"), stats.get("endToEnd"), stats.get("avgBatchSize"));
+	}
+
+	private LatencyHistogram burst(Call call) throws Exception {
+		LatencyHistogram latency = new LatencyHistogram();
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>(REQUESTS);
+			for (int i = 0; i < REQUESTS; i++) {
+				int request = i;
+				futures.add(pool.submit(() -> {
+					start.await();
+					long started = System.nanoTime();
+					call.run(request);
+					latency.recordNanos(System.nanoTime() - started);
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(120, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		return latency;
+	}
+
+	private void report(String label, LatencyHistogram latency) {
+		System.out.printf("[booking-intake] %s: %d requests, p50 %.2fms, p99 %.2fms, max %s ms%n",
+				label, latency.count(), latency.percentileMicros(50) / 1000.0,
+				latency.percentileMicros(99) / 1000.0, latency.snapshot().get("maxMs"));
+	}
+}
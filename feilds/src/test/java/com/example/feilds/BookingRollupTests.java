@@ -0,0 +1,77 @@
+package com.example.feilds;
+
+import com.example.feilds.model.Bookings;
+import com.example.feilds.model.Users;
+import com.example.feilds.service.BookingRollupService;
+import com.example.feilds.service.BookingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The incrementally maintained rollups must match what a rebuild from the bookings
+ * table computes, across creations, approvals and cancellations from both states.
+ */
+@SpringBootTest
+@Import(BookingFixtures.class)
+class BookingRollupTests {
+
+	private static final int BOOKINGS = 30;
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BookingRollupService rollupService;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void incrementalCountersMatchRebuild() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Users admin = fixtures.seedAdmin();
+
+		LocalDate base = LocalDate.now().plusYears(15);
+		List<Integer> ids = new ArrayList<>();
+		for (int i = 0; i < BOOKINGS; i++) {
+			ids.add(bookingService.createBooking(fixture.team().getId(), fixture.slot().getId(),
+					fixture.player().getId(), base.plusDays(i)).getId());
+		}
+
+		// 15 approved, 5 of them cancelled in bulk, 3 completed; 5 pending ones cancelled directly
+		for (Integer id : ids.subList(0, 15)) {
+			bookingService.updateBookingStatus(admin.getId(), id, "approved", "pending", null);
+		}
+		bookingService.bulkUpdateStatus(admin.getId(), ids.subList(0, 5), "cancelled", "Rain");
+		for (Integer id : ids.subList(5, 8)) {
+			bookingService.updateBookingStatus(admin.getId(), id, "completed", null, null);
+		}
+		for (Integer id : ids.subList(15, 20)) {
+			bookingService.updateBookingStatus(admin.getId(), id, Bookings.Status.cancelled.name(), null, null);
+		}
+
+		LocalDate to = base.plusDays(BOOKINGS);
+		Integer fieldId = fixture.field().getId();
+		Map<String, Object> occupancy = (Map<String, Object>) rollupService.occupancy(base, to, fieldId,
+				BookingRollupService.GroupBy.field).get("totals");
+		Map<String, Object> revenue = (Map<String, Object>) rollupService.revenue(base, to, fieldId,
+				BookingRollupService.GroupBy.field).get("totals");
+		assertEquals(30L, occupancy.get("bookings"));
+		assertEquals(10L, occupancy.get("approved"));
+		assertEquals(10L, occupancy.get("cancelled"));
+		assertEquals(new BigDecimal("500.00"), revenue.get("revenue"));
+
+		rollupService.rebuild();
+		assertEquals(occupancy, rollupService.occupancy(base, to, fieldId, BookingRollupService.GroupBy.field).get("totals"));
+		assertEquals(revenue, rollupService.revenue(base, to, fieldId, BookingRollupService.GroupBy.field).get("totals"));
+	}
+}
@@ -0,0 +1,135 @@
+package com.example.feilds;
+
+import com.example.feilds.model.Bookings;
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.model.WeekDays;
+import com.example.feilds.repository.*;
+import com.example.feilds.service.BookingBatchWriter;
+import com.example.feilds.service.FieldService;
+import com.example.feilds.service.LatencyHistogram;
+import com.example.feilds.service.WeekDayCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A busy field: 14 one-hour slots on every day of the week and about 70% of them booked
+ * over 90 days. The merged availability must equal the brute-force "template minus
+ * booked" answer, and (benchmark) a 90-day window should come back in single-digit ms.
+ */
+@SpringBootTest
+@Import(BookingFixtures.class)
+class FieldAvailabilityTests {
+
+	private static final int DAYS = 90;
+	private static final int SLOTS_PER_DAY = 14;
+	private static final int LOOKUPS = 500;
+
+	@Autowired
+	private FieldService fieldService;
+	@Autowired
+	private BookingBatchWriter batchWriter;
+	@Autowired
+	private WeekDayCache weekDayCache;
+	@Autowired
+	private FieldSlotRepository fieldSlotRepository;
+	@Autowired
+	private WeekDaysRepository weekDaysRepository;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	// The seeded field, its slots per day of week and the booked "slotId:date" keys
+	private record Seeded(Integer fieldId, LocalDate from, Map<DayOfWeek, List<FieldSlots>> slots, Set<String> booked) {}
+
+	@Test
+	void availabilityIsTemplatesMinusBookings() {
+		Seeded seeded = seedBusyField();
+		LocalDate to = seeded.from().plusDays(DAYS - 1);
+
+		List<FieldService.DayAvailability> availability = fieldService.getAvailability(seeded.fieldId(), seeded.from(), to);
+		assertEquals(DAYS, availability.size());
+		for (FieldService.DayAvailability day : availability) {
+			List<Integer> expected = new ArrayList<>();
+			for (FieldSlots slot : seeded.slots().get(day.date().getDayOfWeek())) {
+				if (!seeded.booked().contains(slot.getId() + ":" + day.date())) {
+					expected.add(slot.getId());
+				}
+			}
+			assertEquals(expected, day.slots().stream().map(FieldService.FreeSlot::slotId).toList(), day.date().toString());
+		}
+	}
+
+	@Test
+	@Tag("benchmark")
+	void ninetyDayWindowOnBusyField() {
+		Seeded seeded = seedBusyField();
+		LocalDate to = seeded.from().plusDays(DAYS - 1);
+		for (int i = 0; i < 50; i++) {
+			fieldService.getAvailability(seeded.fieldId(), seeded.from(), to);
+		}
+
+		LatencyHistogram latency = new LatencyHistogram();
+		for (int i = 0; i < LOOKUPS; i++) {
+			long started = System.nanoTime();
+			fieldService.getAvailability(seeded.fieldId(), seeded.from(), to);
+			latency.recordNanos(System.nanoTime() - started);
+		}
+		System.out.printf("[availability] %d days x %d slots, %d bookings: %s%n",
+				DAYS, 7 * SLOTS_PER_DAY, seeded.booked().size(), latency.snapshot());
+		assertTrue(latency.percentileMicros(50) < 10_000);
+	}
+
+	private Seeded seedBusyField() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		// The fixture's own slot sits on a week day named "Test day", which matches no date
+		Integer fieldId = fixture.field().getId();
+
+		Map<DayOfWeek, List<FieldSlots>> slots = new EnumMap<>(DayOfWeek.class);
+		for (DayOfWeek day : DayOfWeek.values()) {
+			WeekDays weekDay = weekDaysRepository.save(WeekDays.builder()
+					.name(day.getDisplayName(TextStyle.FULL, Locale.ENGLISH)).build());
+			List<FieldSlots> daySlots = new ArrayList<>();
+			for (int i = 0; i < SLOTS_PER_DAY; i++) {
+				daySlots.add(fieldSlotRepository.save(FieldSlots.builder()
+						.field(fixture.field()).weekDay(weekDay)
+						.fromTime(LocalTime.of(8 + i, 0)).toTime(LocalTime.of(9 + i, 0))
+						.price(BigDecimal.valueOf(50)).build()));
+			}
+			slots.put(day, daySlots);
+		}
+		weekDayCache.reload();
+
+		LocalDate from = LocalDate.now().plusYears(35);
+		Random random = new Random(7);
+		Set<String> booked = new HashSet<>();
+		List<BookingBatchWriter.NewBooking> rows = new ArrayList<>();
+		for (LocalDate date = from; date.isBefore(from.plusDays(DAYS)); date = date.plusDays(1)) {
+			for (FieldSlots slot : slots.get(date.getDayOfWeek())) {
+				if (random.nextInt(10) < 7) {
+					Bookings.Status status = random.nextBoolean() ? Bookings.Status.approved : Bookings.Status.pending;
+					rows.add(new BookingBatchWriter.NewBooking(fixture.player().getId(), fixture.team().getId(),
+							slot.getId(), fieldId, date, status.name(), slot.getPrice()));
+					booked.add(slot.getId() + ":" + date);
+				} else if (random.nextInt(4) == 0) {
+					// Cancelled bookings do not take the slot
+					rows.add(new BookingBatchWriter.NewBooking(fixture.player().getId(), fixture.team().getId(),
+							slot.getId(), fieldId, date, Bookings.Status.cancelled.name(), slot.getPrice()));
+				}
+			}
+		}
+		batchWriter.insertBookings(rows);
+		return new Seeded(fieldId, from, slots, booked);
+	}
+}
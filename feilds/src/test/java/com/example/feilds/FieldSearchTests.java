@@ -0,0 +1,174 @@
+package com.example.feilds;
+
+import com.example.feilds.model.Bookings;
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.model.Fields;
+import com.example.feilds.model.WeekDays;
+import com.example.feilds.repository.*;
+import com.example.feilds.service.BookingBatchWriter;
+import com.example.feilds.service.FieldService;
+import com.example.feilds.service.LatencyHistogram;
+import com.example.feilds.service.WeekDayCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Field search filters on capacity, location, a slot covering a time, and that slot being
+ * free on a date, ordered by relevance. The benchmark runs random filter combinations
+ * against 5k fields and 2M bookings; it takes a few minutes and is meant for a scratch
+ * database. Run with mvn test -Dgroups=benchmark -DexcludedGroups=
+ */
+@SpringBootTest
+@Import(BookingFixtures.class)
+class FieldSearchTests {
+
+	private static final int FIELDS = 5_000;
+	private static final int SLOTS_PER_DAY = 8;
+	private static final int WEEKS = 8;
+	private static final int LOOKUPS = 500;
+
+	@Autowired
+	private FieldService fieldService;
+	@Autowired
+	private BookingBatchWriter batchWriter;
+	@Autowired
+	private WeekDayCache weekDayCache;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private FieldRepository fieldRepository;
+	@Autowired
+	private FieldSlotRepository fieldSlotRepository;
+	@Autowired
+	private WeekDaysRepository weekDaysRepository;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	void filtersCombineAndRankByRelevance() {
+		BookingFixtures.TeamFixture team = fixtures.seedTeam();
+		String town = "Searchtown" + System.nanoTime();
+		WeekDays monday = weekDaysRepository.save(WeekDays.builder().name("Monday").build());
+		weekDayCache.reload();
+		LocalDate date = LocalDate.now().plusYears(30).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+		Fields free = seedField("1 Main St, " + town, 10, monday, LocalTime.of(19, 0), LocalTime.of(21, 0));
+		Fields booked = seedField(town + " Park", 20, monday, LocalTime.of(19, 0), LocalTime.of(21, 0));
+		seedField("2 Main St, " + town, 8, monday, LocalTime.of(19, 0), LocalTime.of(21, 0));
+		seedField("3 Main St, " + town, 12, monday, LocalTime.of(10, 0), LocalTime.of(12, 0));
+
+		FieldSlots bookedSlot = fieldSlotRepository.findByField(booked).get(0);
+		batchWriter.insertBookings(List.of(new BookingBatchWriter.NewBooking(team.player().getId(), team.team().getId(),
+				bookedSlot.getId(), booked.getId(), date, Bookings.Status.approved.name(), bookedSlot.getPrice())));
+
+		// Everything applied: only the field whose evening slot is still free that Monday
+		assertEquals(List.of(free.getId()), ids(fieldService.browseFieldsWithFilters(date, "19:00-21:00", 10,
+				town.toLowerCase(Locale.ROOT), 0, 10)));
+		// Without the date the booked one qualifies too, and ranks first: the town starts its address
+		assertEquals(List.of(booked.getId(), free.getId()), ids(fieldService.browseFieldsWithFilters(null, "19:30", 10,
+				town, 0, 10)));
+
+		Page<Fields> firstPage = fieldService.browseFieldsWithFilters(null, null, null, town, 0, 3);
+		assertEquals(4, firstPage.getTotalElements());
+		assertEquals(3, firstPage.getContent().size());
+		assertEquals(4, fieldService.browseFieldsWithFilters(null, null, null, town, 5, 3).getTotalElements());
+	}
+
+	@Test
+	@Tag("benchmark")
+	void randomFiltersOverFiveThousandFields() {
+		BookingFixtures.TeamFixture team = fixtures.seedTeam();
+		String town = "Benchtown" + System.nanoTime();
+		Integer[] weekDayIds = new Integer[7];
+		for (DayOfWeek day : DayOfWeek.values()) {
+			weekDayIds[day.ordinal()] = weekDaysRepository.save(WeekDays.builder()
+					.name(day.getDisplayName(TextStyle.FULL, Locale.ENGLISH)).build()).getId();
+		}
+		weekDayCache.reload();
+		LocalDate monday = LocalDate.now().plusYears(45).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+		String pattern = "%" + town;
+
+		long started = System.nanoTime();
+		jdbcTemplate.update("INSERT INTO fields (name, images, players_capacity, location_address, is_active) " +
+				"SELECT 'Bench Field ' || g, '', 5 + g % 18, 'Block ' || g || ', District ' || (g % 50) || ', ' || ?, g % 20 <> 0 " +
+				"FROM generate_series(1, ?) g", town, FIELDS);
+		jdbcTemplate.update("INSERT INTO field_slots (field_id, week_day_id, from_time, to_time, price) " +
+				"SELECT f.id, w.id, TIME '08:00' + h * INTERVAL '90 minutes', TIME '09:30' + h * INTERVAL '90 minutes', 50 " +
+				"FROM fields f CROSS JOIN unnest(?::int[]) w(id) CROSS JOIN generate_series(0, ? - 1) h " +
+				"WHERE f.location_address LIKE ?", weekDayIds, SLOTS_PER_DAY, pattern);
+		// About 90% of every slot taken for the next eight weeks: roughly 2M bookings
+		jdbcTemplate.update("INSERT INTO bookings (player_id, team_id, field_slot_id, field_id, date, status, price) " +
+				"SELECT ?, ?, s.id, s.field_id, ?::date + (w.idx - 1)::int + 7 * k, 'approved', s.price " +
+				"FROM field_slots s JOIN fields f ON f.id = s.field_id AND f.location_address LIKE ? " +
+				"JOIN unnest(?::int[]) WITH ORDINALITY w(id, idx) ON w.id = s.week_day_id " +
+				"CROSS JOIN generate_series(0, ? - 1) k WHERE random() < 0.9",
+				team.player().getId(), team.team().getId(), monday, pattern, weekDayIds, WEEKS);
+		jdbcTemplate.execute("ANALYZE fields");
+		jdbcTemplate.execute("ANALYZE field_slots");
+		jdbcTemplate.execute("ANALYZE bookings");
+		System.out.printf("[field-search] loaded %d fields / %d bookings in %ds%n", FIELDS,
+				jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings b JOIN fields f ON f.id = b.field_id " +
+						"WHERE f.location_address LIKE ?", Long.class, pattern),
+				(System.nanoTime() - started) / 1_000_000_000);
+
+		try {
+			String[] timeSlots = {null, "19:00", "08:00-09:30", "14:00-15:30"};
+			LatencyHistogram latency = new LatencyHistogram();
+			long matched = 0;
+			for (int i = 0; i < LOOKUPS + 50; i++) {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				LocalDate date = random.nextBoolean() ? monday.plusDays(random.nextInt(7 * WEEKS)) : null;
+				String timeSlot = timeSlots[random.nextInt(timeSlots.length)];
+				Integer capacity = random.nextBoolean() ? 5 + random.nextInt(18) : null;
+				String location = random.nextBoolean() ? "District " + random.nextInt(50) + ", " + town : town;
+
+				long t0 = System.nanoTime();
+				Page<Fields> page = fieldService.browseFieldsWithFilters(date, timeSlot, capacity, location, random.nextInt(3), 20);
+				// The first 50 only warm the caches
+				if (i >= 50) {
+					latency.recordNanos(System.nanoTime() - t0);
+					matched += page.getTotalElements();
+				}
+			}
+			System.out.printf("[field-search] %d searches, avg %d matches: %s%n",
+					LOOKUPS, matched / LOOKUPS, latency.snapshot());
+			assertTrue(matched > 0);
+		} finally {
+			jdbcTemplate.update("DELETE FROM bookings WHERE field_id IN (SELECT id FROM fields WHERE location_address LIKE ?)", pattern);
+			jdbcTemplate.update("DELETE FROM field_slots WHERE field_id IN (SELECT id FROM fields WHERE location_address LIKE ?)", pattern);
+			jdbcTemplate.update("DELETE FROM fields WHERE location_address LIKE ?", pattern);
+		}
+	}
+
+	private Fields seedField(String address, int capacity, WeekDays weekDay, LocalTime from, LocalTime to) {
+		Fields field = fieldRepository.save(Fields.builder()
+				.name("Search Field").images("").playersCapacity(capacity)
+				.locationAddress(address).isActive(true).build());
+		fieldSlotRepository.save(FieldSlots.builder()
+				.field(field).weekDay(weekDay).fromTime(from).toTime(to)
+				.price(BigDecimal.valueOf(50)).build());
+		return field;
+	}
+
+	private static List<Integer> ids(Page<Fields> page) {
+		return page.getContent().stream().map(Fields::getId).toList();
+	}
+}
@@ -0,0 +1,120 @@
+package com.example.feilds;
+
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.model.Users;
+import com.example.feilds.repository.*;
+import com.example.feilds.service.FieldService;
+import com.example.feilds.service.FieldSlotListCache;
+import com.example.feilds.service.FieldSlotService;
+import com.example.feilds.service.WeekDayCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Field slot lists are served from memory, dropped on every write through the services,
+ * loaded once for concurrent misses, and evicted least recently read first.
+ */
+@SpringBootTest
+@Import(BookingFixtures.class)
+class FieldSlotListCacheTests {
+
+	@Autowired
+	private FieldSlotListCache slotLists;
+	@Autowired
+	private FieldSlotService fieldSlotService;
+	@Autowired
+	private FieldService fieldService;
+	@Autowired
+	private WeekDayCache weekDayCache;
+	@Autowired
+	private FieldRepository fieldRepository;
+	@Autowired
+	private FieldSlotRepository fieldSlotRepository;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	void writesDropTheCachedList() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Users admin = fixtures.seedAdmin();
+		Integer fieldId = fixture.field().getId();
+
+		List<FieldSlots> first = fieldSlotService.getFieldSlots(fieldId);
+		long hits = counter("hits");
+		assertSame(first, fieldSlotService.getFieldSlots(fieldId));
+		assertEquals(hits + 1, counter("hits"));
+		assertThrows(UnsupportedOperationException.class, () -> first.add(new FieldSlots()));
+
+		fieldSlotService.createFieldSlot(admin.getId(), fieldId, fixture.slot().getWeekDay().getId(), "20:00", "21:00", 50.0);
+		assertEquals(2, fieldSlotService.getFieldSlots(fieldId).size());
+		assertEquals(2, ((List<?>) fieldService.getFieldWithAvailableTimes(fieldId).get("availableTimeSlots")).size());
+
+		fieldService.toggleFieldStatus(admin.getId(), fieldId, false);
+		assertThrows(IllegalArgumentException.class, () -> fieldService.getFieldWithAvailableTimes(fieldId));
+		assertThrows(IllegalArgumentException.class, () -> fieldSlotService.getFieldSlots(Integer.MAX_VALUE));
+	}
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		Integer fieldId = fixtures.seedSlot().field().getId();
+		slotLists.invalidate(fieldId);
+		long loads = counter("loads");
+
+		int threads = 16;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<FieldSlotListCache.FieldSlotList>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					return slotLists.get(fieldId);
+				}));
+			}
+			start.countDown();
+			FieldSlotListCache.FieldSlotList expected = results.get(0).get();
+			for (Future<FieldSlotListCache.FieldSlotList> result : results) {
+				assertSame(expected, result.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(loads + 1, counter("loads"));
+	}
+
+	@Test
+	void leastRecentlyReadFieldIsEvicted() {
+		FieldSlotListCache small = new FieldSlotListCache(fieldRepository, fieldSlotRepository, weekDayCache, 2);
+		Integer a = fixtures.seedSlot().field().getId();
+		Integer b = fixtures.seedSlot().field().getId();
+		Integer c = fixtures.seedSlot().field().getId();
+
+		small.get(a);
+		small.get(b);
+		small.get(a);
+		small.get(c);
+		assertEquals(1L, small.stats().get("evictions"));
+		assertEquals(2, small.stats().get("cachedFields"));
+
+		// b was evicted, a is still cached
+		small.get(a);
+		assertEquals(2L, small.stats().get("hits"));
+		small.get(b);
+		assertEquals(4L, small.stats().get("loads"));
+	}
+
+	private long counter(String name) {
+		return (Long) slotLists.stats().get(name);
+	}
+}
@@ -0,0 +1,131 @@
+package com.example.feilds;
+
+import com.example.feilds.model.Bookings;
+import com.example.feilds.model.Users;
+import com.example.feilds.service.BookingBatchWriter;
+import com.example.feilds.service.BookingService;
+import com.example.feilds.service.PendingExpiryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Several sweepers running at once (as on several nodes) must expire every stale pending
+ * booking exactly once, leave admin-claimed ones alone, and free the slots. Other admins
+ * cannot change the status of a claimed booking either, one at a time or in bulk.
+ */
+@SpringBootTest
+@Import(BookingFixtures.class)
+class PendingExpirySweeperTests {
+
+	private static final int BOOKINGS = 600;
+	private static final int CLAIMED = 20;
+	private static final int SWEEPERS = 4;
+
+	@Autowired
+	private PendingExpiryService expiryService;
+	@Autowired
+	private BookingBatchWriter batchWriter;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	void concurrentSweepersExpireEachBookingOnce() throws Exception {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Integer slotId = fixture.slot().getId();
+
+		LocalDate base = LocalDate.now().plusYears(25);
+		List<BookingBatchWriter.NewBooking> rows = new ArrayList<>(BOOKINGS);
+		for (int i = 0; i < BOOKINGS; i++) {
+			rows.add(new BookingBatchWriter.NewBooking(fixture.player().getId(), fixture.team().getId(), slotId,
+					fixture.field().getId(), base.plusDays(i), Bookings.Status.pending.name(), fixture.slot().getPrice()));
+		}
+		batchWriter.insertBookings(rows);
+		List<Integer> ids = jdbcTemplate.queryForList(
+				"SELECT id FROM bookings WHERE field_slot_id = ? ORDER BY id", Integer.class, slotId);
+		assertEquals(BOOKINGS, ids.size());
+		batchWriter.insertStatusChanges(ids, Bookings.Status.pending.name(), null, LocalDateTime.now());
+
+		// Made three days ago; the first few are being worked on by an admin right now
+		jdbcTemplate.update("UPDATE bookings SET created_at = now() - INTERVAL '3 days' WHERE field_slot_id = ?", slotId);
+		jdbcTemplate.update("UPDATE bookings SET claimed_by = ?, claimed_until = now() + INTERVAL '5 minutes' " +
+				"WHERE id = ANY (?)", fixture.player().getId(), ids.subList(0, CLAIMED).toArray(Integer[]::new));
+
+		ExecutorService pool = Executors.newFixedThreadPool(SWEEPERS);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Long>> sweeps = new ArrayList<>();
+			for (int i = 0; i < SWEEPERS; i++) {
+				sweeps.add(pool.submit(() -> {
+					start.await();
+					return expiryService.sweep();
+				}));
+			}
+			start.countDown();
+			for (Future<Long> sweep : sweeps) {
+				sweep.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertEquals((long) BOOKINGS - CLAIMED, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM bookings WHERE field_slot_id = ? AND status = 'expired'", Long.class, slotId));
+		assertEquals((long) CLAIMED, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM bookings WHERE field_slot_id = ? AND status = 'pending'", Long.class, slotId));
+		// Exactly one 'expired' timeline row per expired booking, however the sweepers interleaved
+		assertEquals((long) BOOKINGS - CLAIMED, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM booking_status_changes c JOIN bookings b ON b.id = c.booking_id " +
+				"WHERE b.field_slot_id = ? AND c.status = 'expired'", Long.class, slotId));
+		assertEquals(0L, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM (SELECT c.booking_id FROM booking_status_changes c JOIN bookings b ON b.id = c.booking_id " +
+				"WHERE b.field_slot_id = ? AND c.status = 'expired' GROUP BY c.booking_id HAVING COUNT(*) > 1) dup",
+				Long.class, slotId));
+	}
+
+	@Test
+	void claimedBookingsAreLeftToTheClaimingAdmin() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Users claimant = fixtures.seedAdmin();
+		Users other = fixtures.seedAdmin();
+		Integer slotId = fixture.slot().getId();
+
+		LocalDate base = LocalDate.now().plusYears(26);
+		List<BookingBatchWriter.NewBooking> rows = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			rows.add(new BookingBatchWriter.NewBooking(fixture.player().getId(), fixture.team().getId(), slotId,
+					fixture.field().getId(), base.plusDays(i), Bookings.Status.pending.name(), fixture.slot().getPrice()));
+		}
+		batchWriter.insertBookings(rows);
+		List<Integer> ids = jdbcTemplate.queryForList(
+				"SELECT id FROM bookings WHERE field_slot_id = ? ORDER BY id", Integer.class, slotId);
+		jdbcTemplate.update("UPDATE bookings SET claimed_by = ?, claimed_until = now() + INTERVAL '5 minutes' " +
+				"WHERE id = ANY (?)", claimant.getId(), ids.subList(0, 2).toArray(Integer[]::new));
+
+		BookingService.ClaimedException refused = assertThrows(BookingService.ClaimedException.class,
+				() -> bookingService.updateBookingStatus(other.getId(), ids.get(0), "approved", null, null));
+		assertEquals(claimant.getId(), refused.getClaimedBy());
+
+		List<String> outcomes = bookingService.bulkUpdateStatus(other.getId(), ids, "approved", null).stream()
+				.map(BookingService.BulkOutcome::outcome).toList();
+		assertEquals(List.of("claimed", "claimed", "updated"), outcomes);
+
+		assertEquals(Bookings.Status.approved,
+				bookingService.updateBookingStatus(claimant.getId(), ids.get(0), "approved", null, null));
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.feilds;
+
+import com.example.feilds.service.BookingService;
+import com.example.feilds.service.RecurringBookingService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Inserts a 40-week season through the batched series path and through one createBooking
+ * call per week, and prints rows/s for both. Excluded from the default build; run with
+ * mvn test -Dgroups=benchmark -DexcludedGroups=
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Import(BookingFixtures.class)
+class RecurringBookingBenchmarkTests {
+
+	private static final int WEEKS = 40;
+	private static final int ROUNDS = 10;
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private RecurringBookingService recurringBookingService;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	void seriesVersusOneRowPerRequest() {
+		LocalDate start = LocalDate.now().plusYears(3);
+
+		long singleNanos = 0;
+		long seriesNanos = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			BookingFixtures.SlotFixture single = fixtures.seedSlot();
+			long started = System.nanoTime();
+			for (int week = 0; week < WEEKS; week++) {
+				bookingService.createBooking(single.team().getId(), single.slot().getId(),
+						single.player().getId(), start.plusWeeks(week));
+			}
+			singleNanos += System.nanoTime() - started;
+
+			BookingFixtures.SlotFixture series = fixtures.seedSlot();
+			started = System.nanoTime();
+			RecurringBookingService.SeriesResult result = recurringBookingService.createSeries(
+					series.team().getId(), series.player().getId(), series.slot().getId(),
+					start, null, WEEKS, null);
+			seriesNanos += System.nanoTime() - started;
+
+			assertEquals(WEEKS, result.created().size());
+		}
+
+		report("one-row-per-request", singleNanos);
+		report("batched series", seriesNanos);
+	}
+
+	private void report(String label, long nanos) {
+		double seconds = nanos / 1_000_000_000.0;
+		int rows = WEEKS * ROUNDS;
+		System.out.printf("[series-insert] %s: %d bookings in %.3fs (%.0f rows/s)%n",
+				label, rows, seconds, rows / seconds);
+	}
+}
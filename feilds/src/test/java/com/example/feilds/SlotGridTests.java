@@ -0,0 +1,153 @@
+package com.example.feilds;
+
+import com.example.feilds.model.Fields;
+import com.example.feilds.model.Users;
+import com.example.feilds.model.WeekDays;
+import com.example.feilds.repository.*;
+import com.example.feilds.service.FieldSlotService;
+import com.example.feilds.service.LatencyHistogram;
+import com.example.feilds.service.WeekDayCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A field's weekly grid is generated from opening hours, priced by band, and refused as a
+ * whole when it overlaps itself or the field's existing slots. The benchmark sets up 50
+ * fields x 7 days x 16 slots through the grid and through one createFieldSlot call per slot.
+ */
+@SpringBootTest
+@Import(BookingFixtures.class)
+class SlotGridTests {
+
+	private static final int FIELDS = 50;
+	private static final int SLOTS_PER_DAY = 16;
+
+	@Autowired
+	private FieldSlotService fieldSlotService;
+	@Autowired
+	private WeekDayCache weekDayCache;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private FieldRepository fieldRepository;
+	@Autowired
+	private FieldSlotRepository fieldSlotRepository;
+	@Autowired
+	private WeekDaysRepository weekDaysRepository;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	void gridIsPricedByBandAndRejectedWholeOnOverlap() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Users admin = fixtures.seedAdmin();
+		Integer fieldId = fixture.field().getId();
+		// The fixture slot runs 19:00-20:00 on its own week day
+		Integer testDay = fixture.slot().getWeekDay().getId();
+		Integer otherDay = weekDaysRepository.save(WeekDays.builder().name("Grid day").build()).getId();
+		weekDayCache.reload();
+
+		IllegalArgumentException clash = assertThrows(IllegalArgumentException.class, () -> fieldSlotService.generateSlotGrid(
+				admin.getId(), fieldId, 60, List.of(day(testDay, "08:00", "22:00", 50.0))));
+		assertTrue(clash.getMessage().contains("overlaps slot " + fixture.slot().getId()), clash.getMessage());
+		// The same day twice with intersecting hours clashes inside the grid
+		assertThrows(IllegalArgumentException.class, () -> fieldSlotService.generateSlotGrid(admin.getId(), fieldId, 60,
+				List.of(day(otherDay, "08:00", "12:00", 50.0), day(otherDay, "11:30", "13:30", 50.0))));
+		assertEquals(1, fieldSlotRepository.findByField(fixture.field()).size());
+
+		List<FieldSlotService.GridSlot> grid = fieldSlotService.generateSlotGrid(admin.getId(), fieldId, 60, List.of(
+				new FieldSlotService.DaySchedule(testDay, "08:00", "19:00", 50.0,
+						List.of(new FieldSlotService.PriceBand("17:00", "19:00", 80.0))),
+				day(otherDay, "10:00", "12:30", 40.0)));
+
+		// 11 slots up to the fixture slot, and two on the other day: 12:00-12:30 is too short
+		assertEquals(13, grid.size());
+		assertTrue(grid.stream().allMatch(slot -> slot.id() != null));
+		assertEquals(14, fieldSlotRepository.findByField(fixture.field()).size());
+		assertEquals(50.0, priceAt(grid, testDay, LocalTime.of(16, 0)).doubleValue());
+		assertEquals(80.0, priceAt(grid, testDay, LocalTime.of(18, 0)).doubleValue());
+		assertEquals(LocalTime.of(12, 0), grid.get(grid.size() - 1).toTime());
+
+		// The generated slots are part of the overlap check straight away
+		assertThrows(IllegalArgumentException.class, () -> fieldSlotService.createFieldSlot(admin.getId(),
+				fieldId, otherDay, "10:30", "11:30", 40.0));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void fiftyFieldsSevenDaysSixteenSlots() {
+		Users admin = fixtures.seedAdmin();
+		List<Integer> weekDayIds = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			weekDayIds.add(weekDaysRepository.save(WeekDays.builder().name("Grid bench " + i).build()).getId());
+		}
+		weekDayCache.reload();
+		List<FieldSlotService.DaySchedule> week = weekDayIds.stream()
+				.map(id -> new FieldSlotService.DaySchedule(id, "07:00", "23:00", 50.0,
+						List.of(new FieldSlotService.PriceBand("18:00", "23:00", 80.0))))
+				.toList();
+
+		List<Fields> fields = new ArrayList<>();
+		for (int i = 0; i < 2 * FIELDS; i++) {
+			fields.add(fieldRepository.save(Fields.builder()
+					.name("Grid Bench Field " + i).images("").playersCapacity(10)
+					.locationAddress("Grid bench").isActive(true).build()));
+		}
+
+		try {
+			LatencyHistogram gridLatency = new LatencyHistogram();
+			long gridStarted = System.nanoTime();
+			for (Fields field : fields.subList(0, FIELDS)) {
+				long t0 = System.nanoTime();
+				assertEquals(7 * SLOTS_PER_DAY, fieldSlotService.generateSlotGrid(admin.getId(), field.getId(), 60, week).size());
+				gridLatency.recordNanos(System.nanoTime() - t0);
+			}
+			long gridMillis = (System.nanoTime() - gridStarted) / 1_000_000;
+
+			LatencyHistogram singleLatency = new LatencyHistogram();
+			long singleStarted = System.nanoTime();
+			for (Fields field : fields.subList(FIELDS, 2 * FIELDS)) {
+				long t0 = System.nanoTime();
+				for (Integer weekDayId : weekDayIds) {
+					for (int h = 7; h < 7 + SLOTS_PER_DAY; h++) {
+						fieldSlotService.createFieldSlot(admin.getId(), field.getId(), weekDayId,
+								String.format("%02d:00", h), String.format("%02d:00", h + 1), h >= 18 ? 80.0 : 50.0);
+					}
+				}
+				singleLatency.recordNanos(System.nanoTime() - t0);
+			}
+			long singleMillis = (System.nanoTime() - singleStarted) / 1_000_000;
+
+			System.out.printf("[slot-grid] %d fields x 7 days x %d slots, grid: %d ms, per field %s%n",
+					FIELDS, SLOTS_PER_DAY, gridMillis, gridLatency.snapshot());
+			System.out.printf("[slot-grid] same through createFieldSlot: %d ms, per field %s%n",
+					singleMillis, singleLatency.snapshot());
+			assertTrue(gridMillis < singleMillis);
+		} finally {
+			Integer[] ids = fields.stream().map(Fields::getId).toArray(Integer[]::new);
+			jdbcTemplate.update("DELETE FROM field_slots WHERE field_id = ANY (?)", (Object) ids);
+			jdbcTemplate.update("DELETE FROM fields WHERE id = ANY (?)", (Object) ids);
+		}
+	}
+
+	private static FieldSlotService.DaySchedule day(Integer weekDayId, String opensAt, String closesAt, Double price) {
+		return new FieldSlotService.DaySchedule(weekDayId, opensAt, closesAt, price, List.of());
+	}
+
+	private static BigDecimal priceAt(List<FieldSlotService.GridSlot> grid, Integer weekDayId, LocalTime from) {
+		return grid.stream()
+				.filter(slot -> slot.weekDayId().equals(weekDayId) && slot.fromTime().equals(from))
+				.findFirst().orElseThrow().price();
+	}
+}
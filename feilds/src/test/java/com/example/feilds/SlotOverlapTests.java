@@ -0,0 +1,220 @@
+package com.example.feilds;
+
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.model.Users;
+import com.example.feilds.repository.*;
+import com.example.feilds.service.BookingHoldService;
+import com.example.feilds.service.BookingService;
+import com.example.feilds.service.FieldSlotIntervalIndex;
+import com.example.feilds.service.FieldService;
+import com.example.feilds.service.FieldSlotService;
+import com.example.feilds.service.RecurringBookingService;
+import com.example.feilds.service.SlotOccupancyIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Slot templates may not overlap on the same field and day, and a booking may not overlap
+ * another booking on the same field through a different (legacy) slot, even when both
+ * are requested at the same moment, one at a time or as a weekly series. Slots that touch
+ * inside a quarter-hour are booked, held and released independently.
+ */
+@SpringBootTest
+@Import(BookingFixtures.class)
+class SlotOverlapTests {
+
+	@Autowired
+	private FieldSlotService fieldSlotService;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private RecurringBookingService recurringBookingService;
+	@Autowired
+	private BookingHoldService holdService;
+	@Autowired
+	private FieldService fieldService;
+	@Autowired
+	private FieldSlotIntervalIndex slotIntervals;
+	@Autowired
+	private FieldSlotRepository fieldSlotRepository;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	void overlappingSlotTemplatesAreRejected() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Users admin = fixtures.seedAdmin();
+		Integer fieldId = fixture.field().getId();
+		Integer weekDayId = fixture.slot().getWeekDay().getId();
+
+		// The fixture slot runs 19:00-20:00
+		assertThrows(IllegalArgumentException.class, () -> fieldSlotService.createFieldSlot(admin.getId(),
+				fieldId, weekDayId, "19:30", "20:30", 50.0));
+		FieldSlots next = fieldSlotService.createFieldSlot(admin.getId(), fieldId, weekDayId, "20:00", "21:00", 50.0);
+
+		// Moving the new slot onto the old one is refused too; moving it within free time is not
+		assertThrows(IllegalArgumentException.class, () -> fieldSlotService.updateFieldSlot(admin.getId(),
+				next.getId(), "18:30", "20:30", null));
+		assertEquals(LocalTime.of(21, 30), fieldSlotService.updateFieldSlot(admin.getId(),
+				next.getId(), "20:00", "21:30", null).getToTime());
+	}
+
+	@Test
+	void bookingOnAnOverlappingSlotIsRejected() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		BookingFixtures.TeamFixture other = fixtures.seedTeam();
+
+		// An overlapping slot written before the check existed
+		FieldSlots legacy = fieldSlotRepository.save(FieldSlots.builder()
+				.field(fixture.field()).weekDay(fixture.slot().getWeekDay())
+				.fromTime(LocalTime.of(19, 30)).toTime(LocalTime.of(20, 30))
+				.price(BigDecimal.valueOf(50)).build());
+		slotIntervals.invalidate(fixture.field().getId());
+
+		LocalDate date = LocalDate.now().plusYears(30);
+		bookingService.createBooking(fixture.team().getId(), fixture.slot().getId(), fixture.player().getId(), date);
+
+		assertThrows(BookingService.SlotUnavailableException.class, () -> bookingService.createBooking(
+				other.team().getId(), legacy.getId(), other.player().getId(), date));
+		assertNotNull(bookingService.createBooking(other.team().getId(), legacy.getId(), other.player().getId(),
+				date.plusDays(1)).getId());
+	}
+
+	@Test
+	void concurrentBookingsOnOverlappingSlotsHaveOneWinner() throws Exception {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		FieldSlots legacy = fieldSlotRepository.save(FieldSlots.builder()
+				.field(fixture.field()).weekDay(fixture.slot().getWeekDay())
+				.fromTime(LocalTime.of(19, 30)).toTime(LocalTime.of(20, 30))
+				.price(BigDecimal.valueOf(50)).build());
+		slotIntervals.invalidate(fixture.field().getId());
+		LocalDate date = LocalDate.now().plusYears(31);
+
+		// The two slots have different stripes, so only the field's lock keeps them apart
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger winners = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 64; i++) {
+			Integer slotId = i % 2 == 0 ? fixture.slot().getId() : legacy.getId();
+			futures.add(pool.submit(() -> {
+				start.await();
+				try {
+					bookingService.createBooking(fixture.team().getId(), slotId, fixture.player().getId(), date);
+					winners.incrementAndGet();
+				} catch (BookingService.SlotUnavailableException expected) {
+					// lost the race
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(1, TimeUnit.MINUTES);
+		}
+		pool.shutdown();
+
+		assertEquals(1, winners.get());
+	}
+
+	@Test
+	void seriesAndSingleBookingsOnOverlappingSlotsHaveOneWinnerPerDate() throws Exception {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		BookingFixtures.TeamFixture other = fixtures.seedTeam();
+		FieldSlots legacy = fieldSlotRepository.save(FieldSlots.builder()
+				.field(fixture.field()).weekDay(fixture.slot().getWeekDay())
+				.fromTime(LocalTime.of(19, 30)).toTime(LocalTime.of(20, 30))
+				.price(BigDecimal.valueOf(50)).build());
+		slotIntervals.invalidate(fixture.field().getId());
+		LocalDate start = LocalDate.now().plusYears(34);
+		int weeks = 12;
+
+		// One series on the legacy slot races a single booking per week on the fixture slot
+		ExecutorService pool = Executors.newFixedThreadPool(weeks + 1);
+		CountDownLatch go = new CountDownLatch(1);
+		AtomicInteger singles = new AtomicInteger();
+		Future<RecurringBookingService.SeriesResult> series = pool.submit(() -> {
+			go.await();
+			return recurringBookingService.createSeries(other.team().getId(), other.player().getId(),
+					legacy.getId(), start, null, weeks, null);
+		});
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < weeks; i++) {
+			LocalDate date = start.plusWeeks(i);
+			futures.add(pool.submit(() -> {
+				go.await();
+				try {
+					bookingService.createBooking(fixture.team().getId(), fixture.slot().getId(),
+							fixture.player().getId(), date);
+					singles.incrementAndGet();
+				} catch (BookingService.SlotUnavailableException expected) {
+					// lost the date to the series
+				}
+				return null;
+			}));
+		}
+		go.countDown();
+		RecurringBookingService.SeriesResult result = series.get(1, TimeUnit.MINUTES);
+		for (Future<?> future : futures) {
+			future.get(1, TimeUnit.MINUTES);
+		}
+		pool.shutdown();
+
+		assertEquals(weeks, result.created().size() + singles.get());
+		assertEquals(weeks, result.created().size() + result.conflicts().size());
+	}
+
+	@Test
+	void slotsTouchingInsideAQuarterHourAreBookedAndReleasedIndependently() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Users admin = fixtures.seedAdmin();
+		Integer fieldId = fixture.field().getId();
+		Integer weekDayId = fixture.slot().getWeekDay().getId();
+		FieldSlots early = fieldSlotService.createFieldSlot(admin.getId(), fieldId, weekDayId, "16:40", "17:50", 50.0);
+		FieldSlots late = fieldSlotService.createFieldSlot(admin.getId(), fieldId, weekDayId, "17:50", "19:00", 50.0);
+		LocalDate date = LocalDate.now().plusYears(32);
+
+		Integer earlyBooking = bookingService.createBooking(fixture.team().getId(), early.getId(),
+				fixture.player().getId(), date).getId();
+		bookingService.createBooking(fixture.team().getId(), late.getId(), fixture.player().getId(), date);
+		bookingService.updateBookingStatus(admin.getId(), earlyBooking, "rejected", null, null);
+
+		assertEquals(List.of(
+				new SlotOccupancyIndex.TimeWindow(LocalTime.MIDNIGHT, LocalTime.of(17, 50)),
+				new SlotOccupancyIndex.TimeWindow(LocalTime.of(19, 0), LocalTime.MAX)),
+				fieldService.getFreeWindows(fieldId, date));
+	}
+
+	@Test
+	void holdsTouchingInsideAQuarterHourAreReleasedIndependently() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Users admin = fixtures.seedAdmin();
+		Integer fieldId = fixture.field().getId();
+		Integer weekDayId = fixture.slot().getWeekDay().getId();
+		FieldSlots early = fieldSlotService.createFieldSlot(admin.getId(), fieldId, weekDayId, "16:40", "17:50", 50.0);
+		FieldSlots late = fieldSlotService.createFieldSlot(admin.getId(), fieldId, weekDayId, "17:50", "19:00", 50.0);
+		LocalDate date = LocalDate.now().plusYears(33);
+
+		BookingHoldService.Hold earlyHold = holdService.placeHold(fixture.team().getId(), fixture.player().getId(),
+				early.getId(), date);
+		holdService.placeHold(fixture.team().getId(), fixture.player().getId(), late.getId(), date);
+		holdService.releaseHold(earlyHold.token(), fixture.player().getId());
+
+		assertEquals(List.of(
+				new SlotOccupancyIndex.TimeWindow(LocalTime.MIDNIGHT, LocalTime.of(17, 50)),
+				new SlotOccupancyIndex.TimeWindow(LocalTime.of(19, 0), LocalTime.MAX)),
+				fieldService.getFreeWindows(fieldId, date));
+	}
+}
@@ -0,0 +1,107 @@
+package com.example.feilds;
+
+import com.example.feilds.model.Bookings;
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.model.Users;
+import com.example.feilds.model.WeekDays;
+import com.example.feilds.repository.*;
+import com.example.feilds.service.BookingService;
+import com.example.feilds.service.FieldService;
+import com.example.feilds.service.FieldSlotService;
+import com.example.feilds.service.PricingRules;
+import com.example.feilds.service.SlotPriceIndex;
+import com.example.feilds.service.SlotPriceMatrix;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Slot prices come from the per-field price matrix: peak, off-peak and holiday rules are
+ * applied in whole cents, and the matrix follows slot price changes. A date the matrix
+ * cannot price is refused rather than charged at the slot's plain price.
+ */
+@SpringBootTest
+@Import(BookingFixtures.class)
+class SlotPricingTests {
+
+	@Autowired
+	private FieldService fieldService;
+	@Autowired
+	private FieldSlotService fieldSlotService;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private SlotPriceIndex prices;
+	@Autowired
+	private WeekDaysRepository weekDaysRepository;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	void rulesOverlayTheSlotPrices() {
+		LocalDate friday = LocalDate.of(2040, 1, 6);
+		LocalDate holiday = friday.plusWeeks(1);
+		PricingRules rules = new PricingRules("FRIDAY,SATURDAY", "18:00", "23:00", new BigDecimal("1.2"),
+				"MONDAY", "06:00", "12:00", new BigDecimal("0.75"), holiday.toString(), new BigDecimal("1.5"));
+		SlotPriceMatrix matrix = new SlotPriceMatrix(List.of(
+				new SlotPriceMatrix.Slot(1, DayOfWeek.FRIDAY, 19 * 60, 5_000),
+				new SlotPriceMatrix.Slot(2, DayOfWeek.FRIDAY, 10 * 60, 4_999),
+				new SlotPriceMatrix.Slot(3, DayOfWeek.MONDAY, 9 * 60, 3_333),
+				new SlotPriceMatrix.Slot(4, null, 20 * 60, 2_500)), rules);
+
+		assertEquals(6_000, matrix.quote(1, friday));
+		assertEquals(9_000, matrix.quote(1, holiday));
+		assertEquals(4_999, matrix.quote(2, friday));
+		// 33.33 x 0.75 = 24.9975, rounded half up
+		assertEquals(2_500, matrix.quote(3, friday.plusDays(3)));
+		assertEquals(6_000 + 9_000 + 6_000, matrix.quoteSeries(1, friday, 3));
+		assertEquals(6_000, matrix.priceAt(DayOfWeek.FRIDAY, 19 * 60 + 10));
+
+		// Wrong day of the week, unknown slot; a slot without a day quotes on any date
+		assertEquals(SlotPriceMatrix.NONE, matrix.quote(1, friday.plusDays(1)));
+		assertEquals(SlotPriceMatrix.NONE, matrix.quote(99, friday));
+		assertEquals(2_500, matrix.quote(4, friday.plusDays(2)));
+	}
+
+	@Test
+	void bookingsAndQuotesFollowSlotPriceChanges() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Users admin = fixtures.seedAdmin();
+		Integer fieldId = fixture.field().getId();
+		Integer slotId = fixture.slot().getId();
+		LocalDate date = LocalDate.now().plusYears(30).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+		// Without configured rules a quote is the slot price; the fixture slot costs 50
+		assertEquals(0, new BigDecimal("150").compareTo(fieldService.quote(fieldId, slotId, date, 3).total()));
+		Bookings booking = bookingService.createBooking(fixture.team().getId(), slotId, fixture.player().getId(), date);
+		assertEquals(0, new BigDecimal("50").compareTo(booking.getPrice()));
+
+		fieldSlotService.updateFieldSlot(admin.getId(), slotId, null, null, 62.5);
+		assertEquals(0, new BigDecimal("62.50").compareTo(fieldService.quote(fieldId, slotId, date, 1).total()));
+		Bookings next = bookingService.createBooking(fixture.team().getId(), slotId, fixture.player().getId(), date.plusDays(1));
+		assertEquals(0, new BigDecimal("62.50").compareTo(next.getPrice()));
+	}
+
+	@Test
+	void datesOnAnotherWeekDayAreNotPriced() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Users admin = fixtures.seedAdmin();
+		WeekDays tuesday = weekDaysRepository.save(WeekDays.builder().name("Tuesday").build());
+		FieldSlots slot = fieldSlotService.createFieldSlot(admin.getId(), fixture.field().getId(), tuesday.getId(),
+				"07:00", "08:00", 40.0);
+		LocalDate nextTuesday = LocalDate.of(2041, 1, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.TUESDAY));
+
+		assertEquals(0, new BigDecimal("40.00").compareTo(prices.price(slot, nextTuesday)));
+		assertThrows(IllegalArgumentException.class, () -> prices.price(slot, nextTuesday.plusDays(1)));
+	}
+}
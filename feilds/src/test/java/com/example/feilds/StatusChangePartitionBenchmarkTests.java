@@ -0,0 +1,136 @@
+package com.example.feilds;
+
+import com.example.feilds.repository.*;
+import com.example.feilds.service.LatencyHistogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads 2M bookings with 10 status changes each (20M timeline rows spread over the last
+ * 24 months), then compares the pruned timeline lookup with the same lookup without the
+ * created_at bound, for recent bookings. Prints p50/p99 of both and how many monthly
+ * partitions each plan actually scanned. Takes several minutes and a few GB of disk;
+ * meant for a scratch database. Run with mvn test -Dgroups=benchmark -DexcludedGroups=
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Import(BookingFixtures.class)
+class StatusChangePartitionBenchmarkTests {
+
+	private static final int BOOKINGS = 2_000_000;
+	private static final int CHANGES_PER_BOOKING = 10;
+	private static final int MONTHS = 24;
+	private static final int LOOKUPS = 2000;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private BookingStatusChangesRepository statusRepository;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	void prunedTimelineVersusFullScanOfPartitions() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Integer teamId = fixture.team().getId();
+
+		// The service only creates partitions from the oldest existing row onwards; backfill the benchmark's months
+		YearMonth current = YearMonth.now();
+		for (int i = MONTHS; i >= 0; i--) {
+			YearMonth month = current.minusMonths(i);
+			jdbcTemplate.execute(String.format(
+					"CREATE TABLE IF NOT EXISTS booking_status_changes_y%04dm%02d PARTITION OF booking_status_changes " +
+					"FOR VALUES FROM ('%s') TO ('%s')",
+					month.getYear(), month.getMonthValue(), month.atDay(1), month.plusMonths(1).atDay(1)));
+		}
+
+		// Cancelled, so the live-slot unique index does not apply; created_at spread evenly over the window
+		long started = System.nanoTime();
+		jdbcTemplate.update("INSERT INTO bookings (player_id, team_id, field_slot_id, field_id, date, status, price, created_at) " +
+				"SELECT ?, ?, ?, ?, ?::date + (g % 3650), 'cancelled', 100, " +
+				"now() - (g % (? * 30)) * INTERVAL '1 day' - (g % 1440) * INTERVAL '1 minute' " +
+				"FROM generate_series(1, ?) g",
+				fixture.player().getId(), teamId, fixture.slot().getId(), fixture.field().getId(),
+				LocalDate.now().plusYears(40), MONTHS, BOOKINGS);
+		jdbcTemplate.update("INSERT INTO booking_status_changes (booking_id, status, created_at) " +
+				"SELECT b.id, CASE WHEN s = 0 THEN 'pending' ELSE 'cancelled' END, " +
+				"LEAST(b.created_at + s * INTERVAL '1 hour', now()) " +
+				"FROM bookings b CROSS JOIN generate_series(0, ? - 1) s WHERE b.team_id = ?",
+				CHANGES_PER_BOOKING, teamId);
+		jdbcTemplate.execute("ANALYZE bookings");
+		jdbcTemplate.execute("ANALYZE booking_status_changes");
+		System.out.printf("[status-partitions] loaded %d bookings / %d changes in %ds%n",
+				BOOKINGS, BOOKINGS * CHANGES_PER_BOOKING, (System.nanoTime() - started) / 1_000_000_000);
+
+		try {
+			List<Integer> recent = jdbcTemplate.queryForList(
+					"SELECT id FROM bookings WHERE team_id = ? AND created_at > now() - INTERVAL '7 days' " +
+					"ORDER BY random() LIMIT ?", Integer.class, teamId, LOOKUPS);
+			assertEquals(LOOKUPS, recent.size());
+
+			// Warm both paths once so the first measured round does not pay for cold pages
+			for (Integer id : recent.subList(0, 100)) {
+				statusRepository.findTimeline(id);
+				unbounded(id);
+			}
+
+			LatencyHistogram pruned = new LatencyHistogram();
+			LatencyHistogram full = new LatencyHistogram();
+			for (Integer id : recent) {
+				long t0 = System.nanoTime();
+				int prunedRows = statusRepository.findTimeline(id).size();
+				long t1 = System.nanoTime();
+				int fullRows = unbounded(id).size();
+				long t2 = System.nanoTime();
+				pruned.recordNanos(t1 - t0);
+				full.recordNanos(t2 - t1);
+				assertEquals(fullRows, prunedRows);
+			}
+
+			Integer sample = recent.get(0);
+			int prunedScans = scannedPartitions("SELECT c.* FROM booking_status_changes c WHERE c.booking_id = " + sample +
+					" AND c.created_at >= COALESCE((SELECT b.created_at FROM bookings b WHERE b.id = " + sample +
+					"), '-infinity'::timestamp) - INTERVAL '1 day' ORDER BY c.created_at");
+			int fullScans = scannedPartitions("SELECT * FROM booking_status_changes WHERE booking_id = " + sample +
+					" ORDER BY created_at");
+
+			report("pruned", pruned, prunedScans);
+			report("unbounded", full, fullScans);
+			assertTrue(prunedScans < fullScans);
+		} finally {
+			jdbcTemplate.update("DELETE FROM booking_status_changes WHERE booking_id IN (SELECT id FROM bookings WHERE team_id = ?)", teamId);
+			jdbcTemplate.update("DELETE FROM bookings WHERE team_id = ?", teamId);
+		}
+	}
+
+	private List<Map<String, Object>> unbounded(Integer bookingId) {
+		return jdbcTemplate.queryForList(
+				"SELECT * FROM booking_status_changes WHERE booking_id = ? ORDER BY created_at", bookingId);
+	}
+
+	// Partitions an executed plan touched; runtime-pruned ones show up as "(never executed)" or not at all
+	private int scannedPartitions(String sql) {
+		List<String> plan = jdbcTemplate.queryForList("EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF) " + sql, String.class);
+		return (int) plan.stream()
+				.filter(line -> line.contains(" on booking_status_changes_y") && !line.contains("never executed"))
+				.count();
+	}
+
+	private void report(String label, LatencyHistogram latency, int partitions) {
+		System.out.printf("[status-partitions] %s: %d lookups, p50 %.3fms, p99 %.3fms, mean %s ms, %d partitions scanned%n",
+				label, latency.count(), latency.percentileMicros(50) / 1000.0, latency.percentileMicros(99) / 1000.0,
+				latency.snapshot().get("meanMs"), partitions);
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.feilds;
+
+import com.example.feilds.model.BookingView;
+import com.example.feilds.service.BookingBatchWriter;
+import com.example.feilds.service.BookingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Team history must stay at a fixed number of SQL statements per page, no matter how
+ * many bookings the team has or how many users/fields/slots they reference.
+ */
+@SpringBootTest
+@Import(BookingFixtures.class)
+class TeamHistoryQueryCountTests {
+
+	private static final int BOOKINGS = 1000;
+	private static final int PAGE_SIZE = 200;
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private BookingBatchWriter batchWriter;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	void teamHistoryUsesTwoStatementsPerPage() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+
+		LocalDate base = LocalDate.now().plusYears(20);
+		List<BookingBatchWriter.NewBooking> rows = new ArrayList<>(BOOKINGS);
+		for (int i = 0; i < BOOKINGS; i++) {
+			rows.add(new BookingBatchWriter.NewBooking(fixture.player().getId(), fixture.team().getId(),
+					fixture.slot().getId(), fixture.field().getId(), base.plusDays(i), "pending", BigDecimal.valueOf(50)));
+		}
+		batchWriter.insertBookings(rows);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+
+		Set<Integer> seen = new HashSet<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			statistics.clear();
+			BookingService.HistoryPage page = bookingService.getTeamHistory(fixture.team().getId(), cursor, PAGE_SIZE);
+
+			// existsById for the team + the projection query, nothing per row
+			assertEquals(2, statistics.getPrepareStatementCount());
+			assertEquals(0, statistics.getEntityLoadCount());
+
+			for (BookingView view : page.items()) {
+				seen.add(view.id());
+			}
+			cursor = page.nextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(BOOKINGS / PAGE_SIZE, pages);
+		assertEquals(BOOKINGS, seen.size());
+		assertNull(cursor);
+	}
+}
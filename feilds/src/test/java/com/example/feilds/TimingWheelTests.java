@@ -0,0 +1,81 @@
+package com.example.feilds;
+
+import com.example.feilds.service.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Timing wheel behaviour on a manual clock: 100k holds spread over an hour (so every
+ * level cascades) fire exactly once, never early and at most one tick late.
+ */
+class TimingWheelTests {
+
+	private static final int HOLDS = 100_000;
+	private static final long TICK_MS = 100;
+
+	@Test
+	void expiresHundredThousandTimeoutsWithinOneTick() {
+		AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+		TimingWheel wheel = new TimingWheel(TICK_MS, 64, clock::get);
+
+		Random random = new Random(42);
+		AtomicInteger early = new AtomicInteger();
+		AtomicLong maxLag = new AtomicLong();
+		AtomicInteger fired = new AtomicInteger();
+		for (int i = 0; i < HOLDS; i++) {
+			long deadline = clock.get() + 1 + random.nextInt(3_600_000);
+			wheel.schedule(deadline - clock.get(), () -> {
+				long lag = clock.get() - deadline;
+				if (lag < 0) early.incrementAndGet();
+				maxLag.accumulateAndGet(lag, Math::max);
+				fired.incrementAndGet();
+			});
+		}
+		assertEquals(HOLDS, wheel.pendingCount());
+
+		// Advance in uneven steps, as a late ticker thread would
+		long end = clock.get() + 3_600_000 + TICK_MS;
+		while (clock.get() < end) {
+			clock.addAndGet(1 + random.nextInt(37));
+			wheel.advance();
+		}
+
+		assertEquals(HOLDS, fired.get());
+		assertEquals(0, early.get());
+		assertTrue(maxLag.get() <= TICK_MS + 37, "max lag " + maxLag.get() + "ms");
+		assertEquals(0L, wheel.pendingCount());
+
+		Map<String, Object> stats = wheel.stats();
+		assertEquals((long) HOLDS, stats.get("fired"));
+		assertTrue((Integer) stats.get("levels") > 1);
+	}
+
+	@Test
+	void cancelledTimeoutsNeverFire() {
+		AtomicLong clock = new AtomicLong(0);
+		TimingWheel wheel = new TimingWheel(TICK_MS, 64, clock::get);
+		AtomicInteger fired = new AtomicInteger();
+
+		TimingWheel.Timeout kept = wheel.schedule(60_000, fired::incrementAndGet);
+		for (int i = 0; i < 1000; i++) {
+			wheel.schedule(60_000, fired::incrementAndGet).cancel();
+		}
+
+		clock.set(59_999);
+		wheel.advance();
+		assertEquals(0, fired.get());
+
+		clock.set(60_000 + TICK_MS);
+		wheel.advance();
+		assertEquals(1, fired.get());
+		assertTrue(!kept.isCancelled());
+		assertEquals(0L, wheel.pendingCount());
+	}
+}
@@ -0,0 +1,148 @@
+package com.example.feilds;
+
+import com.example.feilds.service.BookingLockManager;
+import com.example.feilds.service.BookingService;
+import com.example.feilds.service.WaitlistService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Cancels the live booking of one slot thousands of times while other threads race to
+ * cancel it again and to re-book the slot directly. Every round must promote exactly one
+ * waiting team, in FIFO order, and no waitlist entry may ever be promoted twice.
+ */
+@SpringBootTest
+@Import(BookingFixtures.class)
+class WaitlistPromotionStressTests {
+
+	private static final int ROUNDS = 2000;
+	private static final int TEAMS = 4;
+	private static final int CANCELLERS = 4;
+	private static final int REBOOKERS = 4;
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private WaitlistService waitlistService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	void everyCancellationPromotesExactlyOneWaitingTeam() throws Exception {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Integer adminId = fixtures.seedAdmin().getId();
+		Integer slotId = fixture.slot().getId();
+		LocalDate date = LocalDate.now().plusYears(8);
+
+		List<BookingFixtures.TeamFixture> teams = new ArrayList<>();
+		teams.add(new BookingFixtures.TeamFixture(fixture.player(), fixture.team()));
+		for (int i = 1; i < TEAMS; i++) {
+			teams.add(fixtures.seedTeam());
+		}
+
+		// Team 0 books, everyone else waits; the local deque models the expected FIFO
+		int holder = 0;
+		Integer liveBookingId = bookingService.createBooking(teams.get(0).team().getId(), slotId,
+				teams.get(0).player().getId(), date).getId();
+		// The team holding the slot cannot queue for it as well
+		assertThrows(IllegalArgumentException.class, () -> join(teams.get(0), slotId, date));
+		Deque<Integer> expected = new ArrayDeque<>();
+		for (int i = 1; i < TEAMS; i++) {
+			join(teams.get(i), slotId, date);
+			expected.add(i);
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(CANCELLERS + REBOOKERS);
+		try {
+			for (int round = 0; round < ROUNDS; round++) {
+				BookingFixtures.TeamFixture previous = teams.get(holder);
+				Integer bookingId = liveBookingId;
+
+				AtomicInteger cancelled = new AtomicInteger();
+				AtomicInteger rebooked = new AtomicInteger();
+				CountDownLatch start = new CountDownLatch(1);
+				List<Future<?>> futures = new ArrayList<>();
+				for (int i = 0; i < CANCELLERS; i++) {
+					futures.add(pool.submit(() -> {
+						start.await();
+						try {
+							bookingService.updateBookingStatus(adminId, bookingId, "cancelled", null, "stress");
+							cancelled.incrementAndGet();
+						} catch (BookingService.StatusConflictException | BookingLockManager.LockTimeoutException ignored) {
+						}
+						return null;
+					}));
+				}
+				for (int i = 0; i < REBOOKERS; i++) {
+					futures.add(pool.submit(() -> {
+						start.await();
+						try {
+							bookingService.createBooking(previous.team().getId(), slotId, previous.player().getId(), date);
+							rebooked.incrementAndGet();
+						} catch (BookingService.SlotUnavailableException | BookingLockManager.LockTimeoutException ignored) {
+						}
+						return null;
+					}));
+				}
+				start.countDown();
+				for (Future<?> future : futures) {
+					future.get(60, TimeUnit.SECONDS);
+				}
+
+				assertEquals(1, cancelled.get(), "round " + round);
+				assertEquals(0, rebooked.get(), "round " + round);
+
+				List<Map<String, Object>> live = jdbcTemplate.queryForList(
+						"SELECT id, team_id FROM bookings WHERE field_slot_id = ? AND date = ? " +
+						"AND status IN ('pending', 'approved', 'completed')", slotId, date);
+				assertEquals(1, live.size(), "round " + round);
+
+				int promoted = expected.poll();
+				assertEquals(teams.get(promoted).team().getId(), live.get(0).get("team_id"), "round " + round);
+				liveBookingId = (Integer) live.get(0).get("id");
+				holder = promoted;
+
+				// The team that lost the slot goes to the back of the line
+				join(previous, slotId, date);
+				expected.add(teams.indexOf(previous));
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		Long promotions = jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM waitlist_entries WHERE field_slot_id = ? AND date = ? AND status = 'promoted'",
+				Long.class, slotId, date);
+		Long distinctBookings = jdbcTemplate.queryForObject(
+				"SELECT COUNT(DISTINCT booking_id) FROM waitlist_entries WHERE field_slot_id = ? AND date = ? " +
+				"AND status = 'promoted'", Long.class, slotId, date);
+		Long mismatched = jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM waitlist_entries w JOIN bookings b ON b.id = w.booking_id " +
+				"WHERE w.field_slot_id = ? AND w.date = ? AND w.team_id <> b.team_id", Long.class, slotId, date);
+
+		assertEquals(ROUNDS, promotions);
+		assertEquals(ROUNDS, distinctBookings);
+		assertEquals(0L, mismatched);
+	}
+
+	private void join(BookingFixtures.TeamFixture team, Integer slotId, LocalDate date) {
+		waitlistService.join(team.team().getId(), team.player().getId(), slotId, date);
+	}
+}
@@ -0,0 +1,90 @@
+package com.example.feilds;
+
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.model.Users;
+import com.example.feilds.model.WeekDays;
+import com.example.feilds.repository.*;
+import com.example.feilds.service.BookingService;
+import com.example.feilds.service.FieldSlotService;
+import com.example.feilds.service.RecurringBookingService;
+import com.example.feilds.service.WeekDayCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Week day ids are validated against the cached table, rows map to DayOfWeek both ways,
+ * listed slots carry the cached week day instead of a per-slot lookup, and a slot only
+ * takes bookings, single or weekly, on dates that fall on its week day.
+ */
+@SpringBootTest
+@Import(BookingFixtures.class)
+class WeekDayCacheTests {
+
+	@Autowired
+	private WeekDayCache weekDayCache;
+	@Autowired
+	private FieldSlotService fieldSlotService;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private RecurringBookingService recurringBookingService;
+	@Autowired
+	private WeekDaysRepository weekDaysRepository;
+	@Autowired
+	private BookingFixtures fixtures;
+
+	@Test
+	void idsAreValidatedAndMappedToDaysOfWeek() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Users admin = fixtures.seedAdmin();
+		Integer fieldId = fixture.field().getId();
+
+		assertThrows(IllegalArgumentException.class, () -> fieldSlotService.createFieldSlot(admin.getId(),
+				fieldId, Integer.MAX_VALUE, "08:00", "09:00", 50.0));
+
+		// Added after startup: found by id straight away, by day after a reload
+		WeekDays wednesday = weekDaysRepository.save(WeekDays.builder().name(" wed ").build());
+		assertEquals(DayOfWeek.WEDNESDAY, weekDayCache.dayOf(wednesday.getId()));
+		weekDayCache.reload();
+		assertTrue(weekDayCache.idsOf(DayOfWeek.WEDNESDAY).contains(wednesday.getId()));
+		assertNull(weekDayCache.dayOf(fixture.slot().getWeekDay().getId()));
+
+		FieldSlots created = fieldSlotService.createFieldSlot(admin.getId(), fieldId, wednesday.getId(),
+				"08:00", "09:00", 50.0);
+		assertEquals(" wed ", created.getWeekDay().getName());
+		for (FieldSlots slot : fieldSlotService.getFieldSlots(fieldId)) {
+			assertSame(weekDayCache.require(slot.getWeekDay().getId()), slot.getWeekDay());
+		}
+	}
+
+	@Test
+	void slotsAreBookedOnlyOnTheirWeekDay() {
+		BookingFixtures.SlotFixture fixture = fixtures.seedSlot();
+		Users admin = fixtures.seedAdmin();
+		WeekDays friday = weekDaysRepository.save(WeekDays.builder().name("Friday").build());
+		FieldSlots slot = fieldSlotService.createFieldSlot(admin.getId(), fixture.field().getId(), friday.getId(),
+				"07:00", "08:00", 50.0);
+		LocalDate nextFriday = LocalDate.now().plusYears(40).with(TemporalAdjusters.next(DayOfWeek.FRIDAY));
+
+		IllegalArgumentException wrongDay = assertThrows(IllegalArgumentException.class, () -> bookingService.createBooking(
+				fixture.team().getId(), slot.getId(), fixture.player().getId(), nextFriday.plusDays(1)));
+		assertEquals("Field slot is not offered on SATURDAY (" + nextFriday.plusDays(1) + ")", wrongDay.getMessage());
+		assertNotNull(bookingService.createBooking(fixture.team().getId(), slot.getId(), fixture.player().getId(), nextFriday));
+
+		// A series follows the slot's day whatever day it starts on, and refuses another one
+		RecurringBookingService.SeriesResult series = recurringBookingService.createSeries(fixture.team().getId(),
+				fixture.player().getId(), slot.getId(), nextFriday.plusDays(1), null, 2, null);
+		assertEquals(Set.of(nextFriday.plusWeeks(1), nextFriday.plusWeeks(2)), series.created().keySet());
+		assertThrows(IllegalArgumentException.class, () -> recurringBookingService.createSeries(fixture.team().getId(),
+				fixture.player().getId(), slot.getId(), nextFriday, null, 2, DayOfWeek.MONDAY));
+	}
+}
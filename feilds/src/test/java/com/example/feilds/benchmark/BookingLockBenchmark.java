@@ -0,0 +1,93 @@
+package com.example.feilds.benchmark;
+
+import com.example.feilds.service.BookingLockManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compares a single global lock, a synchronized monitor and BookingLockManager when
+ * many threads book random slots. Run main() after mvn test-compile; each thread count
+ * from 1 to 64 is a separate JMH run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingLockBenchmark {
+
+    private static final int SLOTS = 10_000;
+    private static final int DAYS = 90;
+    // Simulated critical section: roughly the cost of the in-memory checks under the lock
+    private static final long WORK_TOKENS = 100;
+
+    private final ReentrantLock globalLock = new ReentrantLock();
+    private final Object monitor = new Object();
+    private final BookingLockManager striped = new BookingLockManager(1024);
+    private final LocalDate today = LocalDate.now();
+
+    // Every variant picks a random slot and date so only the locking strategy differs
+    @Benchmark
+    public void globalLock(Blackhole bh) {
+        int slotId = randomSlot();
+        LocalDate date = randomDate();
+        globalLock.lock();
+        try {
+            work(bh, slotId, date);
+        } finally {
+            globalLock.unlock();
+        }
+    }
+
+    @Benchmark
+    public void synchronizedMonitor(Blackhole bh) {
+        int slotId = randomSlot();
+        LocalDate date = randomDate();
+        synchronized (monitor) {
+            work(bh, slotId, date);
+        }
+    }
+
+    @Benchmark
+    public void stripedLock(Blackhole bh) {
+        int slotId = randomSlot();
+        LocalDate date = randomDate();
+        striped.withSlotLock(slotId, date, () -> {
+            work(bh, slotId, date);
+            return null;
+        });
+    }
+
+    private int randomSlot() {
+        return ThreadLocalRandom.current().nextInt(SLOTS);
+    }
+
+    private LocalDate randomDate() {
+        return today.plusDays(ThreadLocalRandom.current().nextInt(DAYS));
+    }
+
+    private static void work(Blackhole bh, int slotId, LocalDate date) {
+        bh.consume(slotId);
+        bh.consume(date);
+        Blackhole.consumeCPU(WORK_TOKENS);
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int threads : new int[]{1, 2, 4, 8, 16, 32, 64}) {
+            Options options = new OptionsBuilder()
+                    .include(BookingLockBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.feilds.benchmark;
+
+import com.example.feilds.service.SlotIntervalTree;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap lookups on one field with hundreds of slot templates: the interval tree against
+ * scanning every slot, plus the cost of rebuilding the tree after a slot change. Slots are
+ * 15 to 120 minutes long at random times, so most queries match a few of them.
+ * Run main() after mvn test-compile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotIntervalTreeBenchmark {
+
+    @Param({"100", "300", "1000"})
+    private int slots;
+
+    private List<SlotIntervalTree.Interval> intervals;
+    private SlotIntervalTree tree;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        intervals = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            int from = random.nextInt(22 * 60);
+            int to = Math.min(from + 15 + random.nextInt(106), 23 * 60 + 59);
+            intervals.add(SlotIntervalTree.Interval.of(i, 1 + random.nextInt(7), time(from), time(to)));
+        }
+        tree = new SlotIntervalTree(intervals);
+    }
+
+    @Benchmark
+    public void intervalTree(Blackhole bh) {
+        int weekDay = randomWeekDay();
+        int from = randomMinute();
+        bh.consume(tree.overlapping(weekDay, time(from), time(from + 60), null));
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole bh) {
+        int weekDay = randomWeekDay();
+        int from = randomMinute();
+        int to = from + 60;
+        List<SlotIntervalTree.Interval> found = new ArrayList<>();
+        for (SlotIntervalTree.Interval interval : intervals) {
+            if (interval.weekDayId() == weekDay && interval.fromMinute() < to && interval.toMinute() > from) {
+                found.add(interval);
+            }
+        }
+        bh.consume(found);
+    }
+
+    @Benchmark
+    public SlotIntervalTree rebuild() {
+        return new SlotIntervalTree(intervals);
+    }
+
+    private static int randomWeekDay() {
+        return 1 + ThreadLocalRandom.current().nextInt(7);
+    }
+
+    private static int randomMinute() {
+        return ThreadLocalRandom.current().nextInt(22 * 60);
+    }
+
+    private static LocalTime time(int minute) {
+        return LocalTime.of(minute / 60, minute % 60);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(SlotIntervalTreeBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.feilds.benchmark;
+
+import com.example.feilds.model.FieldSlots;
+import com.example.feilds.service.PricingRules;
+import com.example.feilds.service.SlotPriceMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quoting one booking and a 12-week recurring series with peak, off-peak and holiday
+ * rules: the precomputed SlotPriceMatrix against the BigDecimal path that looks up the
+ * FieldSlots entity and multiplies its price. The field has 16 one-hour slots a day.
+ * Run main() after mvn test-compile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotPriceMatrixBenchmark {
+
+    private static final int SLOTS_PER_DAY = 16;
+    private static final int WEEKS = 12;
+    private static final Set<DayOfWeek> PEAK_DAYS = EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY);
+    private static final BigDecimal PEAK = new BigDecimal("1.2");
+    private static final BigDecimal OFF_PEAK = new BigDecimal("0.8");
+    private static final BigDecimal HOLIDAY = new BigDecimal("1.5");
+
+    private final LocalDate monday = LocalDate.of(2030, 1, 7);
+    private final Set<LocalDate> holidays = Set.of(monday.plusDays(18), monday.plusDays(45), monday.plusDays(60));
+
+    private SlotPriceMatrix matrix;
+    private Map<Integer, FieldSlots> entities;
+    private int[] slotIds;
+    private DayOfWeek[] slotDays;
+
+    @Setup
+    public void setUp() {
+        PricingRules rules = new PricingRules("FRIDAY,SATURDAY", "18:00", "23:00", PEAK,
+                "MONDAY,TUESDAY,WEDNESDAY,THURSDAY", "07:00", "12:00", OFF_PEAK,
+                holidays.stream().map(LocalDate::toString).reduce((a, b) -> a + "," + b).orElse(""), HOLIDAY);
+        List<SlotPriceMatrix.Slot> slots = new ArrayList<>();
+        entities = new HashMap<>();
+        int n = 7 * SLOTS_PER_DAY;
+        slotIds = new int[n];
+        slotDays = new DayOfWeek[n];
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            DayOfWeek day = DayOfWeek.of(1 + i / SLOTS_PER_DAY);
+            int hour = 7 + i % SLOTS_PER_DAY;
+            BigDecimal price = BigDecimal.valueOf(4000 + random.nextInt(4000), 2);
+            int id = 1000 + i * 3;
+            slotIds[i] = id;
+            slotDays[i] = day;
+            slots.add(new SlotPriceMatrix.Slot(id, day, hour * 60, price.unscaledValue().longValue()));
+            entities.put(id, FieldSlots.builder().id(id)
+                    .fromTime(LocalTime.of(hour, 0)).toTime(LocalTime.of(hour + 1, 0)).price(price).build());
+        }
+        matrix = new SlotPriceMatrix(slots, rules);
+    }
+
+    @Benchmark
+    public long matrixQuote() {
+        int i = randomSlot();
+        return matrix.quote(slotIds[i], dateFor(i));
+    }
+
+    @Benchmark
+    public BigDecimal entityQuote() {
+        int i = randomSlot();
+        return entityPrice(entities.get(slotIds[i]), slotDays[i], dateFor(i));
+    }
+
+    @Benchmark
+    public long matrixSeries() {
+        int i = randomSlot();
+        return matrix.quoteSeries(slotIds[i], dateFor(i), WEEKS);
+    }
+
+    @Benchmark
+    public BigDecimal entitySeries() {
+        int i = randomSlot();
+        FieldSlots slot = entities.get(slotIds[i]);
+        LocalDate first = dateFor(i);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int week = 0; week < WEEKS; week++) {
+            total = total.add(entityPrice(slot, slotDays[i], first.plusWeeks(week)));
+        }
+        return total;
+    }
+
+    // The same rules as the matrix, computed on the entity's BigDecimal price
+    private BigDecimal entityPrice(FieldSlots slot, DayOfWeek day, LocalDate date) {
+        BigDecimal price = slot.getPrice();
+        LocalTime from = slot.getFromTime();
+        if (PEAK_DAYS.contains(day) && !from.isBefore(LocalTime.of(18, 0)) && from.isBefore(LocalTime.of(23, 0))) {
+            price = price.multiply(PEAK).setScale(2, RoundingMode.HALF_UP);
+        } else if (day.getValue() <= 4
+                && !from.isBefore(LocalTime.of(7, 0)) && from.isBefore(LocalTime.of(12, 0))) {
+            price = price.multiply(OFF_PEAK).setScale(2, RoundingMode.HALF_UP);
+        }
+        if (holidays.contains(date)) {
+            price = price.multiply(HOLIDAY).setScale(2, RoundingMode.HALF_UP);
+        }
+        return price;
+    }
+
+    private static int randomSlot() {
+        return ThreadLocalRandom.current().nextInt(7 * SLOTS_PER_DAY);
+    }
+
+    private LocalDate dateFor(int slot) {
+        return monday.plusDays(slot / SLOTS_PER_DAY);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(SlotPriceMatrixBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}